@@ -0,0 +1,59 @@
+package com.awesome.testing.ollama.benchmark;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.EmbedRequestDto;
+import com.awesome.testing.ollama.dto.EmbedResponseDto;
+import com.awesome.testing.ollama.service.EmbeddingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * {@code /api/embed} cost per request: generating a batch of 768-dimension vectors (split across the
+ * parallel scheduler from 64 inputs) and writing the response with the application's ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmbeddingBenchmark {
+
+    @Param({"1", "32", "512"})
+    public int batch;
+
+    private EmbeddingService embeddingService;
+    private ObjectMapper objectMapper;
+    private EmbedRequestDto request;
+    private EmbedResponseDto response;
+
+    @Setup
+    public void setUp() {
+        embeddingService = new EmbeddingService(new OllamaMockProperties());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<String> inputs = IntStream.range(0, batch)
+                .mapToObj(i -> "Chunk " + i + " of the product catalogue describing laptops and monitors")
+                .toList();
+        request = EmbedRequestDto.builder().model("nomic-embed-text").input(inputs).build();
+        response = embeddingService.embed(request).block();
+    }
+
+    @Benchmark
+    public EmbedResponseDto generate() {
+        return embeddingService.embed(request).block();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
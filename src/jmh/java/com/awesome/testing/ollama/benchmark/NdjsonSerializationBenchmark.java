@@ -0,0 +1,79 @@
+package com.awesome.testing.ollama.benchmark;
+
+import com.awesome.testing.ollama.codec.NdjsonFrameEncoder;
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.dto.ChatResponseDto;
+import com.awesome.testing.ollama.dto.GenerateResponseDto;
+import com.awesome.testing.ollama.util.CoarseClock;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * One streamed chunk to NDJSON bytes: the pre-serialized {@link NdjsonFrameEncoder} against plain
+ * Jackson, which is what the default codec would do per chunk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NdjsonSerializationBenchmark {
+
+    private static final ResolvableType CHAT_TYPE = ResolvableType.forClass(ChatResponseDto.class);
+    private static final ResolvableType GENERATE_TYPE = ResolvableType.forClass(GenerateResponseDto.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private NdjsonFrameEncoder encoder;
+    private ChatResponseDto chatChunk;
+    private GenerateResponseDto generateChunk;
+
+    @Setup
+    public void setUp() {
+        encoder = new NdjsonFrameEncoder(objectMapper);
+        chatChunk = ChatResponseDto.builder()
+                .model("gpt-4o-mini")
+                .createdAt(CoarseClock.now())
+                .message(ChatMessageDto.builder().role("assistant").content(" streaming").build())
+                .done(false)
+                .build();
+        generateChunk = GenerateResponseDto.builder()
+                .model("gpt-4o-mini")
+                .createdAt(CoarseClock.now())
+                .response(" streaming")
+                .done(false)
+                .build();
+    }
+
+    @Benchmark
+    public DataBuffer chatFrameEncoder() {
+        return encoder.encodeValue(chatChunk, DefaultDataBufferFactory.sharedInstance, CHAT_TYPE,
+                MediaType.APPLICATION_NDJSON, Map.of());
+    }
+
+    @Benchmark
+    public byte[] chatJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(chatChunk);
+    }
+
+    @Benchmark
+    public DataBuffer generateFrameEncoder() {
+        return encoder.encodeValue(generateChunk, DefaultDataBufferFactory.sharedInstance, GENERATE_TYPE,
+                MediaType.APPLICATION_NDJSON, Map.of());
+    }
+
+    @Benchmark
+    public byte[] generateJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(generateChunk);
+    }
+}
@@ -0,0 +1,86 @@
+package com.awesome.testing.ollama.benchmark;
+
+import com.awesome.testing.ollama.codec.StreamingRequestDecoder;
+import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+/**
+ * Binding a chat request that carries a base64 image and a long tool output, in 8 KB chunks as they
+ * come off the socket: databind over the joined body (what the default Jackson decoder does) against
+ * {@link StreamingRequestDecoder}. Run with {@code -prof gc} to compare allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestDecodingBenchmark {
+
+    private static final int CHUNK = 8 * 1024;
+
+    @Param({"64", "1024"})
+    public int imageKilobytes;
+
+    private byte[] body;
+    private ObjectReader reader;
+    private StreamingRequestDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        byte[] image = new byte[imageKilobytes * 1024];
+        ThreadLocalRandom.current().nextBytes(image);
+        String toolOutput = "{\\\"id\\\":1,\\\"name\\\":\\\"Laptop\\\",\\\"price\\\":1999.0}".repeat(imageKilobytes * 8);
+        body = """
+                {"model":"qwen3:4b","stream":true,"think":false,
+                 "tools":[{"type":"function","function":{"name":"list_products","description":"Lists products"}}],
+                 "messages":[
+                  {"role":"system","content":"You are a shop assistant."},
+                  {"role":"user","content":"What is this product?","images":["%s"]},
+                  {"role":"assistant","content":"","tool_calls":[{"function":{"name":"list_products","arguments":{}}}]},
+                  {"role":"tool","tool_name":"list_products","content":"%s"},
+                  {"role":"user","content":"Which one is cheapest?"}]}
+                """.formatted(Base64.getEncoder().encodeToString(image), toolOutput)
+                .getBytes(StandardCharsets.UTF_8);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerFor(ChatRequestDto.class);
+        decoder = new StreamingRequestDecoder(objectMapper);
+    }
+
+    @Benchmark
+    public ChatRequestDto databind() throws IOException {
+        byte[] joined = new byte[body.length];
+        for (int offset = 0; offset < body.length; offset += CHUNK) {
+            byte[] chunk = Arrays.copyOfRange(body, offset, Math.min(body.length, offset + CHUNK));
+            System.arraycopy(chunk, 0, joined, offset, chunk.length);
+        }
+        return reader.readValue(joined);
+    }
+
+    @Benchmark
+    public ChatRequestDto streaming() {
+        return decoder.decode(chunks(), ChatRequestDto.class).block();
+    }
+
+    private Flux<DataBuffer> chunks() {
+        return Flux.range(0, (body.length + CHUNK - 1) / CHUNK)
+                .map(index -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(body, index * CHUNK, Math.min(body.length, (index + 1) * CHUNK))));
+    }
+}
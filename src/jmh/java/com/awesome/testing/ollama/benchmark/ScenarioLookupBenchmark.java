@@ -0,0 +1,105 @@
+package com.awesome.testing.ollama.benchmark;
+
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.scenario.ScenarioSource;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioPlan;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioRepository;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioPlan;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioRepository;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioPlan;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Prompt normalization and lookup in the three scenario repositories. The scenario prompt is either
+ * the first user message of the history or the last one, after {@code historySize - 1} unrelated
+ * messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScenarioLookupBenchmark {
+
+    public enum PromptPosition {
+        FIRST,
+        LAST
+    }
+
+    private GenerateScenarioRepository generateRepository;
+    private ChatDialogueScenarioRepository dialogueRepository;
+    private ChatScenarioRepository toolsRepository;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        generateRepository = new GenerateScenarioRepository(objectMapper, ScenarioSource.classpath());
+        dialogueRepository = new ChatDialogueScenarioRepository(objectMapper, ScenarioSource.classpath());
+        toolsRepository = new ChatScenarioRepository(objectMapper, ScenarioSource.classpath());
+    }
+
+    @Benchmark
+    public Optional<GenerateScenarioPlan> generateFindByPrompt() {
+        return generateRepository.findByPrompt("  summarize the RELEASE plan ");
+    }
+
+    @Benchmark
+    public Optional<ChatDialogueScenarioPlan> chatFindScenario(Histories histories) {
+        return dialogueRepository.findScenario(histories.dialogue);
+    }
+
+    @Benchmark
+    public Optional<ChatScenarioPlan> chatToolsFindScenarioForConversation(Histories histories) {
+        return toolsRepository.findScenarioForConversation(histories.tools);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Histories {
+
+        @Param({"10", "100", "1000", "10000"})
+        private int historySize;
+
+        @Param({"FIRST", "LAST"})
+        private PromptPosition promptPosition;
+
+        private List<ChatMessageDto> dialogue;
+        private List<ChatMessageDto> tools;
+
+        @Setup
+        public void setUp() {
+            dialogue = history("  give me a quick STATUS update on the Ollama mock ");
+            tools = history("What iphones do we have available? Tell me the details about them");
+        }
+
+        private List<ChatMessageDto> history(String scenarioPrompt) {
+            List<ChatMessageDto> messages = new ArrayList<>(historySize);
+            if (promptPosition == PromptPosition.FIRST) {
+                messages.add(user(scenarioPrompt));
+            }
+            while (messages.size() < historySize - (promptPosition == PromptPosition.LAST ? 1 : 0)) {
+                messages.add(messages.size() % 2 == 0
+                        ? user("Follow-up question number " + messages.size())
+                        : ChatMessageDto.builder().role("assistant").content("Answer " + messages.size()).build());
+            }
+            if (promptPosition == PromptPosition.LAST) {
+                messages.add(user(scenarioPrompt));
+            }
+            return List.copyOf(messages);
+        }
+
+        private static ChatMessageDto user(String content) {
+            return ChatMessageDto.builder().role("user").content(content).build();
+        }
+    }
+}
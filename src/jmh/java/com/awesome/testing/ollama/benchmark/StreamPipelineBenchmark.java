@@ -0,0 +1,88 @@
+package com.awesome.testing.ollama.benchmark;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.awesome.testing.ollama.dto.ChatResponseDto;
+import com.awesome.testing.ollama.dto.GenerateResponseDto;
+import com.awesome.testing.ollama.dto.StreamedRequestDto;
+import com.awesome.testing.ollama.logging.TokenLogMode;
+import com.awesome.testing.ollama.logging.TokenStreamLogger;
+import com.awesome.testing.ollama.metrics.StreamMetrics;
+import com.awesome.testing.ollama.pacing.LatencyModel;
+import com.awesome.testing.ollama.pacing.TokenPacer;
+import com.awesome.testing.ollama.scenario.ScenarioSource;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioRepository;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioRepository;
+import com.awesome.testing.ollama.service.ChatToolsService;
+import com.awesome.testing.ollama.service.GenerateService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Full service pipeline (scenario lookup, chunk building, pacing, logging, metrics) with zero delay,
+ * so the result is pure per-stream overhead without network I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StreamPipelineBenchmark {
+
+    private TokenPacer tokenPacer;
+    private GenerateService generateService;
+    private ChatToolsService chatToolsService;
+    private StreamedRequestDto generateRequest;
+    private ChatRequestDto toolsRequest;
+
+    @Setup
+    public void setUp() {
+        OllamaMockProperties properties = new OllamaMockProperties();
+        properties.setTokenDelay(Duration.ZERO);
+        properties.setToolCallDelay(Duration.ZERO);
+        properties.getLogging().setTokenMode(TokenLogMode.OFF);
+        ObjectMapper objectMapper = new ObjectMapper();
+        tokenPacer = new TokenPacer(properties);
+        TokenStreamLogger tokenLogger = new TokenStreamLogger(properties);
+        StreamMetrics streamMetrics = new StreamMetrics(properties);
+        LatencyModel latencyModel = new LatencyModel(properties);
+        generateService = new GenerateService(properties, tokenPacer, latencyModel, tokenLogger, streamMetrics,
+                new GenerateScenarioRepository(objectMapper, ScenarioSource.classpath()));
+        chatToolsService = new ChatToolsService(properties, tokenPacer, latencyModel, tokenLogger, streamMetrics,
+                new ChatScenarioRepository(objectMapper, ScenarioSource.classpath()));
+        generateRequest = StreamedRequestDto.builder()
+                .prompt("Walk me through the streaming demo for /api/generate")
+                .think(true)
+                .build();
+        toolsRequest = ChatRequestDto.builder()
+                .messages(List.of(ChatMessageDto.builder()
+                        .role("user")
+                        .content("What iphones do we have available? Tell me the details about them")
+                        .build()))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        tokenPacer.destroy();
+    }
+
+    @Benchmark
+    public GenerateResponseDto generateStream() {
+        return generateService.generateStream(generateRequest).blockLast();
+    }
+
+    @Benchmark
+    public ChatResponseDto chatToolsStream() {
+        return chatToolsService.chatToolStream(toolsRequest).blockLast();
+    }
+}
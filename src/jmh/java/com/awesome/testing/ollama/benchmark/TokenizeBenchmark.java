@@ -0,0 +1,40 @@
+package com.awesome.testing.ollama.benchmark;
+
+import com.awesome.testing.ollama.util.TokenStreamUtils;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link TokenStreamUtils#tokenize(String)} on a scenario-sized sentence and on very large inputs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenizeBenchmark {
+
+    private static final String SENTENCE = "Here is the play-by-play: the request lands on /api/generate, "
+            + "and every individual word, comma, and newline becomes its own NDJSON chunk.\n";
+
+    @Param({"1", "1000", "10000"})
+    private int sentences;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = SENTENCE.repeat(sentences);
+    }
+
+    @Benchmark
+    public List<String> tokenize() {
+        return TokenStreamUtils.tokenize(text);
+    }
+}
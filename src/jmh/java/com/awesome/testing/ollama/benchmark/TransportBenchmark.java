@@ -0,0 +1,101 @@
+package com.awesome.testing.ollama.benchmark;
+
+import com.awesome.testing.ollama.config.NettyTransportCustomizer;
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Streams per second over loopback with each {@code ollama.mock.transport} setting against the
+ * defaults: {@value #STREAMS} concurrent streams of {@value #LINES} NDJSON lines, each line flushed on
+ * its own as the pacer does with zero token delay. Only the transport differs between runs, so the
+ * numbers isolate it from scenario and encoding cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransportBenchmark {
+
+    private static final int STREAMS = 64;
+    private static final int LINES = 200;
+    private static final byte[] LINE = ("{\"model\":\"gpt-4o-mini\",\"response\":\" token\",\"thinking\":null,"
+            + "\"done\":false,\"context\":null,\"created_at\":null}\n")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"default", "nio", "event-loops-2", "water-marks-4kb", "flush-consolidation-64", "h2c"})
+    public String setting;
+
+    private NettyTransportCustomizer transport;
+    private DisposableServer server;
+    private ConnectionProvider connections;
+    private HttpClient client;
+
+    @Setup
+    public void setUp() {
+        OllamaMockProperties properties = new OllamaMockProperties();
+        OllamaMockProperties.Transport settings = properties.getTransport();
+        switch (setting) {
+            case "nio" -> settings.setNativeTransport(false);
+            case "event-loops-2" -> settings.setEventLoopThreads(2);
+            case "water-marks-4kb" -> {
+                settings.setWriteBufferLowWaterMark(DataSize.ofKilobytes(2));
+                settings.setWriteBufferHighWaterMark(DataSize.ofKilobytes(4));
+            }
+            case "flush-consolidation-64" -> settings.setFlushConsolidation(64);
+            case "h2c" -> settings.setH2c(true);
+            default -> {
+            }
+        }
+        transport = new NettyTransportCustomizer(properties);
+        server = transport.apply(HttpServer.create())
+                .port(0)
+                .route(routes -> routes.get("/stream", (request, response) -> response
+                        .header(HttpHeaderNames.CONTENT_TYPE, "application/x-ndjson")
+                        .send(Flux.range(0, LINES).map(line -> Unpooled.wrappedBuffer(LINE)), line -> true)))
+                .bindNow();
+        connections = ConnectionProvider.builder("transport-benchmark").maxConnections(STREAMS).build();
+        client = HttpClient.create(connections)
+                .protocol(settings.isH2c() ? HttpProtocol.H2C : HttpProtocol.HTTP11)
+                .port(server.port());
+    }
+
+    @TearDown
+    public void tearDown() {
+        connections.disposeLater().block();
+        server.disposeNow();
+        transport.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STREAMS)
+    public long streams() {
+        return Flux.range(0, STREAMS)
+                .flatMap(stream -> client.get()
+                        .uri("/stream")
+                        .responseContent()
+                        .map(ByteBuf::readableBytes)
+                        .reduce(0L, Long::sum), STREAMS)
+                .reduce(0L, Long::sum)
+                .block();
+    }
+}
@@ -1,15 +1,36 @@
 package com.awesome.testing.ollama;
 
+import com.awesome.testing.ollama.config.BenchProperties;
 import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.startup.TrainingRun;
+import java.util.Arrays;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
-@EnableConfigurationProperties(OllamaMockProperties.class)
+@EnableConfigurationProperties({OllamaMockProperties.class, BenchProperties.class})
 public class OllamaMockApplication {
 
+    private static final String BENCH_COMMAND = "bench";
+    private static final String TRAIN_COMMAND = "train";
+
     public static void main(String[] args) {
+        if (args.length > 0 && BENCH_COMMAND.equals(args[0])) {
+            SpringApplication application = new SpringApplication(OllamaMockApplication.class);
+            application.setAdditionalProfiles(BENCH_COMMAND);
+            application.setWebApplicationType(WebApplicationType.NONE);
+            System.exit(SpringApplication.exit(application.run(Arrays.copyOfRange(args, 1, args.length))));
+        }
+        if (args.length > 0 && TRAIN_COMMAND.equals(args[0])) {
+            SpringApplication application = new SpringApplication(OllamaMockApplication.class);
+            application.setAdditionalProfiles(TrainingRun.PROFILE);
+            ConfigurableApplicationContext context = application.run(Arrays.copyOfRange(args, 1, args.length));
+            int exitCode = TrainingRun.exercise(context);
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
         SpringApplication.run(OllamaMockApplication.class, args);
     }
 
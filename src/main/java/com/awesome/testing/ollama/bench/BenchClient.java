@@ -0,0 +1,151 @@
+package com.awesome.testing.ollama.bench;
+
+import com.awesome.testing.ollama.config.BenchProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Sends one streaming request and records what the client observes: the NDJSON body is split into
+ * lines as it arrives, so every chunk is timestamped on receipt rather than after the stream ends.
+ */
+public class BenchClient {
+
+    private final BenchProperties properties;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+
+    public BenchClient(BenchProperties properties, ObjectMapper objectMapper, WebClient.Builder webClientBuilder) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        ConnectionProvider connections = ConnectionProvider.builder("ollama-bench")
+                .maxConnections(Math.max(1, properties.getConcurrency()))
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.webClient = webClientBuilder
+                .baseUrl(properties.getTarget())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+    }
+
+    /**
+     * Streams {@code prompt} from {@code endpoint} and records the outcome in {@code report}. The
+     * returned {@link Mono} never errors; failures are counted by reason instead.
+     */
+    public Mono<Void> run(BenchEndpoint endpoint, String prompt, LatencyReport report) {
+        return Mono.defer(() -> {
+            StreamTrace trace = new StreamTrace(System.nanoTime());
+            return webClient.post()
+                    .uri(endpoint.getPath())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .bodyValue(requestBody(endpoint, prompt))
+                    .retrieve()
+                    .bodyToFlux(String.class)
+                    .filter(StringUtils::hasText)
+                    .doOnNext(line -> trace.onLine(parse(line), report))
+                    .then(Mono.fromRunnable(() -> trace.onComplete(report)))
+                    .timeout(properties.getTimeout())
+                    .onErrorResume(error -> {
+                        report.recordError(reason(error));
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    private Map<String, Object> requestBody(BenchEndpoint endpoint, String prompt) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", properties.getModel());
+        if (endpoint == BenchEndpoint.GENERATE) {
+            body.put("prompt", prompt);
+        } else {
+            body.put("messages", List.of(Map.of("role", "user", "content", prompt)));
+        }
+        body.put("stream", true);
+        body.put("think", properties.isThink());
+        return body;
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new BenchStreamException("invalid NDJSON line");
+        }
+    }
+
+    private static String reason(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return "HTTP " + response.getStatusCode().value();
+        }
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (error instanceof BenchStreamException) {
+            return error.getMessage();
+        }
+        return error.getClass().getSimpleName();
+    }
+
+    private static final class StreamTrace {
+
+        private final long start;
+        private long firstChunk;
+        private long lastChunk;
+        private long chunks;
+        private long evalCount = -1;
+        private boolean done;
+
+        StreamTrace(long start) {
+            this.start = start;
+        }
+
+        void onLine(JsonNode chunk, LatencyReport report) {
+            long now = System.nanoTime();
+            if (chunk.hasNonNull("error")) {
+                throw new BenchStreamException("server error: " + chunk.get("error").asText());
+            }
+            if (chunk.path("done").asBoolean(false)) {
+                done = true;
+                evalCount = chunk.path("eval_count").asLong(-1);
+                return;
+            }
+            if (chunks == 0) {
+                firstChunk = now;
+                report.recordTimeToFirstToken(now - start);
+            } else {
+                report.recordInterToken(now - lastChunk);
+            }
+            lastChunk = now;
+            chunks++;
+        }
+
+        void onComplete(LatencyReport report) {
+            if (!done) {
+                throw new BenchStreamException("stream ended without done chunk");
+            }
+            long tokens = evalCount > 0 ? evalCount : chunks;
+            report.recordCompleted(System.nanoTime() - start, tokens, lastChunk - firstChunk);
+        }
+    }
+
+    private static final class BenchStreamException extends RuntimeException {
+
+        BenchStreamException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
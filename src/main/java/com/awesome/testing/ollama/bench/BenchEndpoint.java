@@ -0,0 +1,17 @@
+package com.awesome.testing.ollama.bench;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streaming endpoints the load generator can drive.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum BenchEndpoint {
+    GENERATE("/api/generate"),
+    CHAT("/api/chat"),
+    CHAT_TOOLS("/api/chat/tools");
+
+    private final String path;
+}
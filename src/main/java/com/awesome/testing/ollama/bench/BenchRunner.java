@@ -0,0 +1,93 @@
+package com.awesome.testing.ollama.bench;
+
+import com.awesome.testing.ollama.config.BenchProperties;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioRepository;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioRepository;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Load generator behind the {@code bench} profile: keeps {@code ollama.bench.concurrency} streams in
+ * flight against {@code ollama.bench.target}, cycling through the bundled scenario prompts, and
+ * prints latency percentiles per endpoint. Exits with status 1 when any stream failed.
+ */
+@Slf4j
+@Component
+@Profile("bench")
+@RequiredArgsConstructor
+public class BenchRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private final BenchProperties properties;
+    private final GenerateScenarioRepository generateScenarios;
+    private final ChatDialogueScenarioRepository chatScenarios;
+    private final ChatScenarioRepository chatToolScenarios;
+    private final ObjectMapper objectMapper;
+    private final WebClient.Builder webClientBuilder;
+
+    private volatile int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        BenchClient client = new BenchClient(properties, objectMapper, webClientBuilder);
+        List<BenchEndpoint> endpoints = properties.getEndpoints();
+        log.info("Benchmarking {} {} with {} stream(s), concurrency {}", properties.getTarget(), endpoints,
+                properties.getRequests(), properties.getConcurrency());
+
+        if (properties.getWarmupRequests() > 0) {
+            execute(client, endpoints, properties.getWarmupRequests(), reports(endpoints));
+        }
+        Map<BenchEndpoint, LatencyReport> reports = reports(endpoints);
+        long start = System.nanoTime();
+        execute(client, endpoints, properties.getRequests(), reports);
+        long elapsed = System.nanoTime() - start;
+
+        reports.values().forEach(report -> report.print(System.out, elapsed));
+        exitCode = reports.values().stream().anyMatch(report -> report.failed() > 0) ? 1 : 0;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private void execute(BenchClient client,
+                         List<BenchEndpoint> endpoints,
+                         int requests,
+                         Map<BenchEndpoint, LatencyReport> reports) {
+        Flux.range(0, requests)
+                .flatMap(index -> {
+                    BenchEndpoint endpoint = endpoints.get(index % endpoints.size());
+                    List<String> prompts = promptsFor(endpoint);
+                    String prompt = prompts.get((index / endpoints.size()) % prompts.size());
+                    return client.run(endpoint, prompt, reports.get(endpoint));
+                }, Math.max(1, properties.getConcurrency()))
+                .blockLast();
+    }
+
+    private List<String> promptsFor(BenchEndpoint endpoint) {
+        List<String> prompts = switch (endpoint) {
+            case GENERATE -> generateScenarios.supportedPrompts();
+            case CHAT -> chatScenarios.supportedPrompts();
+            case CHAT_TOOLS -> chatToolScenarios.supportedPrompts();
+        };
+        return prompts.isEmpty() ? List.of("Hello") : prompts;
+    }
+
+    private static Map<BenchEndpoint, LatencyReport> reports(List<BenchEndpoint> endpoints) {
+        Map<BenchEndpoint, LatencyReport> reports = new EnumMap<>(BenchEndpoint.class);
+        endpoints.forEach(endpoint -> reports.put(endpoint, new LatencyReport(endpoint)));
+        return reports;
+    }
+}
@@ -0,0 +1,107 @@
+package com.awesome.testing.ollama.bench;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentDoubleHistogram;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.DoubleHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Client-side latency of the streams sent to one endpoint. Latencies are kept in microseconds;
+ * all recording methods are safe to call from concurrent streams.
+ */
+public class LatencyReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final BenchEndpoint endpoint;
+    private final Histogram timeToFirstToken = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final Histogram interToken = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final Histogram duration = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final DoubleHistogram tokensPerSecond = new ConcurrentDoubleHistogram(3);
+    private final LongAdder completed = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public LatencyReport(BenchEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void recordTimeToFirstToken(long nanos) {
+        timeToFirstToken.recordValue(micros(nanos));
+    }
+
+    public void recordInterToken(long nanos) {
+        interToken.recordValue(micros(nanos));
+    }
+
+    public void recordCompleted(long durationNanos, long tokens, long streamingNanos) {
+        duration.recordValue(micros(durationNanos));
+        if (tokens > 1 && streamingNanos > 0) {
+            tokensPerSecond.recordValue((tokens - 1) * (double) TimeUnit.SECONDS.toNanos(1) / streamingNanos);
+        }
+        completed.increment();
+    }
+
+    public void recordError(String reason) {
+        errors.computeIfAbsent(reason, ignored -> new LongAdder()).increment();
+    }
+
+    public long completed() {
+        return completed.sum();
+    }
+
+    public long failed() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Histogram timeToFirstToken() {
+        return timeToFirstToken;
+    }
+
+    public Histogram interToken() {
+        return interToken;
+    }
+
+    public void print(PrintStream out, long elapsedNanos) {
+        long total = completed() + failed();
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        out.printf("%n== %s %s ==%n", endpoint, endpoint.getPath());
+        out.printf("streams: %d completed, %d failed (%.2f%% errors), %.1f streams/s%n",
+                completed(), failed(), total == 0 ? 0 : 100.0 * failed() / total, seconds > 0 ? total / seconds : 0);
+        errors.forEach((reason, count) -> out.printf("  error %-40s %d%n", reason, count.sum()));
+        out.printf("%-16s %10s %10s %10s %10s %10s %10s%n", "", "p50", "p90", "p99", "p99.9", "max", "mean");
+        printMillis(out, "ttft (ms)", timeToFirstToken);
+        printMillis(out, "inter-token (ms)", interToken);
+        printMillis(out, "duration (ms)", duration);
+        out.printf("%-16s", "tokens/s");
+        if (tokensPerSecond.getTotalCount() == 0) {
+            out.printf(" %10s%n", "-");
+            return;
+        }
+        for (double percentile : PERCENTILES) {
+            out.printf(" %10.1f", tokensPerSecond.getValueAtPercentile(percentile));
+        }
+        out.printf(" %10.1f %10.1f%n", tokensPerSecond.getMaxValue(), tokensPerSecond.getMean());
+    }
+
+    private static void printMillis(PrintStream out, String label, Histogram histogram) {
+        out.printf("%-16s", label);
+        if (histogram.getTotalCount() == 0) {
+            out.printf(" %10s%n", "-");
+            return;
+        }
+        for (double percentile : PERCENTILES) {
+            out.printf(" %10.3f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %10.3f %10.3f%n", histogram.getMaxValue() / 1000.0, histogram.getMean() / 1000.0);
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(MAX_LATENCY_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
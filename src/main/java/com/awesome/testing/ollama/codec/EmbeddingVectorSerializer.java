@@ -0,0 +1,85 @@
+package com.awesome.testing.ollama.codec;
+
+import com.awesome.testing.ollama.service.PseudoEmbeddings;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * Writes an embedding vector as one raw JSON array. {@link PseudoEmbeddings} rounds every element to
+ * {@value PseudoEmbeddings#DECIMALS} decimal places, so each one is printed from its scaled integer
+ * (trailing zeros trimmed) rather than through {@link Float#toString(float)}, which dominates the
+ * cost of a large {@code /api/embed} response otherwise. The printed decimal parses back to the same
+ * float; values that are not on the six-decimal grid fall back to {@link Float#toString(float)}.
+ */
+public class EmbeddingVectorSerializer extends StdSerializer<float[]> {
+
+    private static final float SCALE = 1_000_000f;
+    private static final int MAX_ELEMENT_CHARS = 16;
+
+    private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[1024]);
+
+    public EmbeddingVectorSerializer() {
+        super(float[].class);
+    }
+
+    @Override
+    public void serialize(float[] vector, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        char[] buffer = BUFFERS.get();
+        int required = vector.length * MAX_ELEMENT_CHARS + 2;
+        if (buffer.length < required) {
+            buffer = new char[required];
+            BUFFERS.set(buffer);
+        }
+        int length = 0;
+        buffer[length++] = '[';
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                buffer[length++] = ',';
+            }
+            length = write(vector[i], buffer, length);
+        }
+        buffer[length++] = ']';
+        generator.writeRawValue(buffer, 0, length);
+    }
+
+    private static int write(float value, char[] buffer, int offset) {
+        long scaled = Math.round((double) value * SCALE);
+        if (!Float.isFinite(value) || Math.abs(scaled) > Integer.MAX_VALUE || scaled / SCALE != value) {
+            String text = Float.isFinite(value) ? Float.toString(value) : "null";
+            text.getChars(0, text.length(), buffer, offset);
+            return offset + text.length();
+        }
+        if (scaled < 0) {
+            buffer[offset++] = '-';
+            scaled = -scaled;
+        }
+        offset = writeDigits(scaled / 1_000_000, buffer, offset);
+        buffer[offset++] = '.';
+        int fraction = (int) (scaled % 1_000_000);
+        int digits = PseudoEmbeddings.DECIMALS;
+        while (digits > 1 && fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[offset + i] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        return offset + digits;
+    }
+
+    private static int writeDigits(long value, char[] buffer, int offset) {
+        if (value == 0) {
+            buffer[offset] = '0';
+            return offset + 1;
+        }
+        int digits = (int) Math.log10(value) + 1;
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[offset + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+}
@@ -0,0 +1,120 @@
+package com.awesome.testing.ollama.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte array used to assemble a single NDJSON line before it is copied into a
+ * {@link org.springframework.core.io.buffer.DataBuffer}; the encoder reuses one instance per thread.
+ * {@link RequestBodyParser} also uses it to collect the raw bytes of request values it binds.
+ */
+final class FrameBuffer {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int RETAINED_CAPACITY = 64 * 1024;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    /**
+     * Empties the buffer; an array grown past 64 KB by an oversized frame is dropped for a default one.
+     */
+    void reset() {
+        length = 0;
+        if (bytes.length > RETAINED_CAPACITY) {
+            bytes = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    int length() {
+        return length;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    FrameBuffer append(byte[] segment) {
+        ensureCapacity(segment.length);
+        System.arraycopy(segment, 0, bytes, length, segment.length);
+        length += segment.length;
+        return this;
+    }
+
+    FrameBuffer append(byte value) {
+        ensureCapacity(1);
+        bytes[length++] = value;
+        return this;
+    }
+
+    /**
+     * Appends {@code value} as a quoted JSON string, escaping it the same way Jackson does by default.
+     */
+    FrameBuffer appendJsonString(String value) {
+        ensureCapacity(value.length() + 2);
+        bytes[length++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < 0x80) {
+                appendAscii(ch);
+            } else if (ch < 0x800) {
+                ensureCapacity(2);
+                bytes[length++] = (byte) (0xC0 | (ch >> 6));
+                bytes[length++] = (byte) (0x80 | (ch & 0x3F));
+            } else if (Character.isHighSurrogate(ch) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+                ensureCapacity(4);
+                bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(ch)) {
+                append((byte) '?');
+            } else {
+                ensureCapacity(3);
+                bytes[length++] = (byte) (0xE0 | (ch >> 12));
+                bytes[length++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (ch & 0x3F));
+            }
+        }
+        return append((byte) '"');
+    }
+
+    private void appendAscii(char ch) {
+        ensureCapacity(6);
+        switch (ch) {
+            case '"' -> escape('"');
+            case '\\' -> escape('\\');
+            case '\n' -> escape('n');
+            case '\r' -> escape('r');
+            case '\t' -> escape('t');
+            case '\b' -> escape('b');
+            case '\f' -> escape('f');
+            default -> {
+                if (ch < 0x20) {
+                    bytes[length++] = '\\';
+                    bytes[length++] = 'u';
+                    bytes[length++] = '0';
+                    bytes[length++] = '0';
+                    bytes[length++] = HEX[ch >> 4];
+                    bytes[length++] = HEX[ch & 0xF];
+                } else {
+                    bytes[length++] = (byte) ch;
+                }
+            }
+        }
+    }
+
+    private void escape(char code) {
+        bytes[length++] = '\\';
+        bytes[length++] = (byte) code;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.awesome.testing.ollama.codec;
+
+/**
+ * Counts whitespace-separated words in the raw UTF-8 bytes of a JSON string, escapes included,
+ * the way {@link com.awesome.testing.ollama.util.TokenStreamUtils#wordCount} counts the decoded
+ * text. {@link RequestBodyParser} feeds it the content it skips, so a message whose content is never
+ * decoded still counts towards the prompt.
+ */
+final class JsonWordCounter {
+
+    private static final int NO_ESCAPE = 0;
+    private static final int ESCAPE = 1;
+    private static final int LAST_HEX_DIGIT = 5;
+
+    private int words;
+    private boolean inWord;
+    private int escape;
+    private int pending;
+    private int codePoint;
+
+    void reset() {
+        words = 0;
+        inWord = false;
+        escape = NO_ESCAPE;
+        pending = 0;
+        codePoint = 0;
+    }
+
+    int words() {
+        return words;
+    }
+
+    /**
+     * One byte between the quotes of the string.
+     */
+    void accept(byte b) {
+        if (escape == ESCAPE) {
+            if (b == 'u') {
+                escape++;
+                codePoint = 0;
+            } else {
+                escape = NO_ESCAPE;
+                character(b == 'n' || b == 't' || b == 'r' || b == 'f' ? ' ' : b);
+            }
+        } else if (escape > ESCAPE) {
+            codePoint = codePoint << 4 | Character.digit(b, 16);
+            escape = escape == LAST_HEX_DIGIT ? NO_ESCAPE : escape + 1;
+            if (escape == NO_ESCAPE) {
+                character(codePoint);
+            }
+        } else if (pending > 0) {
+            codePoint = codePoint << 6 | (b & 0x3F);
+            if (--pending == 0) {
+                character(codePoint);
+            }
+        } else if (b == '\\') {
+            escape = ESCAPE;
+        } else if (b >= 0) {
+            character(b);
+        } else if ((b & 0xE0) == 0xC0) {
+            codePoint = b & 0x1F;
+            pending = 1;
+        } else if ((b & 0xF0) == 0xE0) {
+            codePoint = b & 0x0F;
+            pending = 2;
+        } else {
+            codePoint = b & 0x07;
+            pending = 3;
+        }
+    }
+
+    private void character(int character) {
+        boolean whitespace = Character.isWhitespace(character);
+        if (!whitespace && !inWord) {
+            words++;
+        }
+        inWord = !whitespace;
+    }
+}
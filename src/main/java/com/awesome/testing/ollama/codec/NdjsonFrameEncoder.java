@@ -0,0 +1,222 @@
+package com.awesome.testing.ollama.codec;
+
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.dto.ChatResponseDto;
+import com.awesome.testing.ollama.dto.GenerateResponseDto;
+import com.awesome.testing.ollama.dto.TimedResponse;
+import com.awesome.testing.ollama.util.CoarseClock;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams {@link ChatResponseDto} and {@link GenerateResponseDto} chunks as NDJSON without going
+ * through Jackson databind. Each line is assembled from static skeleton bytes, prepared token and
+ * model bytes (see {@link PreparedJsonStrings}) and the cached {@link CoarseClock} timestamp. The
+ * output is byte-for-byte what the default Jackson encoder would produce; chunks this encoder does
+ * not model (tool calls, context) are delegated to Jackson. Timing statistics are written only when
+ * set, which in practice means once per stream on the done chunk.
+ */
+public class NdjsonFrameEncoder implements HttpMessageEncoder<Object> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_NDJSON);
+
+    private static final byte[] MODEL = ascii("{\"model\":");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] ROLE = ascii("{\"role\":");
+    private static final byte[] CONTENT = ascii(",\"content\":");
+    private static final byte[] THINKING = ascii(",\"thinking\":");
+    private static final byte[] EMPTY_TOOL_CALLS = ascii(",\"tool_calls\":[]");
+    private static final byte[] NULL_TOOL_CALLS = ascii(",\"tool_calls\":null");
+    private static final byte[] TOOL_NAME = ascii(",\"tool_name\":");
+    private static final byte[] RESPONSE = ascii(",\"response\":");
+    private static final byte[] DONE_TRUE = ascii(",\"done\":true");
+    private static final byte[] DONE_FALSE = ascii(",\"done\":false");
+    private static final byte[] CONTEXT_NULL = ascii(",\"context\":null");
+    private static final byte[] CREATED_AT = ascii(",\"created_at\":");
+    private static final byte[] TOTAL_DURATION = ascii(",\"total_duration\":");
+    private static final byte[] LOAD_DURATION = ascii(",\"load_duration\":");
+    private static final byte[] PROMPT_EVAL_COUNT = ascii(",\"prompt_eval_count\":");
+    private static final byte[] PROMPT_EVAL_DURATION = ascii(",\"prompt_eval_duration\":");
+    private static final byte[] EVAL_COUNT = ascii(",\"eval_count\":");
+    private static final byte[] EVAL_DURATION = ascii(",\"eval_duration\":");
+    private static final byte[] NULL = ascii("null");
+
+    private static final ThreadLocal<FrameBuffer> BUFFERS = ThreadLocal.withInitial(FrameBuffer::new);
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonFrameEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        PreparedJsonStrings.prepare("assistant");
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        return (ChatResponseDto.class.equals(type) || GenerateResponseDto.class.equals(type))
+                && mimeType != null
+                && MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream,
+                                   DataBufferFactory bufferFactory,
+                                   ResolvableType elementType,
+                                   MimeType mimeType,
+                                   Map<String, Object> hints) {
+        if (inputStream instanceof Mono<?> mono) {
+            return Flux.from(mono.map(value -> encode(value, bufferFactory, false)));
+        }
+        return Flux.from(inputStream).map(value -> encode(value, bufferFactory, true));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value,
+                                  DataBufferFactory bufferFactory,
+                                  ResolvableType valueType,
+                                  MimeType mimeType,
+                                  Map<String, Object> hints) {
+        return encode(value, bufferFactory, false);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return List.of(MediaType.APPLICATION_NDJSON);
+    }
+
+    private DataBuffer encode(Object value, DataBufferFactory bufferFactory, boolean newline) {
+        FrameBuffer frame = BUFFERS.get();
+        frame.reset();
+        if (value instanceof ChatResponseDto chat && isPlain(chat)) {
+            writeChat(frame, chat);
+        } else if (value instanceof GenerateResponseDto generate && isPlain(generate)) {
+            writeGenerate(frame, generate);
+        } else {
+            frame.append(writeWithJackson(value));
+        }
+        if (newline) {
+            frame.append((byte) '\n');
+        }
+        DataBuffer buffer = bufferFactory.allocateBuffer(frame.length());
+        buffer.write(frame.array(), 0, frame.length());
+        frame.reset();
+        return buffer;
+    }
+
+    private boolean isPlain(ChatResponseDto chunk) {
+        ChatMessageDto message = chunk.getMessage();
+        return message == null || message.getToolCalls() == null || message.getToolCalls().isEmpty();
+    }
+
+    private boolean isPlain(GenerateResponseDto chunk) {
+        return chunk.getContext() == null;
+    }
+
+    private void writeChat(FrameBuffer frame, ChatResponseDto chunk) {
+        frame.append(MODEL);
+        writeString(frame, chunk.getModel());
+        frame.append(MESSAGE);
+        ChatMessageDto message = chunk.getMessage();
+        if (message == null) {
+            frame.append(NULL);
+        } else {
+            frame.append(ROLE);
+            writeString(frame, message.getRole());
+            frame.append(CONTENT);
+            writeString(frame, message.getContent());
+            frame.append(THINKING);
+            writeString(frame, message.getThinking());
+            frame.append(message.getToolCalls() == null ? NULL_TOOL_CALLS : EMPTY_TOOL_CALLS);
+            frame.append(TOOL_NAME);
+            writeString(frame, message.getToolName());
+            frame.append((byte) '}');
+        }
+        frame.append(chunk.isDone() ? DONE_TRUE : DONE_FALSE);
+        frame.append(CREATED_AT);
+        writeTimestamp(frame, chunk.getCreatedAt());
+        writeTimings(frame, chunk);
+        frame.append((byte) '}');
+    }
+
+    private void writeGenerate(FrameBuffer frame, GenerateResponseDto chunk) {
+        frame.append(MODEL);
+        writeString(frame, chunk.getModel());
+        frame.append(RESPONSE);
+        writeString(frame, chunk.getResponse());
+        frame.append(THINKING);
+        writeString(frame, chunk.getThinking());
+        frame.append(chunk.isDone() ? DONE_TRUE : DONE_FALSE);
+        frame.append(CONTEXT_NULL);
+        frame.append(CREATED_AT);
+        writeTimestamp(frame, chunk.getCreatedAt());
+        writeTimings(frame, chunk);
+        frame.append((byte) '}');
+    }
+
+    private void writeTimings(FrameBuffer frame, TimedResponse chunk) {
+        writeNumber(frame, TOTAL_DURATION, chunk.getTotalDuration());
+        writeNumber(frame, LOAD_DURATION, chunk.getLoadDuration());
+        writeNumber(frame, PROMPT_EVAL_COUNT, chunk.getPromptEvalCount());
+        writeNumber(frame, PROMPT_EVAL_DURATION, chunk.getPromptEvalDuration());
+        writeNumber(frame, EVAL_COUNT, chunk.getEvalCount());
+        writeNumber(frame, EVAL_DURATION, chunk.getEvalDuration());
+    }
+
+    private void writeNumber(FrameBuffer frame, byte[] field, Number value) {
+        if (value != null) {
+            frame.append(field).append(ascii(value.toString()));
+        }
+    }
+
+    private void writeTimestamp(FrameBuffer frame, String createdAt) {
+        byte[] cached = CoarseClock.jsonBytes(createdAt);
+        if (cached != null) {
+            frame.append(cached);
+        } else {
+            writeString(frame, createdAt);
+        }
+    }
+
+    private void writeString(FrameBuffer frame, String value) {
+        if (value == null) {
+            frame.append(NULL);
+            return;
+        }
+        byte[] prepared = PreparedJsonStrings.lookup(value);
+        if (prepared != null) {
+            frame.append(prepared);
+        } else {
+            frame.appendJsonString(value);
+        }
+    }
+
+    private byte[] writeWithJackson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new EncodingException("Could not write NDJSON frame: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,42 @@
+package com.awesome.testing.ollama.codec;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Cache of quoted, JSON-escaped UTF-8 bytes for strings known ahead of time (scenario tokens and
+ * model names), so {@link NdjsonFrameEncoder} can copy them instead of escaping on every frame.
+ * Text that comes from a request must not be prepared; it is escaped on demand.
+ */
+@UtilityClass
+public class PreparedJsonStrings {
+
+    /**
+     * Upper bound on cached strings; anything beyond it is simply escaped on demand.
+     */
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final Map<String, byte[]> cache = new ConcurrentHashMap<>();
+
+    public void prepare(String value) {
+        if (value == null || cache.size() >= MAX_ENTRIES) {
+            return;
+        }
+        cache.computeIfAbsent(value, PreparedJsonStrings::encode);
+    }
+
+    /**
+     * Returns the prepared bytes for {@code value}, or {@code null} when it was never prepared.
+     */
+    public byte[] lookup(String value) {
+        return cache.get(value);
+    }
+
+    private byte[] encode(String value) {
+        FrameBuffer buffer = new FrameBuffer();
+        buffer.appendJsonString(value);
+        return Arrays.copyOf(buffer.array(), buffer.length());
+    }
+}
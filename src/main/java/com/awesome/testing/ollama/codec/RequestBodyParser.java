@@ -0,0 +1,525 @@
+package com.awesome.testing.ollama.codec;
+
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.awesome.testing.ollama.dto.OllamaToolDefinitionDto;
+import com.awesome.testing.ollama.dto.StreamedRequestDto;
+import com.awesome.testing.ollama.util.TokenStreamUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+
+/**
+ * Incremental reader for one {@link ChatRequestDto} or {@link StreamedRequestDto} body, fed chunk by
+ * chunk. A byte-level scanner follows the JSON structure and only hands the raw bytes of the values
+ * the services read to Jackson: model, prompt, stream, think, options, tools and, per message, role,
+ * {@code tool_name} and the content of user messages. Everything else (images, format, context, tool
+ * outputs, assistant turns) is stepped over byte by byte without being decoded, so a large multimodal
+ * request costs the bytes scanned rather than the heap it would take to bind. Skipped values are
+ * checked for structure only; bound values go through Jackson and keep its coercion rules.
+ *
+ * <p>Non-user messages, the last one included, keep their role and {@code tool_name} but not their
+ * content: nothing downstream reads it, and tool outputs are the largest values in a request. Their
+ * content is still counted into {@link ChatMessageDto#getContentTokens()} while it is skipped, so
+ * every message counts towards the prompt. The
+ * bytes collected for bound values and field names count against {@code maxInMemorySize} (-1 for no
+ * limit), so the parser buffers no more than the default Jackson decoder would.
+ */
+final class RequestBodyParser {
+
+    private static final int MAX_DEPTH = 1000;
+
+    private static final byte OTHER = 0;
+    private static final byte ROOT = 1;
+    private static final byte MESSAGES = 2;
+    private static final byte MESSAGE = 3;
+
+    private static final byte EXPECT_VALUE = 0;
+    private static final byte EXPECT_FIRST_VALUE = 1;
+    private static final byte EXPECT_KEY = 2;
+    private static final byte EXPECT_FIRST_KEY = 3;
+    private static final byte EXPECT_COLON = 4;
+    private static final byte EXPECT_NEXT = 5;
+    private static final byte EXPECT_NOTHING = 6;
+
+    private enum Field {
+        BODY, MODEL, PROMPT, STREAM, THINK, OPTIONS, TOOLS, MESSAGES, ROLE, CONTENT, TOOL_NAME
+    }
+
+    private final Readers readers;
+    private final int maxInMemorySize;
+    private final ChatRequestDto chat;
+    private final StreamedRequestDto generate;
+
+    private final FrameBuffer captured = new FrameBuffer();
+    private final FrameBuffer key = new FrameBuffer();
+    private final JsonWordCounter words = new JsonWordCounter();
+    private byte[] kinds = new byte[8];
+    private byte[] expects = new byte[8];
+    private boolean[] objects = new boolean[8];
+    private String[] keys = new String[8];
+    private int depth;
+    private long buffered;
+
+    private boolean started;
+    private boolean empty;
+    private boolean inString;
+    private boolean inKey;
+    private boolean escaped;
+    private boolean inScalar;
+    private boolean counting;
+    private Field capture;
+    private int captureDepth;
+    private ChatMessageDto message;
+
+    private RequestBodyParser(Readers readers, int maxInMemorySize, ChatRequestDto chat, StreamedRequestDto generate) {
+        this.readers = readers;
+        this.maxInMemorySize = maxInMemorySize;
+        this.chat = chat;
+        this.generate = generate;
+        this.expects[0] = EXPECT_VALUE;
+    }
+
+    static RequestBodyParser chat(Readers readers, int maxInMemorySize) {
+        return new RequestBodyParser(readers, maxInMemorySize, new ChatRequestDto(), null);
+    }
+
+    static RequestBodyParser generate(Readers readers, int maxInMemorySize) {
+        return new RequestBodyParser(readers, maxInMemorySize, null, new StreamedRequestDto());
+    }
+
+    /**
+     * Consumes one chunk of the body; the buffer is fully read before this returns.
+     */
+    void feed(ByteBuffer chunk) throws IOException {
+        while (chunk.hasRemaining()) {
+            if (inString && capture == null && !inKey) {
+                skipString(chunk);
+                continue;
+            }
+            byte b = chunk.get();
+            if (inString) {
+                string(b);
+            } else if (inScalar && isScalar(b)) {
+                if (capture != null) {
+                    keep(b);
+                }
+            } else {
+                if (inScalar) {
+                    inScalar = false;
+                    endValue();
+                }
+                structural(b);
+            }
+        }
+    }
+
+    /**
+     * Signals the end of the body and returns the bound request, or {@code null} for an empty body.
+     */
+    Object finish() throws IOException {
+        if (inScalar) {
+            inScalar = false;
+            endValue();
+        }
+        if (!started) {
+            return null;
+        }
+        if (inString || depth > 0 || expects[0] != EXPECT_NOTHING) {
+            throw error("Unexpected end of request body");
+        }
+        if (empty) {
+            return null;
+        }
+        return chat != null ? chat : generate;
+    }
+
+    private void skipString(ByteBuffer chunk) {
+        if (counting) {
+            countString(chunk);
+            return;
+        }
+        if (chunk.hasArray()) {
+            byte[] array = chunk.array();
+            int offset = chunk.arrayOffset();
+            int end = offset + chunk.limit();
+            for (int i = offset + chunk.position(); i < end; i++) {
+                byte b = array[i];
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                    chunk.position(i + 1 - offset);
+                    return;
+                }
+            }
+            chunk.position(chunk.limit());
+            return;
+        }
+        while (chunk.hasRemaining()) {
+            byte b = chunk.get();
+            if (escaped) {
+                escaped = false;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b == '"') {
+                inString = false;
+                return;
+            }
+        }
+    }
+
+    private void countString(ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            byte b = chunk.get();
+            if (escaped) {
+                escaped = false;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b == '"') {
+                inString = false;
+                counting = false;
+                message.setContentTokens(words.words());
+                return;
+            }
+            words.accept(b);
+        }
+    }
+
+    private void string(byte b) throws IOException {
+        if (escaped) {
+            escaped = false;
+        } else if (b == '\\') {
+            escaped = true;
+        } else if (b == '"') {
+            inString = false;
+            if (inKey) {
+                inKey = false;
+                endKey();
+                return;
+            }
+            if (capture != null) {
+                keep(b);
+            }
+            endValue();
+            return;
+        }
+        if (inKey) {
+            count();
+            key.append(b);
+        } else if (capture != null) {
+            keep(b);
+        }
+    }
+
+    private void structural(byte b) throws IOException {
+        switch (b) {
+            case ' ', '\t', '\n', '\r' -> append(b);
+            case '{', '[' -> {
+                startValue(b);
+                push(b == '{');
+            }
+            case '}', ']' -> close(b == '}');
+            case ':' -> {
+                expect(EXPECT_COLON, "':'");
+                append(b);
+                expects[depth] = EXPECT_VALUE;
+            }
+            case ',' -> {
+                expect(EXPECT_NEXT, "','");
+                append(b);
+                expects[depth] = objects[depth] ? EXPECT_KEY : EXPECT_VALUE;
+            }
+            case '"' -> {
+                byte expecting = expects[depth];
+                if (depth > 0 && objects[depth] && (expecting == EXPECT_KEY || expecting == EXPECT_FIRST_KEY)) {
+                    expects[depth] = EXPECT_COLON;
+                    append(b);
+                    inString = true;
+                    inKey = capture == null && (kinds[depth] == ROOT || kinds[depth] == MESSAGE);
+                    key.reset();
+                } else {
+                    startValue(b);
+                    inString = true;
+                }
+            }
+            default -> {
+                if (!isScalar(b)) {
+                    throw error("Unexpected character '" + (char) b + "'");
+                }
+                startValue(b);
+                inScalar = true;
+            }
+        }
+    }
+
+    private void startValue(byte b) {
+        byte expecting = expects[depth];
+        if (expecting != EXPECT_VALUE && (expecting != EXPECT_FIRST_VALUE || depth == 0)) {
+            throw error("Unexpected value");
+        }
+        expects[depth] = depth == 0 ? EXPECT_NOTHING : EXPECT_NEXT;
+        started = true;
+        if (capture != null) {
+            keep(b);
+            return;
+        }
+        Field field = target(b);
+        if (field != null) {
+            capture = field;
+            captureDepth = depth;
+            captured.reset();
+            keep(b);
+        } else if (b == '"' && kinds[depth] == MESSAGE && "content".equals(keys[depth])) {
+            words.reset();
+            counting = true;
+        }
+    }
+
+    private Field target(byte b) {
+        if (depth == 0) {
+            if (b == '{') {
+                return null;
+            }
+            if (b == '[' || b == '"') {
+                throw error("Request body must be a JSON object");
+            }
+            return Field.BODY;
+        }
+        String name = keys[depth];
+        return switch (kinds[depth]) {
+            case ROOT -> rootField(name, b);
+            case MESSAGES -> {
+                if (b != '{' && b != 'n') {
+                    throw error("Unexpected value in messages");
+                }
+                yield null;
+            }
+            case MESSAGE -> switch (name) {
+                case "role" -> Field.ROLE;
+                case "tool_name" -> Field.TOOL_NAME;
+                case "content" -> message.getRole() == null || isUser(message.getRole()) ? Field.CONTENT : null;
+                default -> null;
+            };
+            default -> null;
+        };
+    }
+
+    private Field rootField(String name, byte b) {
+        return switch (name) {
+            case "model" -> Field.MODEL;
+            case "prompt" -> chat == null ? Field.PROMPT : null;
+            case "stream" -> Field.STREAM;
+            case "think" -> Field.THINK;
+            case "options" -> Field.OPTIONS;
+            case "tools" -> chat != null ? Field.TOOLS : null;
+            case "messages" -> chat != null && b != '[' ? Field.MESSAGES : null;
+            default -> null;
+        };
+    }
+
+    private void push(boolean object) {
+        byte parentKind = kinds[depth];
+        String parentKey = keys[depth];
+        if (++depth > MAX_DEPTH) {
+            throw error("Request body nested too deeply");
+        }
+        if (depth == kinds.length) {
+            kinds = Arrays.copyOf(kinds, depth * 2);
+            expects = Arrays.copyOf(expects, depth * 2);
+            objects = Arrays.copyOf(objects, depth * 2);
+            keys = Arrays.copyOf(keys, depth * 2);
+        }
+        objects[depth] = object;
+        expects[depth] = object ? EXPECT_FIRST_KEY : EXPECT_FIRST_VALUE;
+        keys[depth] = null;
+        kinds[depth] = OTHER;
+        if (capture != null) {
+            return;
+        }
+        if (depth == 1) {
+            kinds[depth] = ROOT;
+        } else if (parentKind == ROOT && !object && chat != null && "messages".equals(parentKey)) {
+            kinds[depth] = MESSAGES;
+            chat.setMessages(new ArrayList<>());
+        } else if (parentKind == MESSAGES && object) {
+            kinds[depth] = MESSAGE;
+            message = new ChatMessageDto();
+        }
+    }
+
+    private void close(boolean object) throws IOException {
+        byte expecting = expects[depth];
+        if (depth == 0 || objects[depth] != object
+                || (expecting != EXPECT_NEXT && expecting != (object ? EXPECT_FIRST_KEY : EXPECT_FIRST_VALUE))) {
+            throw error("Unexpected '" + (object ? '}' : ']') + "'");
+        }
+        append(object ? (byte) '}' : (byte) ']');
+        if (kinds[depth] == MESSAGE) {
+            if (!isUser(message.getRole()) && message.getContent() != null) {
+                message.setContentTokens(TokenStreamUtils.wordCount(message.getContent()));
+                message.setContent(null);
+            }
+            chat.getMessages().add(message);
+            message = null;
+        }
+        keys[depth] = null;
+        depth--;
+        endValue();
+    }
+
+    private void endKey() {
+        byte[] bytes = key.array();
+        int length = key.length();
+        String name = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == '\\') {
+                name = unescape(bytes, length);
+                break;
+            }
+        }
+        keys[depth] = name;
+    }
+
+    private String unescape(byte[] bytes, int length) {
+        byte[] quoted = new byte[length + 2];
+        quoted[0] = '"';
+        System.arraycopy(bytes, 0, quoted, 1, length);
+        quoted[length + 1] = '"';
+        try {
+            return readers.string.readValue(quoted);
+        } catch (IOException e) {
+            throw error("Invalid field name");
+        }
+    }
+
+    private void endValue() throws IOException {
+        if (capture == null || depth != captureDepth) {
+            return;
+        }
+        Field field = capture;
+        capture = null;
+        bind(field, captured.array(), captured.length());
+    }
+
+    private void bind(Field field, byte[] bytes, int length) throws IOException {
+        switch (field) {
+            case BODY -> {
+                if (!isNull(bytes, length)) {
+                    throw error("Request body must be a JSON object");
+                }
+                empty = true;
+            }
+            case MODEL -> {
+                String model = readers.string.readValue(bytes, 0, length);
+                if (chat != null) {
+                    chat.setModel(model);
+                } else {
+                    generate.setModel(model);
+                }
+            }
+            case PROMPT -> generate.setPrompt(readers.string.readValue(bytes, 0, length));
+            case STREAM -> {
+                Boolean stream = readers.bool.readValue(bytes, 0, length);
+                if (chat != null) {
+                    chat.setStream(stream);
+                } else {
+                    generate.setStream(stream);
+                }
+            }
+            case THINK -> {
+                Boolean think = readers.bool.readValue(bytes, 0, length);
+                if (chat != null) {
+                    chat.setThink(think);
+                } else {
+                    generate.setThink(think);
+                }
+            }
+            case OPTIONS -> {
+                Map<String, Object> options = readers.options.readValue(bytes, 0, length);
+                if (chat != null) {
+                    chat.setOptions(options);
+                } else {
+                    generate.setOptions(options);
+                }
+            }
+            case TOOLS -> chat.setTools(readers.tools.readValue(bytes, 0, length));
+            case MESSAGES -> {
+                if (!isNull(bytes, length)) {
+                    throw error("Unexpected value for messages");
+                }
+                chat.setMessages(null);
+            }
+            case ROLE -> message.setRole(readers.string.readValue(bytes, 0, length));
+            case TOOL_NAME -> message.setToolName(readers.string.readValue(bytes, 0, length));
+            case CONTENT -> message.setContent(readers.string.readValue(bytes, 0, length));
+        }
+    }
+
+    private void expect(byte expected, String token) {
+        if (depth == 0 || expects[depth] != expected) {
+            throw error("Unexpected " + token);
+        }
+    }
+
+    private void append(byte b) {
+        if (capture != null) {
+            keep(b);
+        }
+    }
+
+    private void keep(byte b) {
+        count();
+        captured.append(b);
+    }
+
+    private void count() {
+        if (maxInMemorySize >= 0 && ++buffered > maxInMemorySize) {
+            throw new DataBufferLimitException("Exceeded limit on max bytes to buffer : " + maxInMemorySize);
+        }
+    }
+
+    private static boolean isScalar(byte b) {
+        return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z')
+                || b == '-' || b == '+' || b == '.';
+    }
+
+    private static boolean isNull(byte[] bytes, int length) {
+        return length == 4 && bytes[0] == 'n' && bytes[1] == 'u' && bytes[2] == 'l' && bytes[3] == 'l';
+    }
+
+    private static boolean isUser(String role) {
+        return "user".equalsIgnoreCase(role);
+    }
+
+    private static DecodingException error(String message) {
+        return new DecodingException("JSON decoding error: " + message);
+    }
+
+    /**
+     * Jackson readers for the bound values, built once per decoder.
+     */
+    record Readers(ObjectReader string, ObjectReader bool, ObjectReader options, ObjectReader tools) {
+
+        static Readers of(ObjectMapper objectMapper) {
+            return new Readers(
+                    objectMapper.readerFor(String.class),
+                    objectMapper.readerFor(Boolean.class),
+                    objectMapper.readerFor(new TypeReference<Map<String, Object>>() {
+                    }),
+                    objectMapper.readerFor(new TypeReference<List<OllamaToolDefinitionDto>>() {
+                    }));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.awesome.testing.ollama.codec;
+
+import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.awesome.testing.ollama.dto.StreamedRequestDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageDecoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decodes {@link ChatRequestDto} and {@link StreamedRequestDto} bodies with {@link RequestBodyParser}
+ * as the chunks arrive, releasing each one once it has been scanned, instead of joining the whole body
+ * and binding all of it with databind. Registered ahead of the default Jackson decoder so
+ * {@code @Valid} still applies, and used directly by the fast path.
+ */
+public class StreamingRequestDecoder implements HttpMessageDecoder<Object> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(
+            MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+
+    private final RequestBodyParser.Readers readers;
+    private int maxInMemorySize = 256 * 1024;
+
+    public StreamingRequestDecoder(ObjectMapper objectMapper) {
+        this.readers = RequestBodyParser.Readers.of(objectMapper);
+    }
+
+    /**
+     * Caps the bytes held for bound values, as {@code spring.http.codecs.max-in-memory-size} does for
+     * the default decoders; -1 means no limit. Going over fails with {@link DataBufferLimitException}.
+     */
+    public void setMaxInMemorySize(int byteCount) {
+        this.maxInMemorySize = byteCount;
+    }
+
+    public int getMaxInMemorySize() {
+        return maxInMemorySize;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        return (ChatRequestDto.class.equals(type) || StreamedRequestDto.class.equals(type))
+                && (mimeType == null
+                        || MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType)));
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> inputStream,
+                               ResolvableType elementType,
+                               MimeType mimeType,
+                               Map<String, Object> hints) {
+        return Flux.from(decodeToMono(inputStream, elementType, mimeType, hints));
+    }
+
+    @Override
+    public Mono<Object> decodeToMono(Publisher<DataBuffer> inputStream,
+                                     ResolvableType elementType,
+                                     MimeType mimeType,
+                                     Map<String, Object> hints) {
+        boolean chat = ChatRequestDto.class.equals(elementType.toClass());
+        return Flux.from(inputStream)
+                .collect(() -> open(chat), StreamingRequestDecoder::feed)
+                .handle((parser, sink) -> {
+                    try {
+                        Object value = parser.finish();
+                        if (value != null) {
+                            sink.next(value);
+                        }
+                    } catch (IOException e) {
+                        sink.error(decodingError(e));
+                    }
+                });
+    }
+
+    /**
+     * Typed entry point for callers outside the WebFlux codec chain.
+     */
+    public <T> Mono<T> decode(Publisher<DataBuffer> inputStream, Class<T> type) {
+        return decodeToMono(inputStream, ResolvableType.forClass(type), MediaType.APPLICATION_JSON, Map.of())
+                .cast(type);
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public Map<String, Object> getDecodeHints(ResolvableType actualType,
+                                              ResolvableType elementType,
+                                              ServerHttpRequest request,
+                                              ServerHttpResponse response) {
+        return Map.of();
+    }
+
+    private RequestBodyParser open(boolean chat) {
+        return chat
+                ? RequestBodyParser.chat(readers, maxInMemorySize)
+                : RequestBodyParser.generate(readers, maxInMemorySize);
+    }
+
+    private static void feed(RequestBodyParser parser, DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+            while (chunks.hasNext()) {
+                ByteBuffer chunk = chunks.next();
+                parser.feed(chunk);
+            }
+        } catch (IOException e) {
+            throw decodingError(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static DecodingException decodingError(IOException e) {
+        return new DecodingException("JSON decoding error: " + e.getMessage(), e);
+    }
+}
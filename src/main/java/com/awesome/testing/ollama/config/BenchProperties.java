@@ -0,0 +1,56 @@
+package com.awesome.testing.ollama.config;
+
+import com.awesome.testing.ollama.bench.BenchEndpoint;
+import java.time.Duration;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the {@code bench} run mode, which drives an Ollama-compatible server instead of
+ * serving one.
+ */
+@Data
+@ConfigurationProperties(prefix = "ollama.bench")
+public class BenchProperties {
+
+    /**
+     * Base URL of the server under test.
+     */
+    private String target = "http://localhost:11434";
+
+    /**
+     * Endpoints to drive; requests are spread over them round-robin.
+     */
+    private List<BenchEndpoint> endpoints = List.of(BenchEndpoint.GENERATE, BenchEndpoint.CHAT);
+
+    /**
+     * Streams kept in flight at the same time.
+     */
+    private int concurrency = 16;
+
+    /**
+     * Streams measured in total.
+     */
+    private int requests = 200;
+
+    /**
+     * Streams run before measuring; their results are discarded.
+     */
+    private int warmupRequests = 0;
+
+    /**
+     * Model sent with every request.
+     */
+    private String model = "gpt-4o-mini";
+
+    /**
+     * Sends {@code think: true} so thinking chunks are streamed as well.
+     */
+    private boolean think = false;
+
+    /**
+     * Upper bound for a single stream, from request to the done chunk.
+     */
+    private Duration timeout = Duration.ofMinutes(2);
+}
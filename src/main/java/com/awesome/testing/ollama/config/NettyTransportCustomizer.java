@@ -0,0 +1,80 @@
+package com.awesome.testing.ollama.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.HttpResources;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Applies {@code ollama.mock.transport} to a Reactor Netty {@link HttpServer}: event loops and
+ * native transport, write-buffer water marks, flush consolidation, keep-alive idle timeout and h2c.
+ * Registered for the WebFlux server and reused by the fast path, so both listeners share one
+ * event-loop group.
+ */
+@Slf4j
+@Component
+public class NettyTransportCustomizer implements NettyServerCustomizer, DisposableBean {
+
+    private static final String FLUSH_CONSOLIDATION = "ollama.flushConsolidation";
+
+    private final OllamaMockProperties.Transport transport;
+    private final LoopResources loops;
+
+    public NettyTransportCustomizer(OllamaMockProperties properties) {
+        this.transport = properties.getTransport();
+        this.loops = transport.getEventLoopThreads() > 0
+                ? LoopResources.create("ollama-mock-http", 1, transport.getEventLoopThreads(), true)
+                : null;
+        log.info("Netty transport: {}, {} event loop(s), water marks {}-{}, flush consolidation {}, "
+                        + "idle timeout {}, h2c {}",
+                transport.isNativeTransport() && LoopResources.hasNativeSupport() ? "native" : "nio",
+                transport.getEventLoopThreads() > 0 ? transport.getEventLoopThreads() : "default",
+                transport.getWriteBufferLowWaterMark(), transport.getWriteBufferHighWaterMark(),
+                transport.getFlushConsolidation() > 0 ? transport.getFlushConsolidation() : "off",
+                isSet(transport.getIdleTimeout()) ? transport.getIdleTimeout() : "off",
+                transport.isH2c() ? "on" : "off");
+    }
+
+    @Override
+    public HttpServer apply(HttpServer server) {
+        HttpServer customized = server.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                (int) transport.getWriteBufferLowWaterMark().toBytes(),
+                (int) transport.getWriteBufferHighWaterMark().toBytes()));
+        if (loops != null) {
+            customized = customized.runOn(loops, transport.isNativeTransport());
+        } else if (!transport.isNativeTransport()) {
+            customized = customized.runOn(HttpResources.get(), false);
+        }
+        int flushes = transport.getFlushConsolidation();
+        if (flushes > 0) {
+            customized = customized.doOnChannelInit((observer, channel, address) -> channel.pipeline()
+                    .addFirst(FLUSH_CONSOLIDATION, new FlushConsolidationHandler(flushes, true)));
+        }
+        if (isSet(transport.getIdleTimeout())) {
+            customized = customized.idleTimeout(transport.getIdleTimeout());
+        }
+        if (transport.isH2c()) {
+            customized = customized.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C);
+        }
+        return customized;
+    }
+
+    @Override
+    public void destroy() {
+        if (loops != null) {
+            loops.disposeLater().block();
+        }
+    }
+
+    private static boolean isSet(Duration timeout) {
+        return timeout != null && timeout.isPositive();
+    }
+}
@@ -1,8 +1,15 @@
 package com.awesome.testing.ollama.config;
 
+import com.awesome.testing.ollama.logging.TokenLogMode;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @Data
 @ConfigurationProperties(prefix = "ollama.mock")
@@ -27,4 +34,393 @@ public class OllamaMockProperties {
      * Delay before emitting a tool call chunk to simulate function-calling latency.
      */
     private Duration toolCallDelay = Duration.ofSeconds(1);
+
+    /**
+     * Shared timer wheel that paces every active stream.
+     */
+    private Pacing pacing = new Pacing();
+
+    @Data
+    public static class Pacing {
+
+        /**
+         * Resolution of the pacing clock; bounds the jitter between consecutive tokens.
+         */
+        private Duration tickDuration = Duration.ofMillis(1);
+
+        /**
+         * Number of slots in the timer wheel.
+         */
+        private int ticksPerWheel = 512;
+
+        /**
+         * Chunks a stream builds ahead of the one it is pacing. Chunks are only paced when the
+         * connection asks for more, so together with the write-buffer water marks this bounds what a
+         * slow or departed reader can make the mock hold.
+         */
+        private int prefetch = 4;
+    }
+
+    /**
+     * Shape of the delays streams are paced with; the defaults reproduce a constant {@code token-delay}.
+     */
+    private Latency latency = new Latency();
+
+    @Data
+    public static class Latency {
+
+        /**
+         * How inter-token gaps are drawn: {@code fixed} uses {@code token-delay} as is, {@code lognormal}
+         * draws around it with a long right tail, {@code empirical} draws from {@code samples}.
+         */
+        private Distribution distribution = Distribution.FIXED;
+
+        /**
+         * Standard deviation of the log of a lognormal gap; the median gap is {@code token-delay}.
+         */
+        private double sigma = 0.5;
+
+        /**
+         * Observed inter-token gaps for the empirical distribution, e.g. {@code 20ms,25ms,40ms,300ms}.
+         * A draw picks a random quantile and interpolates between the neighbouring samples.
+         */
+        private List<Duration> samples = new ArrayList<>();
+
+        /**
+         * Prompt evaluation time per prompt token, waited before the first chunk.
+         */
+        private Duration promptEvalPerToken = Duration.ZERO;
+
+        /**
+         * Time to first token on top of prompt evaluation.
+         */
+        private Duration firstTokenDelay = Duration.ZERO;
+
+        /**
+         * Mixed with the model and prompt, so the same request gets the same delays on every run.
+         */
+        private long seed = 42;
+
+        public enum Distribution {
+            FIXED,
+            LOGNORMAL,
+            EMPIRICAL
+        }
+    }
+
+    /**
+     * Where scenario files are loaded from.
+     */
+    private Scenarios scenarios = new Scenarios();
+
+    /**
+     * Default grouping of consecutive tokens into one streamed chunk; can be overridden per request
+     * through {@code options}.
+     */
+    private Coalescing coalescing = new Coalescing();
+
+    /**
+     * How streamed tokens are logged.
+     */
+    private Logging logging = new Logging();
+
+    /**
+     * Optional second listener serving the streaming endpoints without the WebFlux stack.
+     */
+    private FastPath fastPath = new FastPath();
+
+    /**
+     * Netty settings applied to the main listener and the fast path.
+     */
+    private Transport transport = new Transport();
+
+    /**
+     * Pseudo-embeddings served by {@code /api/embed} and {@code /api/embeddings}.
+     */
+    private Embeddings embeddings = new Embeddings();
+
+    /**
+     * Models listed by {@code /api/tags}, {@code /api/ps} and {@code /api/show}; when empty, the
+     * default model and {@code nomic-embed-text:latest} are listed.
+     */
+    private List<Model> models = new ArrayList<>();
+
+    /**
+     * Per-model limit on concurrent generations, like {@code OLLAMA_NUM_PARALLEL} and
+     * {@code OLLAMA_MAX_QUEUE}.
+     */
+    private Slots slots = new Slots();
+
+    @Data
+    public static class Scenarios {
+
+        /**
+         * Optional directory with scenario files overriding the bundled ones (same file names, e.g.
+         * {@code generate-scenarios.json}). Files in it are watched and reloaded on change.
+         */
+        private Path directory;
+
+        /**
+         * Quiet period after a file change before reloading, so editors writing in several steps
+         * trigger a single reload.
+         */
+        private Duration reloadDebounce = Duration.ofMillis(200);
+
+        /**
+         * Keep only prompts and file offsets on heap and decode scenarios from the memory-mapped file
+         * on first use; meant for very large recorded corpora.
+         */
+        private boolean lazy = false;
+
+        /**
+         * Decoded scenarios kept per file when {@code lazy} is enabled.
+         */
+        private int cacheSize = 1024;
+
+        /**
+         * Chat conversations whose resolved scenario is remembered between turns; 0 rescans the
+         * whole history on every request.
+         */
+        private int sessionCacheSize = 4096;
+
+        /**
+         * Approximate prompt matching and the suggestions listed for unsupported prompts.
+         */
+        private Matching matching = new Matching();
+    }
+
+    @Data
+    public static class Matching {
+
+        /**
+         * Minimum trigram similarity (0-1) for a prompt without an exact match to be served by the
+         * closest scenario; 0 keeps matching exact.
+         */
+        private double threshold = 0;
+
+        /**
+         * Upper bound on scenarios scored per lookup, taken from the query's rarest trigrams.
+         */
+        private int maxCandidates = 256;
+
+        /**
+         * Nearest prompts listed in the reply to an unsupported prompt.
+         */
+        private int suggestions = 10;
+    }
+
+    @Data
+    public static class Coalescing {
+
+        /**
+         * Maximum tokens per chunk; 0 means no count limit.
+         */
+        private int maxTokens = 0;
+
+        /**
+         * Maximum UTF-8 bytes of token text per chunk; 0 means no byte limit.
+         */
+        private int maxBytes = 0;
+
+        /**
+         * Maximum decoding time, at the configured token delay, covered by one chunk; zero means no
+         * time limit.
+         */
+        private Duration window = Duration.ZERO;
+    }
+
+    @Data
+    public static class Logging {
+
+        /**
+         * Per-stream logging: OFF, SAMPLED (full trace for one in {@code sampleRate} streams),
+         * SUMMARY (one line per stream) or FULL (every token).
+         */
+        private TokenLogMode tokenMode = TokenLogMode.FULL;
+
+        /**
+         * In SAMPLED mode, one in this many streams is traced token by token.
+         */
+        private int sampleRate = 100;
+
+        /**
+         * Capacity of the asynchronous appender queue; events beyond it are dropped and counted.
+         */
+        private int queueSize = 8192;
+    }
+
+    @Data
+    public static class FastPath {
+
+        /**
+         * Serve {@code /api/generate}, {@code /api/chat} and {@code /api/chat/tools} on {@code port}
+         * from a plain Reactor Netty route table as well.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Port of the fast-path listener; 0 picks a free one.
+         */
+        private int port = 11435;
+    }
+
+    @Data
+    public static class Transport {
+
+        /**
+         * Use the native epoll transport where the platform supports it; NIO otherwise.
+         */
+        private boolean nativeTransport = true;
+
+        /**
+         * Event-loop threads; 0 keeps Reactor Netty's default of one per core (at least 4).
+         */
+        private int eventLoopThreads = 0;
+
+        /**
+         * Bytes queued on a connection above which it stops being writable, so a slow consumer stops
+         * pulling tokens instead of buffering them.
+         */
+        private DataSize writeBufferHighWaterMark = DataSize.ofKilobytes(64);
+
+        /**
+         * Queued bytes below which a connection is writable again.
+         */
+        private DataSize writeBufferLowWaterMark = DataSize.ofKilobytes(32);
+
+        /**
+         * Flushes merged into one socket write by a flush-consolidation handler, so back-to-back tokens
+         * with zero delay do not cost a syscall each; 0 flushes every chunk.
+         */
+        private int flushConsolidation = 0;
+
+        /**
+         * Accept cleartext HTTP/2 (prior knowledge or upgrade) next to HTTP/1.1.
+         */
+        private boolean h2c = false;
+
+        /**
+         * How long a keep-alive connection may wait for its next request before it is closed, so
+         * half-closed and forgotten client connections do not pile up; zero keeps connections open.
+         */
+        private Duration idleTimeout = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class Embeddings {
+
+        /**
+         * Vector length for models without an entry in {@code models}.
+         */
+        private int dimensions = 768;
+
+        /**
+         * Scale vectors to unit length, as most embedding models do.
+         */
+        private boolean normalize = true;
+
+        /**
+         * Inputs in one {@code /api/embed} request from which the batch is split across the parallel
+         * scheduler instead of being generated on the request thread.
+         */
+        private int parallelThreshold = 64;
+
+        /**
+         * Per-model overrides keyed by model name; names containing {@code :} need brackets, e.g.
+         * {@code models[nomic-embed-text:latest].dimensions=768}.
+         */
+        private Map<String, EmbeddingModel> models = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class EmbeddingModel {
+
+        /**
+         * Vector length; falls back to {@code embeddings.dimensions}.
+         */
+        private Integer dimensions;
+
+        /**
+         * Unit-length vectors; falls back to {@code embeddings.normalize}.
+         */
+        private Boolean normalize;
+    }
+
+    @Data
+    public static class Model {
+
+        /**
+         * Model name as clients pass it, e.g. {@code qwen3:4b}; {@code :latest} may be omitted in requests.
+         */
+        private String name;
+
+        /**
+         * Size on disk; also reported as VRAM use in {@code /api/ps}.
+         */
+        private DataSize size = DataSize.ofMegabytes(4_700);
+
+        /**
+         * SHA-256 digest; derived from the name when not set.
+         */
+        private String digest;
+
+        /**
+         * Model family, e.g. {@code llama}, {@code qwen3} or {@code nomic-bert}.
+         */
+        private String family = "llama";
+
+        /**
+         * Weights format.
+         */
+        private String format = "gguf";
+
+        /**
+         * Parameter count as Ollama prints it, e.g. {@code 8.0B}.
+         */
+        private String parameterSize = "8.0B";
+
+        /**
+         * Quantization level, e.g. {@code Q4_K_M}.
+         */
+        private String quantizationLevel = "Q4_K_M";
+
+        /**
+         * Context window reported in {@code /api/show}.
+         */
+        private int contextLength = 8192;
+
+        /**
+         * Capabilities reported in {@code /api/show}: completion, tools, thinking, embedding, vision.
+         */
+        private List<String> capabilities = new ArrayList<>(List.of("completion"));
+
+        /**
+         * Listed by {@code /api/ps} as loaded.
+         */
+        private boolean loaded = true;
+
+        /**
+         * Reported {@code modified_at}.
+         */
+        private String modifiedAt = "2025-01-01T00:00:00Z";
+    }
+
+    @Data
+    public static class Slots {
+
+        /**
+         * Generations served at once per model on the generate and chat endpoints; 0 means unlimited.
+         */
+        private int parallel = 0;
+
+        /**
+         * Requests waiting for a slot per model; further requests get a 503.
+         */
+        private int maxQueue = 512;
+
+        /**
+         * Per-model overrides of {@code parallel}, keyed by model name.
+         */
+        private Map<String, Integer> models = new LinkedHashMap<>();
+    }
 }
@@ -0,0 +1,44 @@
+package com.awesome.testing.ollama.config;
+
+import com.awesome.testing.ollama.codec.NdjsonFrameEncoder;
+import com.awesome.testing.ollama.codec.PreparedJsonStrings;
+import com.awesome.testing.ollama.codec.StreamingRequestDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.http.codec.HttpCodecsProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebFluxCodecConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final OllamaMockProperties properties;
+    private final HttpCodecsProperties codecsProperties;
+
+    @Bean
+    public NdjsonFrameEncoder ndjsonFrameEncoder() {
+        PreparedJsonStrings.prepare(properties.getDefaultModel());
+        return new NdjsonFrameEncoder(objectMapper);
+    }
+
+    @Bean
+    public StreamingRequestDecoder streamingRequestDecoder() {
+        StreamingRequestDecoder decoder = new StreamingRequestDecoder(objectMapper);
+        DataSize maxInMemorySize = codecsProperties.getMaxInMemorySize();
+        if (maxInMemorySize != null) {
+            decoder.setMaxInMemorySize((int) maxInMemorySize.toBytes());
+        }
+        return decoder;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(ndjsonFrameEncoder());
+        configurer.customCodecs().register(streamingRequestDecoder());
+    }
+}
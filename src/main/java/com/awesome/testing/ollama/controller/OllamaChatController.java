@@ -2,6 +2,7 @@ package com.awesome.testing.ollama.controller;
 
 import com.awesome.testing.ollama.dto.ChatRequestDto;
 import com.awesome.testing.ollama.dto.ChatResponseDto;
+import com.awesome.testing.ollama.scheduling.ModelSlotScheduler;
 import com.awesome.testing.ollama.service.ChatService;
 import com.awesome.testing.ollama.service.ChatToolsService;
 import jakarta.validation.Valid;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -22,24 +24,27 @@ public class OllamaChatController {
 
     private final ChatService chatService;
     private final ChatToolsService chatToolsService;
+    private final ModelSlotScheduler slotScheduler;
 
     @PostMapping(value = "/chat", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Publisher<ChatResponseDto>> chat(@Valid @RequestBody ChatRequestDto request) {
+    public Mono<ResponseEntity<Publisher<ChatResponseDto>>> chat(@Valid @RequestBody ChatRequestDto request) {
         boolean streamingEnabled = request.getStream() == null || request.getStream();
         if (streamingEnabled) {
-            Publisher<ChatResponseDto> publisher = requiresTools(request)
+            Flux<ChatResponseDto> publisher = requiresTools(request)
                     ? chatToolsService.chatToolStream(request)
                     : chatService.chatStream(request);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_NDJSON)
-                    .body(publisher);
+            return slotScheduler.stream(request.getModel(), publisher)
+                    .map(body -> ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .body(body));
         }
         Mono<ChatResponseDto> single = requiresTools(request)
                 ? chatToolsService.chatToolSingle(request)
                 : chatService.chatSingle(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(single);
+        return slotScheduler.single(request.getModel(), single)
+                .map(body -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body));
     }
 
     private boolean requiresTools(ChatRequestDto request) {
@@ -2,6 +2,7 @@ package com.awesome.testing.ollama.controller;
 
 import com.awesome.testing.ollama.dto.ChatRequestDto;
 import com.awesome.testing.ollama.dto.ChatResponseDto;
+import com.awesome.testing.ollama.scheduling.ModelSlotScheduler;
 import com.awesome.testing.ollama.service.ChatToolsService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,18 +21,20 @@ import reactor.core.publisher.Mono;
 public class OllamaChatToolsController {
 
     private final ChatToolsService chatToolsService;
+    private final ModelSlotScheduler slotScheduler;
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Publisher<ChatResponseDto>> chatWithTools(@Valid @RequestBody ChatRequestDto request) {
+    public Mono<ResponseEntity<Publisher<ChatResponseDto>>> chatWithTools(@Valid @RequestBody ChatRequestDto request) {
         boolean streamingEnabled = request.getStream() == null || request.getStream();
         if (streamingEnabled) {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_NDJSON)
-                    .body(chatToolsService.chatToolStream(request));
+            return slotScheduler.stream(request.getModel(), chatToolsService.chatToolStream(request))
+                    .map(body -> ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .body(body));
         }
-        Mono<ChatResponseDto> single = chatToolsService.chatToolSingle(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(single);
+        return slotScheduler.single(request.getModel(), chatToolsService.chatToolSingle(request))
+                .map(body -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body));
     }
 }
@@ -0,0 +1,33 @@
+package com.awesome.testing.ollama.controller;
+
+import com.awesome.testing.ollama.dto.EmbedRequestDto;
+import com.awesome.testing.ollama.dto.EmbedResponseDto;
+import com.awesome.testing.ollama.dto.EmbeddingRequestDto;
+import com.awesome.testing.ollama.dto.EmbeddingResponseDto;
+import com.awesome.testing.ollama.service.EmbeddingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping(path = "/api", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class OllamaEmbedController {
+
+    private final EmbeddingService embeddingService;
+
+    @PostMapping(value = "/embed", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<EmbedResponseDto> embed(@Valid @RequestBody EmbedRequestDto request) {
+        return embeddingService.embed(request);
+    }
+
+    @PostMapping(value = "/embeddings", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<EmbeddingResponseDto> embeddings(@Valid @RequestBody EmbeddingRequestDto request) {
+        return embeddingService.embedding(request);
+    }
+}
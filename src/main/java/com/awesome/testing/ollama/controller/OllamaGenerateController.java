@@ -2,6 +2,7 @@ package com.awesome.testing.ollama.controller;
 
 import com.awesome.testing.ollama.dto.GenerateResponseDto;
 import com.awesome.testing.ollama.dto.StreamedRequestDto;
+import com.awesome.testing.ollama.scheduling.ModelSlotScheduler;
 import com.awesome.testing.ollama.service.GenerateService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,18 +21,20 @@ import reactor.core.publisher.Mono;
 public class OllamaGenerateController {
 
     private final GenerateService generateService;
+    private final ModelSlotScheduler slotScheduler;
 
     @PostMapping(value = "/generate", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Publisher<GenerateResponseDto>> generate(@Valid @RequestBody StreamedRequestDto request) {
+    public Mono<ResponseEntity<Publisher<GenerateResponseDto>>> generate(@Valid @RequestBody StreamedRequestDto request) {
         boolean streamingEnabled = request.getStream() == null || request.getStream();
         if (streamingEnabled) {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_NDJSON)
-                    .body(generateService.generateStream(request));
+            return slotScheduler.stream(request.getModel(), generateService.generateStream(request))
+                    .map(body -> ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .body(body));
         }
-        Mono<GenerateResponseDto> single = generateService.generateSingle(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(single);
+        return slotScheduler.single(request.getModel(), generateService.generateSingle(request))
+                .map(body -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body));
     }
 }
@@ -1,30 +1,70 @@
 package com.awesome.testing.ollama.controller;
 
-import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.ShowModelRequestDto;
+import com.awesome.testing.ollama.registry.ModelRegistry;
+import java.util.Map;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.time.OffsetDateTime;
-import java.util.Map;
-
+/**
+ * Version and model registry endpoints. Bodies come pre-serialized from {@link ModelRegistry} with a
+ * strong ETag; the GET endpoints answer a matching {@code If-None-Match} with 304 and no body.
+ */
 @RestController
 @RequestMapping(path = "/api", produces = MediaType.APPLICATION_JSON_VALUE)
 public class OllamaMetadataController {
 
-    private final OllamaMockProperties properties;
+    private final ModelRegistry registry;
 
-    public OllamaMetadataController(OllamaMockProperties properties) {
-        this.properties = properties;
+    public OllamaMetadataController(ModelRegistry registry) {
+        this.registry = registry;
     }
 
     @GetMapping("/version")
-    public Map<String, Object> version() {
-        return Map.of(
-                "version", properties.getVersion(),
-                "mockModel", properties.getDefaultModel(),
-                "timestamp", OffsetDateTime.now().toString()
-        );
+    public ResponseEntity<byte[]> version(@RequestHeader HttpHeaders headers) {
+        return prepared(registry.version(), headers);
+    }
+
+    @GetMapping("/tags")
+    public ResponseEntity<byte[]> tags(@RequestHeader HttpHeaders headers) {
+        return prepared(registry.tags(), headers);
+    }
+
+    @GetMapping("/ps")
+    public ResponseEntity<byte[]> ps(@RequestHeader HttpHeaders headers) {
+        return prepared(registry.ps(), headers);
+    }
+
+    @PostMapping(value = "/show", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> show(@RequestBody ShowModelRequestDto request) {
+        String name = request.getModel() != null ? request.getModel() : request.getName();
+        return registry.show(name)
+                .<ResponseEntity<Object>>map(json -> ResponseEntity.ok()
+                        .eTag(json.etag())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(json.body()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(Map.of("error", "model '" + name + "' not found")));
+    }
+
+    private static ResponseEntity<byte[]> prepared(ModelRegistry.PreparedJson json, HttpHeaders headers) {
+        if (json.matches(headers.getIfNoneMatch())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(json.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(json.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.body());
     }
 }
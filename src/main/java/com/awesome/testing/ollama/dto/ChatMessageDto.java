@@ -1,7 +1,7 @@
 package com.awesome.testing.ollama.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,8 +20,14 @@ public class ChatMessageDto {
 
     @JsonProperty("tool_calls")
     @Builder.Default
-    private List<ToolCallDto> toolCalls = new ArrayList<>();
+    private List<ToolCallDto> toolCalls = List.of();
 
     @JsonProperty("tool_name")
     private String toolName;
+
+    /**
+     * Words in the content when the request decoder counted them without keeping the content.
+     */
+    @JsonIgnore
+    private Integer contentTokens;
 }
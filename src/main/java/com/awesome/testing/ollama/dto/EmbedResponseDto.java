@@ -0,0 +1,30 @@
+package com.awesome.testing.ollama.dto;
+
+import com.awesome.testing.ollama.codec.EmbeddingVectorSerializer;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbedResponseDto {
+
+    private String model;
+
+    @JsonSerialize(contentUsing = EmbeddingVectorSerializer.class)
+    private float[][] embeddings;
+
+    @JsonProperty("total_duration")
+    private Long totalDuration;
+
+    @JsonProperty("load_duration")
+    private Long loadDuration;
+
+    @JsonProperty("prompt_eval_count")
+    private Integer promptEvalCount;
+}
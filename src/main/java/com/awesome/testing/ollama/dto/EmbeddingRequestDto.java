@@ -0,0 +1,19 @@
+package com.awesome.testing.ollama.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbeddingRequestDto {
+
+    @NotBlank
+    private String model;
+
+    private String prompt;
+}
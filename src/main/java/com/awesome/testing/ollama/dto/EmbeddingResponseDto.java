@@ -0,0 +1,18 @@
+package com.awesome.testing.ollama.dto;
+
+import com.awesome.testing.ollama.codec.EmbeddingVectorSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbeddingResponseDto {
+
+    @JsonSerialize(using = EmbeddingVectorSerializer.class)
+    private float[] embedding;
+}
@@ -1,5 +1,6 @@
 package com.awesome.testing.ollama.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,7 +11,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class GenerateResponseDto {
+public class GenerateResponseDto implements TimedResponse {
 
     private String model;
 
@@ -25,6 +26,27 @@ public class GenerateResponseDto {
 
     private Long[] context;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @JsonProperty("total_duration")
     private Long totalDuration;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("load_duration")
+    private Long loadDuration;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("prompt_eval_count")
+    private Integer promptEvalCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("prompt_eval_duration")
+    private Long promptEvalDuration;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("eval_count")
+    private Integer evalCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("eval_duration")
+    private Long evalDuration;
 }
@@ -0,0 +1,30 @@
+package com.awesome.testing.ollama.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelDetailsDto {
+
+    @JsonProperty("parent_model")
+    private String parentModel;
+
+    private String format;
+
+    private String family;
+
+    private List<String> families;
+
+    @JsonProperty("parameter_size")
+    private String parameterSize;
+
+    @JsonProperty("quantization_level")
+    private String quantizationLevel;
+}
@@ -0,0 +1,16 @@
+package com.awesome.testing.ollama.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelListDto {
+
+    private List<ModelSummaryDto> models;
+}
@@ -0,0 +1,38 @@
+package com.awesome.testing.ollama.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entry of {@code /api/tags}; {@code /api/ps} adds {@code expires_at} and {@code size_vram}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ModelSummaryDto {
+
+    private String name;
+
+    private String model;
+
+    @JsonProperty("modified_at")
+    private String modifiedAt;
+
+    private long size;
+
+    private String digest;
+
+    private ModelDetailsDto details;
+
+    @JsonProperty("expires_at")
+    private String expiresAt;
+
+    @JsonProperty("size_vram")
+    private Long sizeVram;
+}
@@ -0,0 +1,20 @@
+package com.awesome.testing.ollama.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowModelRequestDto {
+
+    private String model;
+
+    /**
+     * Older clients send the model as {@code name}.
+     */
+    private String name;
+}
@@ -0,0 +1,32 @@
+package com.awesome.testing.ollama.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowModelResponseDto {
+
+    private String modelfile;
+
+    private String parameters;
+
+    private String template;
+
+    private ModelDetailsDto details;
+
+    @JsonProperty("model_info")
+    private Map<String, Object> modelInfo;
+
+    private List<String> capabilities;
+
+    @JsonProperty("modified_at")
+    private String modifiedAt;
+}
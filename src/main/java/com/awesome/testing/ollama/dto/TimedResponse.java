@@ -0,0 +1,32 @@
+package com.awesome.testing.ollama.dto;
+
+/**
+ * Timing statistics Ollama reports on the final chunk of a generation. Durations are in
+ * nanoseconds, counts in tokens; all are {@code null} on every other chunk.
+ */
+public interface TimedResponse {
+
+    Long getTotalDuration();
+
+    void setTotalDuration(Long totalDuration);
+
+    Long getLoadDuration();
+
+    void setLoadDuration(Long loadDuration);
+
+    Integer getPromptEvalCount();
+
+    void setPromptEvalCount(Integer promptEvalCount);
+
+    Long getPromptEvalDuration();
+
+    void setPromptEvalDuration(Long promptEvalDuration);
+
+    Integer getEvalCount();
+
+    void setEvalCount(Integer evalCount);
+
+    Long getEvalDuration();
+
+    void setEvalDuration(Long evalDuration);
+}
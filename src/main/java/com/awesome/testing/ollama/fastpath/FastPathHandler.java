@@ -0,0 +1,209 @@
+package com.awesome.testing.ollama.fastpath;
+
+import com.awesome.testing.ollama.codec.NdjsonFrameEncoder;
+import com.awesome.testing.ollama.codec.StreamingRequestDecoder;
+import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.awesome.testing.ollama.dto.ChatResponseDto;
+import com.awesome.testing.ollama.dto.GenerateResponseDto;
+import com.awesome.testing.ollama.dto.StreamedRequestDto;
+import com.awesome.testing.ollama.scheduling.ModelSlotScheduler;
+import com.awesome.testing.ollama.scheduling.ServerBusyException;
+import com.awesome.testing.ollama.scheduling.SlotLeases;
+import com.awesome.testing.ollama.service.ChatService;
+import com.awesome.testing.ollama.service.ChatToolsService;
+import com.awesome.testing.ollama.service.GenerateService;
+import com.awesome.testing.ollama.web.RequestOverrides;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import java.util.Map;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.util.context.Context;
+
+/**
+ * Request handling behind {@link FastPathServer}. Bodies are decoded chunk by chunk with the same
+ * {@link StreamingRequestDecoder} as the controllers, followed by the checks they get from
+ * {@code consumes} and {@code @Valid}. Generations wait for a slot from the same
+ * {@link ModelSlotScheduler}, and responses are written with the same {@link NdjsonFrameEncoder} and
+ * {@link ObjectMapper}, so status codes, content types and body bytes match the WebFlux endpoints.
+ * Rejected requests get an Ollama-style {@code {"error": "..."}} body.
+ */
+@Component
+class FastPathHandler {
+
+    private static final NettyDataBufferFactory INBOUND = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+    private static final ResolvableType GENERATE_CHUNK = ResolvableType.forClass(GenerateResponseDto.class);
+    private static final ResolvableType CHAT_CHUNK = ResolvableType.forClass(ChatResponseDto.class);
+
+    private final GenerateService generateService;
+    private final ChatService chatService;
+    private final ChatToolsService chatToolsService;
+    private final ModelSlotScheduler slotScheduler;
+    private final NdjsonFrameEncoder encoder;
+    private final StreamingRequestDecoder decoder;
+    private final ObjectMapper objectMapper;
+
+    FastPathHandler(GenerateService generateService,
+                    ChatService chatService,
+                    ChatToolsService chatToolsService,
+                    ModelSlotScheduler slotScheduler,
+                    NdjsonFrameEncoder encoder,
+                    StreamingRequestDecoder decoder,
+                    ObjectMapper objectMapper) {
+        this.generateService = generateService;
+        this.chatService = chatService;
+        this.chatToolsService = chatToolsService;
+        this.slotScheduler = slotScheduler;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.objectMapper = objectMapper;
+    }
+
+    Mono<Void> generate(HttpServerRequest request, HttpServerResponse response) {
+        Mono<Void> handled = decode(request, StreamedRequestDto.class).flatMap(body -> {
+            if (!StringUtils.hasText(body.getModel()) || !StringUtils.hasText(body.getPrompt())) {
+                return Mono.error(new RejectedRequestException(HttpResponseStatus.BAD_REQUEST,
+                        "model and prompt must not be blank"));
+            }
+            return isStreaming(body.getStream())
+                    ? stream(request, response, body.getModel(), GENERATE_CHUNK, generateService.generateStream(body))
+                    : single(request, response, body.getModel(), generateService.generateSingle(body));
+        });
+        return reject(handled, response);
+    }
+
+    Mono<Void> chat(HttpServerRequest request, HttpServerResponse response) {
+        Mono<Void> handled = decode(request, ChatRequestDto.class).flatMap(body -> {
+            boolean tools = body.getTools() != null && !body.getTools().isEmpty();
+            if (isStreaming(body.getStream())) {
+                return stream(request, response, body.getModel(), CHAT_CHUNK, tools
+                        ? chatToolsService.chatToolStream(body)
+                        : chatService.chatStream(body));
+            }
+            return single(request, response, body.getModel(), tools
+                    ? chatToolsService.chatToolSingle(body)
+                    : chatService.chatSingle(body));
+        });
+        return reject(handled, response);
+    }
+
+    Mono<Void> chatTools(HttpServerRequest request, HttpServerResponse response) {
+        Mono<Void> handled = decode(request, ChatRequestDto.class).flatMap(body ->
+                isStreaming(body.getStream())
+                        ? stream(request, response, body.getModel(), CHAT_CHUNK, chatToolsService.chatToolStream(body))
+                        : single(request, response, body.getModel(), chatToolsService.chatToolSingle(body)));
+        return reject(handled, response);
+    }
+
+    private <T> Mono<T> decode(HttpServerRequest request, Class<T> type) {
+        if (!isJson(request.requestHeaders().get(HttpHeaderNames.CONTENT_TYPE))) {
+            return Mono.error(new RejectedRequestException(HttpResponseStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Content-Type must be application/json"));
+        }
+        return decoder.decode(request.receive().retain().map(INBOUND::wrap), type)
+                .onErrorMap(DecodingException.class,
+                        e -> new RejectedRequestException(HttpResponseStatus.BAD_REQUEST, "Invalid request body"))
+                .onErrorMap(DataBufferLimitException.class,
+                        e -> new RejectedRequestException(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE, e.getMessage()))
+                .switchIfEmpty(Mono.error(() -> new RejectedRequestException(HttpResponseStatus.BAD_REQUEST,
+                        "Request body is missing")));
+    }
+
+    private <T> Mono<Void> stream(HttpServerRequest request,
+                                  HttpServerResponse response,
+                                  String model,
+                                  ResolvableType chunkType,
+                                  Flux<T> chunks) {
+        NettyDataBufferFactory buffers = new NettyDataBufferFactory(response.alloc());
+        RequestOverrides overrides = overrides(request);
+        return SlotLeases.bracket(slotScheduler.stream(model, chunks).flatMap(scheduled -> {
+            Flux<T> body = scheduled.contextWrite(context -> withOverrides(context, overrides));
+            return response.status(HttpResponseStatus.OK)
+                    .header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                    .send(encoder.encode(body, buffers, chunkType, MediaType.APPLICATION_NDJSON, Map.of())
+                            .map(NettyDataBufferFactory::toByteBuf))
+                    .then();
+        }));
+    }
+
+    private <T> Mono<Void> single(HttpServerRequest request, HttpServerResponse response, String model, Mono<T> value) {
+        RequestOverrides overrides = overrides(request);
+        return SlotLeases.bracket(slotScheduler.single(model, value).flatMap(scheduled -> {
+            Mono<byte[]> body = scheduled
+                    .map(this::writeJson)
+                    .contextWrite(context -> withOverrides(context, overrides));
+            return response.status(HttpResponseStatus.OK)
+                    .header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .sendByteArray(body)
+                    .then();
+        }));
+    }
+
+    private Mono<Void> reject(Mono<Void> handled, HttpServerResponse response) {
+        return handled.onErrorMap(ServerBusyException.class,
+                        busy -> new RejectedRequestException(HttpResponseStatus.SERVICE_UNAVAILABLE, busy.getMessage()))
+                .onErrorResume(RejectedRequestException.class, rejected -> response
+                        .status(rejected.status)
+                        .header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendByteArray(Mono.fromSupplier(() -> writeJson(Map.of("error", rejected.getMessage()))))
+                        .then());
+    }
+
+    private byte[] writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new EncodingException("Could not write JSON response: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static RequestOverrides overrides(HttpServerRequest request) {
+        return RequestOverrides.fromHeaders(request.requestHeaders()::get);
+    }
+
+    private static Context withOverrides(Context context, RequestOverrides overrides) {
+        return overrides == RequestOverrides.NONE ? context : context.put(RequestOverrides.class, overrides);
+    }
+
+    private static boolean isStreaming(Boolean stream) {
+        return stream == null || stream;
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        if (MediaType.APPLICATION_JSON_VALUE.equals(contentType)) {
+            return true;
+        }
+        try {
+            return MediaType.APPLICATION_JSON.includes(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private static final class RejectedRequestException extends RuntimeException {
+
+        private final HttpResponseStatus status;
+
+        RejectedRequestException(HttpResponseStatus status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.awesome.testing.ollama.fastpath;
+
+import com.awesome.testing.ollama.config.NettyTransportCustomizer;
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Optional second listener serving {@code /api/generate}, {@code /api/chat} and
+ * {@code /api/chat/tools} (plus the legacy {@code /chat/tools}) straight from a Reactor Netty route
+ * table, skipping WebFlux handler mapping, argument resolution, bean validation and codec
+ * negotiation, with the same {@code ollama.mock.transport} settings as the main listener. Everything
+ * else stays on the main port. Enabled with {@code ollama.mock.fast-path.enabled}; the check happens
+ * at startup rather than through a condition so the listener also works in the Spring AOT image.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FastPathServer implements SmartLifecycle {
+
+    private final OllamaMockProperties properties;
+    private final FastPathHandler handler;
+    private final NettyTransportCustomizer transport;
+
+    private volatile DisposableServer server;
+
+    @Override
+    public void start() {
+        OllamaMockProperties.FastPath fastPath = properties.getFastPath();
+        if (!fastPath.isEnabled()) {
+            return;
+        }
+        server = transport.apply(HttpServer.create())
+                .port(fastPath.getPort())
+                .route(routes -> routes
+                        .post("/api/generate", handler::generate)
+                        .post("/api/chat", handler::chat)
+                        .post("/api/chat/tools", handler::chatTools)
+                        .post("/chat/tools", handler::chatTools))
+                .bindNow();
+        log.info("Fast path serving streaming endpoints on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        if (current != null) {
+            current.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Port the fast path is bound to.
+     */
+    public int port() {
+        DisposableServer current = server;
+        if (current == null) {
+            throw new IllegalStateException("Fast path is not enabled");
+        }
+        return current.port();
+    }
+}
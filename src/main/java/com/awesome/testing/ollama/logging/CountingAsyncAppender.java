@@ -0,0 +1,94 @@
+package com.awesome.testing.ollama.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking {@link AsyncAppender} that counts the events it drops, either because the queue is
+ * full or because they fell under the discarding threshold.
+ *
+ * <p>With {@code neverBlock} the appender admits an event only while fewer than {@code queueSize}
+ * events are queued or being delivered, and drops and counts it otherwise. The attached appender is
+ * wrapped to release an admission once the worker has delivered an event, so the queue always has
+ * room for an admitted event and no drop goes uncounted.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    private final AtomicInteger admitted = new AtomicInteger();
+
+    public static long droppedEvents() {
+        return DROPPED.sum();
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        super.addAppender(new Delivery(appender));
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && admitted.incrementAndGet() > getQueueSize()) {
+            admitted.decrementAndGet();
+            DROPPED.increment();
+            return;
+        }
+        try {
+            super.append(event);
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            release();
+            DROPPED.increment();
+        }
+        return discardable;
+    }
+
+    private void release() {
+        if (isNeverBlock()) {
+            admitted.decrementAndGet();
+        }
+    }
+
+    /**
+     * The attached appender, releasing the admission of each event the worker hands to it.
+     */
+    private final class Delivery extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+        private final Appender<ILoggingEvent> delegate;
+
+        Delivery(Appender<ILoggingEvent> delegate) {
+            this.delegate = delegate;
+            setContext(delegate.getContext());
+            setName(delegate.getName());
+            start();
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                delegate.doAppend(event);
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public void stop() {
+            delegate.stop();
+            super.stop();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.awesome.testing.ollama.logging;
+
+public enum TokenLogMode {
+    OFF,
+    SAMPLED,
+    SUMMARY,
+    FULL
+}
@@ -0,0 +1,111 @@
+package com.awesome.testing.ollama.logging;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.util.TokenStreamUtils;
+import com.awesome.testing.ollama.web.RequestOverrides;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.ContextView;
+
+/**
+ * Decides, per stream, whether tokens are traced individually, summarized in one line or not logged
+ * at all, according to {@code ollama.mock.logging.token-mode} and the
+ * {@value RequestOverrides#TRACE_HEADER} request header.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenStreamLogger implements MeterBinder {
+
+    private final OllamaMockProperties properties;
+    private final AtomicLong streams = new AtomicLong();
+
+    public StreamLog open(Logger log, String channel, String scenario, ContextView context) {
+        OllamaMockProperties.Logging logging = properties.getLogging();
+        TokenLogMode mode = logging.getTokenMode();
+        boolean trace = RequestOverrides.from(context).isTrace()
+                || mode == TokenLogMode.FULL
+                || (mode == TokenLogMode.SAMPLED && streams.getAndIncrement() % Math.max(1, logging.getSampleRate()) == 0);
+        boolean summary = trace || mode == TokenLogMode.SUMMARY;
+        return new StreamLog(log, channel, scenario, trace, summary);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ollama.mock.logging.dropped", this, ignored -> CountingAsyncAppender.droppedEvents())
+                .description("Log events dropped by the asynchronous appender")
+                .register(registry);
+    }
+
+    public static final class StreamLog {
+
+        private final Logger log;
+        private final String channel;
+        private final String scenario;
+        private final boolean trace;
+        private final boolean summary;
+
+        private StreamLog(Logger log, String channel, String scenario, boolean trace, boolean summary) {
+            this.log = log;
+            this.channel = channel;
+            this.scenario = scenario;
+            this.trace = trace;
+            this.summary = summary;
+        }
+
+        /**
+         * Logs a stream-level event when this stream is traced.
+         */
+        public void event(String format, Object... arguments) {
+            if (trace) {
+                log.info(format, arguments);
+            }
+        }
+
+        public void queued(String section, int tokenCount) {
+            if (trace) {
+                log.info("[{}][{}] {} token(s) queued", channel, section, tokenCount);
+            }
+        }
+
+        public void token(String section, String token) {
+            if (trace) {
+                log.info("[{}][{}-token] {}", channel, section, TokenStreamUtils.printable(token));
+            }
+        }
+
+        /**
+         * Sums the tokens carried by each chunk and logs the summary line once the stream terminates.
+         */
+        public <T> Flux<T> track(Flux<T> stream, ToIntFunction<T> tokensOf) {
+            if (!summary) {
+                return stream;
+            }
+            return Flux.defer(() -> {
+                long start = System.nanoTime();
+                AtomicLong tokens = new AtomicLong();
+                return stream
+                        .doOnNext(chunk -> tokens.addAndGet(tokensOf.applyAsInt(chunk)))
+                        .doFinally(signal -> log.info("[{}][summary] scenario='{}' tokens={} duration={}ms outcome={}",
+                                channel, scenario, tokens.get(),
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), outcome(signal)));
+            });
+        }
+
+        private String outcome(SignalType signal) {
+            return switch (signal) {
+                case ON_COMPLETE -> "complete";
+                case ON_ERROR -> "error";
+                default -> "cancelled";
+            };
+        }
+    }
+}
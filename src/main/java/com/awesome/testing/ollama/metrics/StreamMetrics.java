@@ -0,0 +1,283 @@
+package com.awesome.testing.ollama.metrics;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.stream.StreamFrame;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Streaming latency and scenario usage metrics for the generate, chat and chat-tools endpoints.
+ *
+ * <p>Counters on the request path are {@link LongAdder}s exposed through {@link FunctionCounter}s, so
+ * recording stays contention-free; meters are only looked up when a new scenario or stage is first
+ * seen. Latency is measured on the paced frames, i.e. as the client would observe it. A stream
+ * cancelled before its done chunk, normally because the client disconnected, counts as abandoned,
+ * together with the tokens it had emitted by then.
+ */
+@Component
+public class StreamMetrics implements MeterBinder {
+
+    public enum Endpoint {
+        GENERATE("generate"),
+        CHAT("chat"),
+        CHAT_TOOLS("chat_tools");
+
+        private final String tag;
+
+        Endpoint(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum ScenarioOutcome {
+        HIT,
+        MISS,
+        UNSUPPORTED
+    }
+
+    static final String UNSUPPORTED_SCENARIO = "(unsupported)";
+    static final String OTHER_SCENARIO = "(other)";
+    static final int MAX_SCENARIO_SERIES = 1000;
+    static final String FINAL_RESPONSE = "(response)";
+
+    private final Duration tokenDelay;
+    private final Map<Endpoint, EndpointMeters> endpoints = new EnumMap<>(Endpoint.class);
+    private final Map<ScenarioKey, LongAdder> scenarios = new ConcurrentHashMap<>();
+    private final Map<StageKey, LongAdder> stages = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public StreamMetrics(OllamaMockProperties properties) {
+        this.tokenDelay = properties.getTokenDelay();
+        for (Endpoint endpoint : Endpoint.values()) {
+            endpoints.put(endpoint, new EndpointMeters());
+        }
+    }
+
+    /**
+     * Counts a request resolved against the scenario catalogue; {@code scenario} is ignored for
+     * {@link ScenarioOutcome#UNSUPPORTED}. The scenario is tagged with {@link #scenarioId}, never its
+     * prompt, and scenarios first seen after {@value #MAX_SCENARIO_SERIES} series exist share
+     * {@value #OTHER_SCENARIO}.
+     */
+    public void scenario(Endpoint endpoint, String scenario, ScenarioOutcome outcome) {
+        String id = outcome == ScenarioOutcome.UNSUPPORTED ? UNSUPPORTED_SCENARIO : scenarioId(scenario);
+        ScenarioKey key = new ScenarioKey(endpoint, id, outcome);
+        LongAdder adder = scenarios.get(key);
+        if (adder == null) {
+            if (scenarios.size() >= MAX_SCENARIO_SERIES) {
+                key = new ScenarioKey(endpoint, OTHER_SCENARIO, outcome);
+            }
+            adder = scenarios.computeIfAbsent(key, this::registerScenario);
+        }
+        adder.increment();
+    }
+
+    /**
+     * Short, stable id of a scenario prompt: the hex {@link String#hashCode()} of the prompt.
+     */
+    public static String scenarioId(String prompt) {
+        return Integer.toHexString(Objects.hashCode(prompt));
+    }
+
+    /**
+     * Counts a chat-tools stage transition: what triggered it and which tool, if any, it calls next.
+     */
+    public void stageTransition(String trigger, String nextToolCall) {
+        String next = nextToolCall == null ? FINAL_RESPONSE : nextToolCall;
+        stages.computeIfAbsent(new StageKey(trigger, next), this::registerStage).increment();
+    }
+
+    /**
+     * Tracks one stream: active gauge, time to first token, inter-token latency and achieved rate.
+     */
+    public <T> Flux<StreamFrame<T>> track(Endpoint endpoint, Flux<StreamFrame<T>> frames) {
+        EndpointMeters meters = endpoints.get(endpoint);
+        return Flux.defer(() -> {
+            StreamClock clock = new StreamClock(System.nanoTime());
+            meters.active.incrementAndGet();
+            return frames
+                    .doOnNext(frame -> clock.onFrame(meters, frame))
+                    .doOnComplete(() -> clock.onComplete(meters))
+                    .doFinally(signal -> {
+                        meters.active.decrementAndGet();
+                        if (signal == SignalType.CANCEL) {
+                            clock.onCancel(meters);
+                        }
+                    });
+        });
+    }
+
+    public int activeStreams(Endpoint endpoint) {
+        return endpoints.get(endpoint).active.get();
+    }
+
+    public long abandonedStreams(Endpoint endpoint) {
+        return endpoints.get(endpoint).abandoned.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        endpoints.forEach((endpoint, meters) -> {
+            meters.timeToFirstToken = Timer.builder("ollama.mock.stream.ttft")
+                    .description("Time from subscription to the first token or tool call chunk")
+                    .tag("endpoint", endpoint.tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            meters.interToken = Timer.builder("ollama.mock.stream.inter.token")
+                    .description("Gap between consecutive chunks divided by the tokens they carry")
+                    .tag("endpoint", endpoint.tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            meters.tokensPerSecond = DistributionSummary.builder("ollama.mock.stream.tokens.per.second")
+                    .description("Achieved token rate of completed streams")
+                    .tag("endpoint", endpoint.tag)
+                    .register(registry);
+            Gauge.builder("ollama.mock.stream.active", meters.active, AtomicInteger::get)
+                    .description("Streams currently being served")
+                    .tag("endpoint", endpoint.tag)
+                    .register(registry);
+            FunctionCounter.builder("ollama.mock.stream.abandoned", meters.abandoned, LongAdder::sum)
+                    .description("Streams cancelled before their done chunk, usually by a client disconnect")
+                    .tag("endpoint", endpoint.tag)
+                    .register(registry);
+            meters.abandonedTokens = DistributionSummary.builder("ollama.mock.stream.abandoned.tokens")
+                    .description("Tokens an abandoned stream had emitted before it was cancelled")
+                    .tag("endpoint", endpoint.tag)
+                    .register(registry);
+        });
+        Gauge.builder("ollama.mock.stream.configured.tokens.per.second", this, StreamMetrics::configuredRate)
+                .description("Token rate implied by ollama.mock.token-delay; 0 when unthrottled")
+                .register(registry);
+        this.registry = registry;
+        scenarios.forEach(this::bindScenario);
+        stages.forEach(this::bindStage);
+    }
+
+    private double configuredRate() {
+        long nanos = tokenDelay.toNanos();
+        return nanos <= 0 ? 0 : (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    private LongAdder registerScenario(ScenarioKey key) {
+        LongAdder adder = new LongAdder();
+        bindScenario(key, adder);
+        return adder;
+    }
+
+    private void bindScenario(ScenarioKey key, LongAdder adder) {
+        MeterRegistry target = registry;
+        if (target != null) {
+            FunctionCounter.builder("ollama.mock.scenario.requests", adder, LongAdder::sum)
+                    .description("Requests resolved against the scenario catalogue")
+                    .tag("endpoint", key.endpoint().tag)
+                    .tag("scenario", key.scenario())
+                    .tag("outcome", key.outcome().name().toLowerCase(Locale.ROOT))
+                    .register(target);
+        }
+    }
+
+    private LongAdder registerStage(StageKey key) {
+        LongAdder adder = new LongAdder();
+        bindStage(key, adder);
+        return adder;
+    }
+
+    private void bindStage(StageKey key, LongAdder adder) {
+        MeterRegistry target = registry;
+        if (target != null) {
+            FunctionCounter.builder("ollama.mock.chat.tools.transitions", adder, LongAdder::sum)
+                    .description("Chat-tools stage transitions by trigger and next tool call")
+                    .tag("trigger", key.trigger())
+                    .tag("next", key.next())
+                    .register(target);
+        }
+    }
+
+    private record ScenarioKey(Endpoint endpoint, String scenario, ScenarioOutcome outcome) {
+    }
+
+    private record StageKey(String trigger, String next) {
+    }
+
+    private static final class EndpointMeters {
+
+        private final AtomicInteger active = new AtomicInteger();
+        private final LongAdder abandoned = new LongAdder();
+        private volatile Timer timeToFirstToken;
+        private volatile Timer interToken;
+        private volatile DistributionSummary tokensPerSecond;
+        private volatile DistributionSummary abandonedTokens;
+    }
+
+    private static final class StreamClock {
+
+        private final long start;
+        private long firstToken;
+        private long lastFrame;
+        private long firstFrameTokens;
+        private volatile long tokens;
+        private volatile boolean done;
+
+        StreamClock(long start) {
+            this.start = start;
+        }
+
+        void onFrame(EndpointMeters meters, StreamFrame<?> frame) {
+            if (frame.isDone()) {
+                done = true;
+                return;
+            }
+            long now = System.nanoTime();
+            if (tokens == 0) {
+                firstToken = now;
+                firstFrameTokens = frame.getTokens();
+                Timer ttft = meters.timeToFirstToken;
+                if (ttft != null) {
+                    ttft.record(now - start, TimeUnit.NANOSECONDS);
+                }
+            } else {
+                Timer interToken = meters.interToken;
+                if (interToken != null) {
+                    interToken.record((now - lastFrame) / Math.max(1, frame.getTokens()), TimeUnit.NANOSECONDS);
+                }
+            }
+            lastFrame = now;
+            tokens += frame.getTokens();
+        }
+
+        void onComplete(EndpointMeters meters) {
+            DistributionSummary rate = meters.tokensPerSecond;
+            long elapsed = lastFrame - firstToken;
+            if (rate != null && tokens > firstFrameTokens && elapsed > 0) {
+                rate.record((tokens - firstFrameTokens) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+            }
+        }
+
+        void onCancel(EndpointMeters meters) {
+            if (done) {
+                return;
+            }
+            meters.abandoned.increment();
+            DistributionSummary abandonedTokens = meters.abandonedTokens;
+            if (abandonedTokens != null) {
+                abandonedTokens.record(tokens);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.awesome.testing.ollama.pacing;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.util.TokenStreamUtils;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Draws the delays streams are paced with, following {@code ollama.mock.latency}. Each stream gets
+ * its own {@link StreamLatency} seeded from the configured seed, the model and the prompt, so a
+ * request sees the same delays on every run regardless of what else is streaming. A request that
+ * overrides its token delay keeps the configured shape: the median moves, and empirical samples are
+ * scaled by the same factor.
+ */
+@Component
+@RequiredArgsConstructor
+public class LatencyModel {
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final OllamaMockProperties properties;
+
+    /**
+     * Delays for a {@code /api/generate} stream.
+     */
+    public StreamLatency open(String model, String prompt) {
+        return open(model, prompt, properties.getTokenDelay());
+    }
+
+    /**
+     * Delays for a {@code /api/generate} stream whose median token gap is {@code tokenDelay} instead
+     * of {@code ollama.mock.token-delay}.
+     */
+    public StreamLatency open(String model, String prompt, Duration tokenDelay) {
+        long hash = hash(hash(FNV_OFFSET, model), prompt);
+        return open(hash, TokenStreamUtils.wordCount(prompt), tokenDelay);
+    }
+
+    /**
+     * Delays for a chat stream; every message counts towards prompt evaluation, including the
+     * content the request decoder counted but did not keep.
+     */
+    public StreamLatency open(String model, List<ChatMessageDto> messages) {
+        return open(model, messages, properties.getTokenDelay());
+    }
+
+    /**
+     * Delays for a chat stream whose median token gap is {@code tokenDelay}.
+     */
+    public StreamLatency open(String model, List<ChatMessageDto> messages, Duration tokenDelay) {
+        long hash = hash(FNV_OFFSET, model);
+        int promptTokens = 0;
+        for (ChatMessageDto message : messages) {
+            hash = hash(hash, message.getContent());
+            promptTokens += message.getContentTokens() != null
+                    ? message.getContentTokens()
+                    : TokenStreamUtils.wordCount(message.getContent());
+        }
+        return open(hash, promptTokens, tokenDelay);
+    }
+
+    private StreamLatency open(long hash, int promptTokens, Duration tokenDelay) {
+        OllamaMockProperties.Latency latency = properties.getLatency();
+        long lead = latency.getPromptEvalPerToken().toNanos() * promptTokens + latency.getFirstTokenDelay().toNanos();
+        return new StreamLatency(
+                gaps(latency, tokenDelay.toNanos()),
+                properties.getToolCallDelay().toNanos(),
+                Math.max(0, lead),
+                new SplittableRandom(latency.getSeed() ^ hash),
+                promptTokens);
+    }
+
+    private Gaps gaps(OllamaMockProperties.Latency latency, long median) {
+        long configured = properties.getTokenDelay().toNanos();
+        double scale = configured > 0 ? (double) median / configured : 1.0;
+        return switch (latency.getDistribution()) {
+            case FIXED -> random -> median;
+            case LOGNORMAL -> {
+                double sigma = latency.getSigma();
+                yield random -> (long) (median * Math.exp(sigma * random.nextGaussian()));
+            }
+            case EMPIRICAL -> {
+                long[] samples = latency.getSamples().stream()
+                        .mapToLong(sample -> (long) (sample.toNanos() * scale))
+                        .sorted()
+                        .toArray();
+                yield samples.length == 0 ? random -> median : random -> quantile(samples, random.nextDouble());
+            }
+        };
+    }
+
+    private static long quantile(long[] sorted, double p) {
+        double position = p * (sorted.length - 1);
+        int lower = (int) position;
+        if (lower + 1 >= sorted.length) {
+            return sorted[lower];
+        }
+        return sorted[lower] + (long) ((sorted[lower + 1] - sorted[lower]) * (position - lower));
+    }
+
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return hash * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    @FunctionalInterface
+    interface Gaps {
+
+        long next(SplittableRandom random);
+    }
+}
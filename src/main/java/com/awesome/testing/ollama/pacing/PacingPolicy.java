@@ -0,0 +1,82 @@
+package com.awesome.testing.ollama.pacing;
+
+import java.time.Duration;
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * How one stream is paced: the token delay it is paced with, or the firehose. The firehose is only
+ * ever requested explicitly; it skips the {@link TokenPacer} stage together with prompt evaluation
+ * and tool-call delays, and the stream is written as fast as the connection drains. A zero token
+ * delay on its own still honours those delays.
+ */
+@Value
+public class PacingPolicy {
+
+    public static final String OPTION_TOKEN_DELAY_MS = "mock_token_delay_ms";
+    public static final String OPTION_TOKENS_PER_SECOND = "mock_tokens_per_second";
+    public static final String OPTION_FIREHOSE = "mock_firehose";
+
+    /**
+     * Longest token delay a request can ask for, so a tiny rate or huge delay cannot stall a stream
+     * for hours.
+     */
+    public static final Duration MAX_TOKEN_DELAY = Duration.ofSeconds(10);
+
+    Duration tokenDelay;
+    boolean firehose;
+
+    /**
+     * Resolves pacing for one request: request {@code options} win over the
+     * {@code X-Ollama-Mock-Token-Delay} header, which wins over {@code ollama.mock.token-delay}.
+     * Negative delays, non-positive rates and non-finite numbers in {@code options} are ignored, and
+     * delays asked for by options or the header are capped at {@link #MAX_TOKEN_DELAY}.
+     *
+     * @param header the header's delay, or {@code null} when it was not sent or asked for the firehose
+     * @param headerFirehose whether the header asked for the firehose
+     */
+    public static PacingPolicy resolve(Duration configured,
+                                       Map<String, Object> options,
+                                       Duration header,
+                                       boolean headerFirehose) {
+        Duration tokenDelay = header != null ? capped(header.toNanos()) : configured;
+        boolean firehose = headerFirehose;
+        if (options != null) {
+            double rate = doubleOption(options.get(OPTION_TOKENS_PER_SECOND));
+            double millis = doubleOption(options.get(OPTION_TOKEN_DELAY_MS));
+            if (rate > 0) {
+                tokenDelay = capped(1_000_000_000L / rate);
+                firehose = false;
+            } else if (millis >= 0) {
+                tokenDelay = capped(millis * 1_000_000L);
+                firehose = false;
+            }
+            if (isTrue(options.get(OPTION_FIREHOSE))) {
+                firehose = true;
+            }
+        }
+        return new PacingPolicy(firehose ? Duration.ZERO : tokenDelay, firehose);
+    }
+
+    private static Duration capped(double nanos) {
+        return Duration.ofNanos((long) Math.min(nanos, MAX_TOKEN_DELAY.toNanos()));
+    }
+
+    private static double doubleOption(Object value) {
+        double number = -1;
+        if (value instanceof Number numeric) {
+            number = numeric.doubleValue();
+        } else if (value instanceof String text) {
+            try {
+                number = Double.parseDouble(text.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return Double.isFinite(number) ? number : -1;
+    }
+
+    private static boolean isTrue(Object value) {
+        return Boolean.TRUE.equals(value) || (value instanceof String text && Boolean.parseBoolean(text.trim()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.awesome.testing.ollama.pacing;
+
+import com.awesome.testing.ollama.stream.StreamFrame;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Delays for one stream, handed to {@link TokenPacer#pace} as its delay function. The first chunk
+ * additionally waits for prompt evaluation and the first-token delay; a chunk of coalesced tokens
+ * waits for the sum of their gaps; tool calls wait {@code tool-call-delay}; the done chunk follows
+ * immediately. Not thread-safe: the pacer asks for one delay at a time.
+ */
+public final class StreamLatency {
+
+    private final LatencyModel.Gaps gaps;
+    private final long toolCallDelay;
+    private final SplittableRandom random;
+    private final int promptTokens;
+    private long lead;
+
+    StreamLatency(LatencyModel.Gaps gaps, long toolCallDelay, long lead, SplittableRandom random, int promptTokens) {
+        this.gaps = gaps;
+        this.toolCallDelay = toolCallDelay;
+        this.lead = lead;
+        this.random = random;
+        this.promptTokens = promptTokens;
+    }
+
+    /**
+     * Prompt size in words, as used for the prompt evaluation delay.
+     */
+    public int promptTokens() {
+        return promptTokens;
+    }
+
+    public Duration delay(StreamFrame<?> frame) {
+        long delay = switch (frame.getKind()) {
+            case DONE -> 0;
+            case TOOL_CALL -> toolCallDelay;
+            case TOKEN -> tokens(frame.getTokens());
+        };
+        if (!frame.isDone()) {
+            delay += lead;
+            lead = 0;
+        }
+        return Duration.ofNanos(delay);
+    }
+
+    private long tokens(int count) {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += Math.max(0, gaps.next(random));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,158 @@
+package com.awesome.testing.ollama.pacing;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Paces streamed chunks for all active streams from a single hashed timer wheel. Instead of one
+ * scheduler task per token, every chunk due on a tick is fired by the wheel thread on that tick, so
+ * inter-token jitter is bounded by {@code ollama.mock.pacing.tick-duration}. The wheel thread only
+ * fires: each chunk is handed to {@link Schedulers#parallel()}, which runs the downstream encoding,
+ * metrics, logging and write handoff, so a slow subscriber cannot hold up another stream's tick.
+ *
+ * <p>Each stream keeps its own ideal timeline (previous deadline plus the next delay), so timer lag
+ * does not accumulate into drift over long scenarios. A stream that stalls for longer than one
+ * interval restarts its timeline instead of bursting the missed tokens.
+ *
+ * <p>A chunk is only scheduled once downstream asks for it, and at most
+ * {@code ollama.mock.pacing.prefetch} chunks are built ahead of it. When a client stops reading, the
+ * connection stops asking and the stream stops pacing; when it disconnects, the pending timeout is
+ * cancelled and leaves the wheel on its next tick.
+ */
+@Slf4j
+@Component
+public class TokenPacer implements MeterBinder, DisposableBean {
+
+    private final HashedWheelTimer timer;
+    private final Scheduler emitter = Schedulers.parallel();
+    private final int prefetch;
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private volatile Timer lag;
+
+    public TokenPacer(OllamaMockProperties properties) {
+        OllamaMockProperties.Pacing pacing = properties.getPacing();
+        this.timer = new HashedWheelTimer(
+                new DefaultThreadFactory("token-pacer", true),
+                Math.max(1, pacing.getTickDuration().toNanos()),
+                TimeUnit.NANOSECONDS,
+                pacing.getTicksPerWheel());
+        this.prefetch = Math.max(1, pacing.getPrefetch());
+    }
+
+    /**
+     * Emits {@code chunks} in order, holding each one back for the delay returned by {@code delayFor}.
+     * Zero or negative delays are emitted immediately without touching the timer wheel.
+     */
+    public <T> Flux<T> pace(Flux<T> chunks, Function<T, Duration> delayFor) {
+        return Flux.defer(() -> {
+            StreamTimeline timeline = new StreamTimeline();
+            return chunks.concatMap(chunk -> {
+                long delay = delayFor.apply(chunk).toNanos();
+                if (delay <= 0) {
+                    return Mono.just(chunk);
+                }
+                long now = System.nanoTime();
+                long deadline = timeline.next(now, delay);
+                if (deadline - now <= 0) {
+                    return Mono.just(chunk);
+                }
+                return Mono.<T>create(sink -> schedule(sink, chunk, deadline, deadline - now));
+            }, prefetch);
+        });
+    }
+
+    /**
+     * Paces {@code chunks} with the request's {@link PacingPolicy}; a firehose stream is returned as
+     * is, without the per-chunk stage.
+     */
+    public <T> Flux<T> pace(Flux<T> chunks, PacingPolicy pacing, Function<T, Duration> delayFor) {
+        return pacing.isFirehose() ? chunks : pace(chunks, delayFor);
+    }
+
+    /**
+     * Timeouts currently waiting on the wheel.
+     */
+    public long pendingTimeouts() {
+        return timer.pendingTimeouts();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        lag = Timer.builder("ollama.mock.pacing.lag")
+                .description("Delay between a chunk's scheduled emission time and its actual emission")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("ollama.mock.pacing.pending", this, TokenPacer::pendingTimeouts)
+                .description("Chunks currently waiting on the pacing wheel")
+                .register(registry);
+        FunctionCounter.builder("ollama.mock.pacing.scheduled", scheduled, LongAdder::sum)
+                .description("Chunks scheduled on the pacing wheel")
+                .register(registry);
+        FunctionCounter.builder("ollama.mock.pacing.cancelled", cancelled, LongAdder::sum)
+                .description("Scheduled chunks dropped because their stream was cancelled")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        int unprocessed = timer.stop().size();
+        if (unprocessed > 0) {
+            log.info("Token pacer stopped with {} pending chunk(s)", unprocessed);
+        }
+    }
+
+    private <T> void schedule(MonoSink<T> sink, T chunk, long deadline, long delay) {
+        scheduled.increment();
+        Timeout timeout = timer.newTimeout(ignored -> emitter.schedule(() -> emit(sink, chunk, deadline)),
+                delay, TimeUnit.NANOSECONDS);
+        sink.onCancel(() -> {
+            if (timeout.cancel()) {
+                cancelled.increment();
+            }
+        });
+    }
+
+    private <T> void emit(MonoSink<T> sink, T chunk, long deadline) {
+        Timer lagTimer = lag;
+        if (lagTimer != null) {
+            lagTimer.record(Math.max(0, System.nanoTime() - deadline), TimeUnit.NANOSECONDS);
+        }
+        sink.success(chunk);
+    }
+
+    private static final class StreamTimeline {
+
+        private long lastDeadline;
+        private boolean started;
+
+        long next(long now, long delay) {
+            long deadline = started ? lastDeadline + delay : now + delay;
+            if (now - deadline > delay) {
+                deadline = now;
+            }
+            started = true;
+            lastDeadline = deadline;
+            return deadline;
+        }
+    }
+}
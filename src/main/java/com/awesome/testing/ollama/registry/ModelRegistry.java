@@ -0,0 +1,229 @@
+package com.awesome.testing.ollama.registry;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.ModelDetailsDto;
+import com.awesome.testing.ollama.dto.ModelListDto;
+import com.awesome.testing.ollama.dto.ModelSummaryDto;
+import com.awesome.testing.ollama.dto.ShowModelResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Models the mock claims to have, from {@code ollama.mock.models}. Each change builds an immutable
+ * snapshot with the {@code /api/tags}, {@code /api/ps}, {@code /api/version} and per-model
+ * {@code /api/show} bodies already serialized, each with a strong ETag derived from its bytes, so a
+ * health-check poll costs a header comparison and a buffer wrap. Bodies only change when
+ * {@link #replace} is called.
+ */
+@Slf4j
+@Component
+public class ModelRegistry {
+
+    private static final String LATEST = ":latest";
+    private static final String NEVER_EXPIRES = "2318-01-01T00:00:00Z";
+
+    private final ObjectMapper objectMapper;
+    private final OllamaMockProperties properties;
+
+    private volatile Snapshot snapshot;
+
+    public ModelRegistry(OllamaMockProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        replace(properties.getModels().isEmpty() ? defaults(properties.getDefaultModel()) : properties.getModels());
+    }
+
+    /**
+     * Replaces the registered models and re-serializes every response.
+     */
+    public synchronized void replace(List<OllamaMockProperties.Model> models) {
+        Map<String, OllamaMockProperties.Model> byName = new LinkedHashMap<>();
+        for (OllamaMockProperties.Model model : models) {
+            if (!StringUtils.hasText(model.getName())) {
+                throw new IllegalArgumentException("Every ollama.mock.models entry needs a name");
+            }
+            if (byName.putIfAbsent(model.getName(), model) != null) {
+                throw new IllegalArgumentException("Model " + model.getName() + " is registered twice");
+            }
+        }
+        Map<String, PreparedJson> show = new LinkedHashMap<>();
+        byName.forEach((name, model) -> show.put(name, prepare(showResponse(model))));
+        List<OllamaMockProperties.Model> registered = List.copyOf(byName.values());
+        snapshot = new Snapshot(
+                registered,
+                byName,
+                prepare(new ModelListDto(registered.stream().map(this::summary).toList())),
+                prepare(new ModelListDto(registered.stream()
+                        .filter(OllamaMockProperties.Model::isLoaded)
+                        .map(this::running)
+                        .toList())),
+                prepare(Map.of(
+                        "version", properties.getVersion(),
+                        "mockModel", properties.getDefaultModel(),
+                        "timestamp", OffsetDateTime.now().toString())),
+                show);
+        log.info("Model registry: {}", byName.keySet());
+    }
+
+    public List<OllamaMockProperties.Model> models() {
+        return snapshot.models();
+    }
+
+    /**
+     * Looks a model up by name, treating a missing tag as {@code :latest}.
+     */
+    public Optional<OllamaMockProperties.Model> find(String name) {
+        return Optional.ofNullable(resolve(snapshot.byName(), name));
+    }
+
+    public PreparedJson tags() {
+        return snapshot.tags();
+    }
+
+    public PreparedJson ps() {
+        return snapshot.ps();
+    }
+
+    public PreparedJson version() {
+        return snapshot.version();
+    }
+
+    public Optional<PreparedJson> show(String name) {
+        Snapshot current = snapshot;
+        OllamaMockProperties.Model model = resolve(current.byName(), name);
+        return model == null ? Optional.empty() : Optional.of(current.show().get(model.getName()));
+    }
+
+    private static <T> T resolve(Map<String, T> byName, String name) {
+        if (name == null) {
+            return null;
+        }
+        T match = byName.get(name);
+        return match != null || name.contains(":") ? match : byName.get(name + LATEST);
+    }
+
+    private ModelSummaryDto summary(OllamaMockProperties.Model model) {
+        return ModelSummaryDto.builder()
+                .name(model.getName())
+                .model(model.getName())
+                .modifiedAt(model.getModifiedAt())
+                .size(model.getSize().toBytes())
+                .digest(digest(model))
+                .details(details(model))
+                .build();
+    }
+
+    private ModelSummaryDto running(OllamaMockProperties.Model model) {
+        ModelSummaryDto summary = summary(model);
+        summary.setModifiedAt(null);
+        summary.setExpiresAt(NEVER_EXPIRES);
+        summary.setSizeVram(model.getSize().toBytes());
+        return summary;
+    }
+
+    private ShowModelResponseDto showResponse(OllamaMockProperties.Model model) {
+        Map<String, Object> modelInfo = new LinkedHashMap<>();
+        modelInfo.put("general.architecture", model.getFamily());
+        modelInfo.put("general.file_type", model.getQuantizationLevel());
+        modelInfo.put(model.getFamily() + ".context_length", model.getContextLength());
+        return ShowModelResponseDto.builder()
+                .modelfile("# Modelfile generated by ollama-mock\nFROM " + model.getName() + "\n")
+                .parameters("")
+                .template("{{ .Prompt }}")
+                .details(details(model))
+                .modelInfo(modelInfo)
+                .capabilities(List.copyOf(model.getCapabilities()))
+                .modifiedAt(model.getModifiedAt())
+                .build();
+    }
+
+    private static ModelDetailsDto details(OllamaMockProperties.Model model) {
+        return ModelDetailsDto.builder()
+                .parentModel("")
+                .format(model.getFormat())
+                .family(model.getFamily())
+                .families(List.of(model.getFamily()))
+                .parameterSize(model.getParameterSize())
+                .quantizationLevel(model.getQuantizationLevel())
+                .build();
+    }
+
+    private static String digest(OllamaMockProperties.Model model) {
+        return StringUtils.hasText(model.getDigest())
+                ? model.getDigest()
+                : sha256(model.getName().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PreparedJson prepare(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            return new PreparedJson(body, "\"" + sha256(body).substring(0, 32) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize model registry response", e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<OllamaMockProperties.Model> defaults(String defaultModel) {
+        OllamaMockProperties.Model chat = new OllamaMockProperties.Model();
+        chat.setName(defaultModel);
+        chat.getCapabilities().addAll(List.of("tools", "thinking"));
+        OllamaMockProperties.Model embedding = new OllamaMockProperties.Model();
+        embedding.setName("nomic-embed-text:latest");
+        embedding.setSize(DataSize.ofMegabytes(274));
+        embedding.setFamily("nomic-bert");
+        embedding.setParameterSize("137M");
+        embedding.setQuantizationLevel("F16");
+        embedding.setContextLength(2048);
+        embedding.setCapabilities(List.of("embedding"));
+        embedding.setLoaded(false);
+        return defaultModel.equals(embedding.getName()) ? List.of(chat) : List.of(chat, embedding);
+    }
+
+    /**
+     * A serialized response body and its strong ETag (quoted).
+     */
+    public record PreparedJson(byte[] body, String etag) {
+
+        /**
+         * Whether an {@code If-None-Match} header lists this representation.
+         */
+        public boolean matches(List<String> ifNoneMatch) {
+            for (String candidate : ifNoneMatch) {
+                String tag = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+                if ("*".equals(tag) || etag.equals(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Snapshot(List<OllamaMockProperties.Model> models,
+                            Map<String, OllamaMockProperties.Model> byName,
+                            PreparedJson tags,
+                            PreparedJson ps,
+                            PreparedJson version,
+                            Map<String, PreparedJson> show) {
+    }
+}
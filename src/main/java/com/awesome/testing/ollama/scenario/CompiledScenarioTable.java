@@ -0,0 +1,52 @@
+package com.awesome.testing.ollama.scenario;
+
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Scenario file compiled into Java constants at build time (see {@code ScenarioTableGenerator}), so
+ * bundled scenarios load without parsing JSON. Implementations live in
+ * {@value #GENERATED_PACKAGE} and are named after the scenario file, e.g.
+ * {@code generate-scenarios.json} becomes {@code GenerateScenariosTable}.
+ */
+public interface CompiledScenarioTable<P> {
+
+    String GENERATED_PACKAGE = "com.awesome.testing.ollama.scenario.generated";
+
+    /**
+     * CRC-32 of the scenario file the table was generated from; a table whose checksum no longer
+     * matches the bundled file is ignored.
+     */
+    long sourceChecksum();
+
+    /**
+     * Prompts as written in the scenario file, in file order.
+     */
+    List<String> prompts();
+
+    /**
+     * Compiled plans, in the same order as {@link #prompts()}.
+     */
+    List<P> plans();
+
+    static String className(String fileName) {
+        String baseName = fileName.endsWith(".json") ? fileName.substring(0, fileName.length() - 5) : fileName;
+        StringBuilder name = new StringBuilder(GENERATED_PACKAGE).append('.');
+        boolean upper = true;
+        for (char c : baseName.toCharArray()) {
+            if (!Character.isLetterOrDigit(c)) {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.append("Table").toString();
+    }
+
+    static long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,200 @@
+package com.awesome.testing.ollama.scenario;
+
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Remembers, per conversation, which scenario the history resolved to, so a new turn does not
+ * normalize and look up every earlier user message again.
+ *
+ * <p>A conversation is identified by the {@code X-Ollama-Mock-Conversation} header when present,
+ * otherwise by a fingerprint of its first user message. A session keyed by the header is trusted to
+ * belong to the history: it is reused when the last message it scanned is still in place, checked
+ * against a hash of its role, tool name and content, so a turn costs one message plus the new ones. A
+ * session keyed by a fingerprint may be shared by another conversation with the same first message, so
+ * it is only reused when the whole history still starts with the messages it was built from. Only the
+ * new messages are then scanned, for the scenario if it has not matched yet and for tool results.
+ * Sessions resolved against an index that has since been reloaded, or whose history no longer
+ * continues the same way, are resolved from scratch. The least recently used sessions are evicted
+ * beyond {@code ollama.mock.scenarios.session-cache-size}.
+ */
+public final class ConversationSessions<P> {
+
+    private final int capacity;
+    private final Map<Object, Session<P>> sessions;
+
+    public ConversationSessions(int capacity) {
+        this.capacity = capacity;
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Session<P>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * The scenario of the first user message in {@code messages} that has one.
+     */
+    public Optional<P> resolve(String conversationId, List<ChatMessageDto> messages, ScenarioIndex<P> index) {
+        return open(conversationId, messages, index).plan();
+    }
+
+    /**
+     * Like {@link #resolve}, together with how many results each tool has returned so far in
+     * {@code messages}; both are kept on the session, so a later turn only counts its new messages.
+     */
+    public Conversation<P> open(String conversationId, List<ChatMessageDto> messages, ScenarioIndex<P> index) {
+        if (CollectionUtils.isEmpty(messages)) {
+            return Conversation.empty();
+        }
+        if (capacity <= 0) {
+            return scan(messages, Session.start(index), index).conversation();
+        }
+        boolean trusted = StringUtils.hasText(conversationId);
+        Object key = trusted ? conversationId : Fingerprint.of(messages);
+        if (key == null) {
+            return Conversation.empty();
+        }
+        Session<P> session;
+        synchronized (sessions) {
+            session = sessions.get(key);
+        }
+        boolean resumes = session != null && session.index() == index && session.continues(messages, trusted);
+        if (resumes && session.scanned() == messages.size()) {
+            return session.conversation();
+        }
+        Session<P> resolved = scan(messages, resumes ? session : Session.start(index), index);
+        synchronized (sessions) {
+            sessions.put(key, resolved);
+        }
+        return resolved.conversation();
+    }
+
+    private static <P> Session<P> scan(List<ChatMessageDto> messages, Session<P> from, ScenarioIndex<P> index) {
+        Optional<P> plan = from.conversation().plan();
+        Map<String, Integer> toolResults = from.conversation().toolResultCounts();
+        long hash = from.prefixHash();
+        long lastHash = from.lastHash();
+        for (int i = from.scanned(); i < messages.size(); i++) {
+            ChatMessageDto message = messages.get(i);
+            lastHash = PrefixHash.add(PrefixHash.EMPTY, message);
+            hash = PrefixHash.add(hash, message);
+            if (plan.isEmpty() && isUserPrompt(message)) {
+                plan = index.match(message.getContent());
+            }
+            if (isToolResult(message)) {
+                if (toolResults == from.conversation().toolResultCounts()) {
+                    toolResults = new HashMap<>(toolResults);
+                }
+                toolResults.merge(message.getToolName().toLowerCase(Locale.ROOT), 1, Integer::sum);
+            }
+        }
+        return new Session<>(index, new Conversation<>(plan, toolResults), messages.size(), hash, lastHash);
+    }
+
+    private static boolean isUserPrompt(ChatMessageDto message) {
+        return "user".equalsIgnoreCase(message.getRole()) && StringUtils.hasText(message.getContent());
+    }
+
+    private static boolean isToolResult(ChatMessageDto message) {
+        return "tool".equalsIgnoreCase(message.getRole()) && message.getToolName() != null;
+    }
+
+    /**
+     * What a history resolved to: its scenario and the number of results per tool name.
+     */
+    public record Conversation<P>(Optional<P> plan, Map<String, Integer> toolResultCounts) {
+
+        static <P> Conversation<P> empty() {
+            return new Conversation<>(Optional.empty(), Map.of());
+        }
+
+        /**
+         * Results returned so far by {@code toolName}, compared ignoring case.
+         */
+        public int toolResults(String toolName) {
+            return toolName == null ? 0 : toolResultCounts.getOrDefault(toolName.toLowerCase(Locale.ROOT), 0);
+        }
+    }
+
+    private record Session<P>(ScenarioIndex<P> index, Conversation<P> conversation, int scanned, long prefixHash,
+                              long lastHash) {
+
+        static <P> Session<P> start(ScenarioIndex<P> index) {
+            return new Session<>(index, Conversation.empty(), 0, PrefixHash.EMPTY, PrefixHash.EMPTY);
+        }
+
+        /**
+         * Whether {@code messages} extends the scanned history: by its last scanned message when the
+         * session is {@code trusted} to belong to the conversation, by the whole scanned prefix otherwise.
+         */
+        boolean continues(List<ChatMessageDto> messages, boolean trusted) {
+            if (messages.size() < scanned) {
+                return false;
+            }
+            if (trusted) {
+                return scanned == 0 || PrefixHash.add(PrefixHash.EMPTY, messages.get(scanned - 1)) == lastHash;
+            }
+            long hash = PrefixHash.EMPTY;
+            for (int i = 0; i < scanned; i++) {
+                hash = PrefixHash.add(hash, messages.get(i));
+            }
+            return hash == prefixHash;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the role, tool name and content hash codes of a run of messages.
+     */
+    private static final class PrefixHash {
+
+        static final long EMPTY = 0xCBF29CE484222325L;
+        private static final long PRIME = 0x100000001B3L;
+
+        static long add(long hash, ChatMessageDto message) {
+            hash = (hash ^ Objects.hashCode(message.getRole())) * PRIME;
+            hash = (hash ^ Objects.hashCode(message.getToolName())) * PRIME;
+            return (hash ^ Objects.hashCode(message.getContent())) * PRIME;
+        }
+    }
+
+    /**
+     * Position, length and the hash of at most 64 characters from each end of the first user message;
+     * cheap to compute however large the prompt is.
+     */
+    private record Fingerprint(int position, int length, int head, int tail) {
+
+        private static final int SAMPLE = 64;
+
+        static Fingerprint of(List<ChatMessageDto> messages) {
+            for (int i = 0; i < messages.size(); i++) {
+                ChatMessageDto message = messages.get(i);
+                if ("user".equalsIgnoreCase(message.getRole()) && message.getContent() != null) {
+                    String content = message.getContent();
+                    int length = content.length();
+                    return new Fingerprint(i, length,
+                            hash(content, 0, Math.min(length, SAMPLE)),
+                            hash(content, Math.max(0, length - SAMPLE), length));
+                }
+            }
+            return null;
+        }
+
+        private static int hash(String content, int from, int to) {
+            int hash = 1;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + content.charAt(i);
+            }
+            return hash;
+        }
+    }
+}
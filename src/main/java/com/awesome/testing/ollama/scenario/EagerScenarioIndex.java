@@ -0,0 +1,36 @@
+package com.awesome.testing.ollama.scenario;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Every scenario compiled up front and kept on heap; the default for the bundled scenario files.
+ */
+final class EagerScenarioIndex<P> implements ScenarioIndex<P> {
+
+    private final Map<String, P> plans;
+    private final List<String> supportedPrompts;
+    private final PromptMatcher matcher;
+
+    EagerScenarioIndex(Map<String, P> plans, List<String> supportedPrompts, PromptMatcher matcher) {
+        this.plans = Map.copyOf(plans);
+        this.supportedPrompts = List.copyOf(supportedPrompts);
+        this.matcher = matcher;
+    }
+
+    @Override
+    public Optional<P> find(String normalizedPrompt) {
+        return Optional.ofNullable(plans.get(normalizedPrompt));
+    }
+
+    @Override
+    public List<String> supportedPrompts() {
+        return supportedPrompts;
+    }
+
+    @Override
+    public PromptMatcher matcher() {
+        return matcher;
+    }
+}
@@ -0,0 +1,31 @@
+package com.awesome.testing.ollama.scenario;
+
+import java.util.Arrays;
+
+/**
+ * Growable {@code int[]} used while indexing scenario files, avoiding boxed lists.
+ */
+final class IntArrayBuilder {
+
+    private int[] values;
+    private int size;
+
+    IntArrayBuilder() {
+        this(64);
+    }
+
+    IntArrayBuilder(int capacity) {
+        this.values = new int[Math.max(1, capacity)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,99 @@
+package com.awesome.testing.ollama.scenario;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Scenario corpus that keeps only prompts and byte ranges on heap. The scenario JSON stays in a
+ * (usually memory-mapped) buffer and a scenario is decoded and compiled when it is first requested;
+ * the most recently used plans are kept in a bounded LRU.
+ */
+final class MappedScenarioIndex<D, P> implements ScenarioIndex<P> {
+
+    private final ObjectMapper objectMapper;
+    private final ByteBuffer corpus;
+    private final Class<D> definitionType;
+    private final Function<D, P> compiler;
+    private final Map<String, Integer> slots;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final List<String> supportedPrompts;
+    private final PromptMatcher matcher;
+    private final Map<String, P> hot;
+
+    MappedScenarioIndex(ObjectMapper objectMapper,
+                        ByteBuffer corpus,
+                        Class<D> definitionType,
+                        Function<D, P> compiler,
+                        List<String> prompts,
+                        int[] offsets,
+                        int[] lengths,
+                        int cacheSize,
+                        PromptMatcher matcher) {
+        this.objectMapper = objectMapper;
+        this.corpus = corpus;
+        this.definitionType = definitionType;
+        this.compiler = compiler;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.supportedPrompts = List.copyOf(prompts);
+        this.matcher = matcher;
+        Map<String, Integer> index = new LinkedHashMap<>();
+        for (int i = 0; i < prompts.size(); i++) {
+            index.put(ScenarioIndex.normalize(prompts.get(i)), i);
+        }
+        this.slots = Map.copyOf(index);
+        this.hot = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, P> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public Optional<P> find(String normalizedPrompt) {
+        Integer slot = slots.get(normalizedPrompt);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        synchronized (hot) {
+            P cached = hot.get(normalizedPrompt);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        P plan = compiler.apply(decode(slot));
+        synchronized (hot) {
+            hot.put(normalizedPrompt, plan);
+        }
+        return Optional.of(plan);
+    }
+
+    @Override
+    public List<String> supportedPrompts() {
+        return supportedPrompts;
+    }
+
+    @Override
+    public PromptMatcher matcher() {
+        return matcher;
+    }
+
+    private D decode(int slot) {
+        ByteBuffer slice = corpus.slice(offsets[slot], lengths[slot]);
+        try {
+            return objectMapper.readValue(new ByteBufferBackedInputStream(slice), definitionType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode scenario '" + supportedPrompts.get(slot) + "'", e);
+        }
+    }
+}
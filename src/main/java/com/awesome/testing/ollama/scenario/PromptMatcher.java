@@ -0,0 +1,249 @@
+package com.awesome.testing.ollama.scenario;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Approximate prompt lookup over a character trigram inverted index.
+ *
+ * <p>Prompts are folded to lowercase letters and digits separated by single spaces, so punctuation,
+ * repeated whitespace and trailing newlines do not matter, and scored by the Dice coefficient of
+ * their trigram sets. A query walks its rarest trigrams first and scores at most
+ * {@code max-candidates} prompts, which keeps lookups bounded regardless of corpus size.
+ */
+public final class PromptMatcher {
+
+    private static final long[] NO_GRAMS = new long[0];
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final List<String> prompts;
+    private final Map<Long, int[]> postings;
+    private final int[] gramCounts;
+    private final double threshold;
+    private final int maxCandidates;
+    private final int suggestions;
+
+    private PromptMatcher(List<String> prompts, double threshold, int maxCandidates, int suggestions) {
+        this.prompts = List.copyOf(prompts);
+        this.threshold = threshold;
+        this.maxCandidates = Math.max(1, maxCandidates);
+        this.suggestions = Math.max(0, suggestions);
+        this.gramCounts = new int[prompts.size()];
+        Map<Long, IntArrayBuilder> builders = new HashMap<>();
+        for (int slot = 0; slot < prompts.size(); slot++) {
+            long[] grams = grams(prompts.get(slot));
+            gramCounts[slot] = grams.length;
+            for (long gram : grams) {
+                builders.computeIfAbsent(gram, ignored -> new IntArrayBuilder(4)).add(slot);
+            }
+        }
+        Map<Long, int[]> index = new HashMap<>(builders.size() * 2);
+        builders.forEach((gram, slots) -> index.put(gram, slots.toArray()));
+        this.postings = index;
+    }
+
+    public static PromptMatcher of(List<String> prompts, OllamaMockProperties.Matching matching) {
+        return new PromptMatcher(prompts, matching.getThreshold(), matching.getMaxCandidates(),
+                matching.getSuggestions());
+    }
+
+    /**
+     * The scenario prompt most similar to {@code prompt}, as written in the scenario file, when fuzzy
+     * matching is enabled and the similarity reaches the configured threshold.
+     */
+    public Optional<String> closest(String prompt) {
+        if (threshold <= 0 || prompt == null) {
+            return Optional.empty();
+        }
+        int[] ranked = rank(grams(prompt), 1, threshold);
+        return ranked.length == 0 ? Optional.empty() : Optional.of(prompts.get(ranked[0]));
+    }
+
+    /**
+     * Up to {@code suggestions} prompts, nearest to {@code prompt} first, topped up in file order when
+     * fewer prompts share a trigram with it.
+     */
+    public List<String> nearest(String prompt) {
+        int limit = Math.min(suggestions, prompts.size());
+        int[] ranked = prompt == null ? NO_POSTINGS : rank(grams(prompt), limit, 0);
+        List<String> nearest = new ArrayList<>(limit);
+        for (int slot : ranked) {
+            nearest.add(prompts.get(slot));
+        }
+        for (int slot = 0; nearest.size() < limit; slot++) {
+            if (!contains(ranked, slot)) {
+                nearest.add(prompts.get(slot));
+            }
+        }
+        return nearest;
+    }
+
+    private int[] rank(long[] queryGrams, int limit, double minScore) {
+        if (queryGrams.length == 0 || limit == 0) {
+            return NO_POSTINGS;
+        }
+        int[][] lists = new int[queryGrams.length][];
+        for (int i = 0; i < queryGrams.length; i++) {
+            lists[i] = postings.getOrDefault(queryGrams[i], NO_POSTINGS);
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        int minGrams = 0;
+        int maxGrams = Integer.MAX_VALUE;
+        if (minScore > 0) {
+            minGrams = (int) Math.ceil(queryGrams.length * minScore / (2 - minScore));
+            maxGrams = (int) Math.floor(queryGrams.length * (2 - minScore) / minScore);
+        }
+        Candidates candidates = new Candidates(maxCandidates);
+        for (int[] slots : lists) {
+            if (candidates.isFull() && slots.length > candidates.size()) {
+                candidates.incrementPresentIn(slots);
+                continue;
+            }
+            for (int slot : slots) {
+                int grams = gramCounts[slot];
+                if (grams >= minGrams && grams <= maxGrams) {
+                    candidates.increment(slot);
+                }
+            }
+        }
+        return candidates.top(limit, queryGrams.length, gramCounts, minScore);
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Distinct trigrams of the folded prompt padded with a space on both sides, each packed into a
+     * {@code long}, in ascending order.
+     */
+    static long[] grams(String prompt) {
+        String folded = fold(prompt);
+        if (folded.isEmpty()) {
+            return NO_GRAMS;
+        }
+        String padded = " " + folded + " ";
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    static String fold(String prompt) {
+        StringBuilder folded = new StringBuilder(prompt.length());
+        boolean gap = false;
+        for (int i = 0; i < prompt.length(); i++) {
+            char c = prompt.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (gap && !folded.isEmpty()) {
+                    folded.append(' ');
+                }
+                folded.append(Character.toLowerCase(c));
+                gap = false;
+            } else {
+                gap = true;
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Shared-trigram counts for a bounded set of prompt slots (open addressing, no boxing).
+     */
+    private static final class Candidates {
+
+        private final int capacity;
+        private final int[] slots;
+        private final int[] counts;
+        private final int[] order;
+        private int size;
+
+        Candidates(int capacity) {
+            this.capacity = capacity;
+            int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+            this.slots = new int[tableSize];
+            this.counts = new int[tableSize];
+            this.order = new int[capacity];
+        }
+
+        boolean isFull() {
+            return size == capacity;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void increment(int slot) {
+            int mask = slots.length - 1;
+            int i = (slot * 0x9E3779B9) & mask;
+            while (slots[i] != 0) {
+                if (slots[i] == slot + 1) {
+                    counts[i]++;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            if (size < capacity) {
+                slots[i] = slot + 1;
+                counts[i] = 1;
+                order[size++] = i;
+            }
+        }
+
+        /**
+         * Once the set is full only known candidates can gain score, so probing each of them in a long
+         * posting list is cheaper than walking the list.
+         */
+        void incrementPresentIn(int[] postings) {
+            for (int k = 0; k < size; k++) {
+                int i = order[k];
+                if (Arrays.binarySearch(postings, slots[i] - 1) >= 0) {
+                    counts[i]++;
+                }
+            }
+        }
+
+        int[] top(int limit, int queryGrams, int[] gramCounts, double minScore) {
+            int[] ranked = new int[size];
+            double[] scores = new double[size];
+            int kept = 0;
+            for (int k = 0; k < size; k++) {
+                int i = order[k];
+                int slot = slots[i] - 1;
+                double score = 2.0 * counts[i] / (queryGrams + gramCounts[slot]);
+                if (score >= minScore) {
+                    int pos = kept++;
+                    while (pos > 0 && (scores[pos - 1] < score
+                            || (scores[pos - 1] == score && ranked[pos - 1] > slot))) {
+                        scores[pos] = scores[pos - 1];
+                        ranked[pos] = ranked[pos - 1];
+                        pos--;
+                    }
+                    scores[pos] = score;
+                    ranked[pos] = slot;
+                }
+            }
+            return Arrays.copyOf(ranked, Math.min(kept, limit));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.awesome.testing.ollama.scenario;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Immutable lookup of compiled scenario plans by normalized prompt.
+ */
+public interface ScenarioIndex<P> {
+
+    Optional<P> find(String normalizedPrompt);
+
+    /**
+     * Prompts as written in the scenario file, in file order.
+     */
+    List<String> supportedPrompts();
+
+    PromptMatcher matcher();
+
+    /**
+     * Exact lookup by normalized prompt, falling back to the closest prompt when approximate matching
+     * is enabled.
+     */
+    default Optional<P> match(String prompt) {
+        Optional<P> exact = find(normalize(prompt));
+        if (exact.isPresent()) {
+            return exact;
+        }
+        return matcher().closest(prompt).flatMap(closest -> find(normalize(closest)));
+    }
+
+    static String normalize(String prompt) {
+        return prompt.trim().toLowerCase(Locale.ROOT);
+    }
+}
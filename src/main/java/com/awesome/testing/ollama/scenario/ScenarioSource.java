@@ -0,0 +1,363 @@
+package com.awesome.testing.ollama.scenario;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolves and parses scenario files, and notifies repositories when they change.
+ *
+ * <p>A file present in {@code ollama.mock.scenarios.directory} wins over the bundled classpath copy.
+ * The directory is watched by a single daemon thread; after a change settles for
+ * {@code reload-debounce} the registered reload callbacks run on that thread, so request threads
+ * never parse JSON.
+ */
+@Slf4j
+@Component
+public class ScenarioSource implements DisposableBean {
+
+    private static final String CLASSPATH_DIRECTORY = "scenarios/";
+
+    private final Path directory;
+    private final Duration debounce;
+    private final boolean lazy;
+    private final int cacheSize;
+    private final OllamaMockProperties.Matching matching;
+    private final int sessionCacheSize;
+    private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+    private WatchService watchService;
+
+    @Autowired
+    public ScenarioSource(OllamaMockProperties properties) {
+        OllamaMockProperties.Scenarios scenarios = properties.getScenarios();
+        this.directory = scenarios.getDirectory();
+        this.debounce = scenarios.getReloadDebounce();
+        this.lazy = scenarios.isLazy();
+        this.cacheSize = scenarios.getCacheSize();
+        this.matching = scenarios.getMatching();
+        this.sessionCacheSize = scenarios.getSessionCacheSize();
+    }
+
+    /**
+     * Bundled scenarios only, without watching; for tests and benchmarks.
+     */
+    public static ScenarioSource classpath() {
+        return new ScenarioSource(new OllamaMockProperties());
+    }
+
+    /**
+     * Reads the {@code scenarios} array of {@code fileName} into an index keyed by normalized prompt.
+     * Eagerly compiles every scenario, or, with {@code ollama.mock.scenarios.lazy}, records only the
+     * prompts and byte ranges and decodes scenarios from the mapped file on first use. Either way the
+     * prompts get a trigram index for approximate matching and suggestions. Bundled files with an
+     * up-to-date {@link CompiledScenarioTable} generated at build time are not parsed at all unless
+     * loading is lazy.
+     *
+     * @throws IllegalStateException when the file cannot be parsed, a scenario has no prompt or two
+     *                               scenarios share a normalized prompt
+     */
+    public <D, P> ScenarioIndex<P> load(ObjectMapper objectMapper,
+                                        String fileName,
+                                        Class<D> definitionType,
+                                        Function<D, String> promptOf,
+                                        Function<D, P> compiler) {
+        Resource resource = resolve(fileName);
+        if (!resource.exists()) {
+            log.warn("Scenario file {} not found, defaulting to empty list", fileName);
+            return new EagerScenarioIndex<>(Map.of(), List.of(), PromptMatcher.of(List.of(), matching));
+        }
+        try {
+            if (!lazy && resource instanceof ClassPathResource) {
+                ScenarioIndex<P> compiled = loadCompiled(resource, fileName);
+                if (compiled != null) {
+                    return compiled;
+                }
+            }
+            return lazy
+                    ? loadMapped(objectMapper, resource, fileName, definitionType, compiler)
+                    : loadEager(objectMapper, resource, fileName, definitionType, promptOf, compiler);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read scenario definitions from " + fileName, e);
+        }
+    }
+
+    /**
+     * A session cache for a chat repository, sized by {@code ollama.mock.scenarios.session-cache-size}.
+     */
+    public <P> ConversationSessions<P> sessions() {
+        return new ConversationSessions<>(sessionCacheSize);
+    }
+
+    public Resource resolve(String fileName) {
+        if (directory != null) {
+            Path external = directory.resolve(fileName);
+            if (Files.isRegularFile(external)) {
+                return new FileSystemResource(external);
+            }
+        }
+        return new ClassPathResource(CLASSPATH_DIRECTORY + fileName);
+    }
+
+    /**
+     * Runs {@code reload} whenever {@code fileName} is created, modified or deleted in the scenario
+     * directory. Does nothing when no directory is configured.
+     */
+    public void onChange(String fileName, Runnable reload) {
+        if (directory == null) {
+            return;
+        }
+        listeners.computeIfAbsent(fileName, ignored -> new CopyOnWriteArrayList<>()).add(reload);
+        startWatching();
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private <D, P> ScenarioIndex<P> loadEager(ObjectMapper objectMapper,
+                                              Resource resource,
+                                              String fileName,
+                                              Class<D> definitionType,
+                                              Function<D, String> promptOf,
+                                              Function<D, P> compiler) throws IOException {
+        Map<String, P> plans = new LinkedHashMap<>();
+        List<String> prompts = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(resource.getInputStream())) {
+            forEachScenario(parser, fileName, () -> {
+                D definition = objectMapper.readValue(parser, definitionType);
+                String prompt = requirePrompt(promptOf.apply(definition), fileName);
+                String normalized = ScenarioIndex.normalize(prompt);
+                if (plans.containsKey(normalized)) {
+                    throw duplicatePrompt(prompt, fileName);
+                }
+                prompts.add(prompt);
+                plans.put(normalized, compiler.apply(definition));
+            });
+        }
+        return new EagerScenarioIndex<>(plans, prompts, PromptMatcher.of(prompts, matching));
+    }
+
+    private <D, P> ScenarioIndex<P> loadMapped(ObjectMapper objectMapper,
+                                               Resource resource,
+                                               String fileName,
+                                               Class<D> definitionType,
+                                               Function<D, P> compiler) throws IOException {
+        ByteBuffer corpus = map(resource);
+        List<String> prompts = new ArrayList<>();
+        IntArrayBuilder offsets = new IntArrayBuilder();
+        IntArrayBuilder lengths = new IntArrayBuilder();
+        Set<String> seen = new HashSet<>();
+        try (JsonParser parser = objectMapper.getFactory()
+                .createParser(new ByteBufferBackedInputStream(corpus.duplicate()))) {
+            forEachScenario(parser, fileName, () -> {
+                int start = (int) parser.currentTokenLocation().getByteOffset();
+                String prompt = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("prompt".equals(field)) {
+                        prompt = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (!seen.add(ScenarioIndex.normalize(requirePrompt(prompt, fileName)))) {
+                    throw duplicatePrompt(prompt, fileName);
+                }
+                prompts.add(prompt);
+                offsets.add(start);
+                lengths.add((int) parser.currentLocation().getByteOffset() - start);
+            });
+        }
+        return new MappedScenarioIndex<>(objectMapper, corpus, definitionType, compiler,
+                prompts, offsets.toArray(), lengths.toArray(), cacheSize, PromptMatcher.of(prompts, matching));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <P> ScenarioIndex<P> loadCompiled(Resource resource, String fileName) throws IOException {
+        CompiledScenarioTable<P> table;
+        try {
+            table = (CompiledScenarioTable<P>) Class.forName(CompiledScenarioTable.className(fileName))
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Cannot use the compiled table for {}, parsing JSON instead: {}", fileName, e.toString());
+            return null;
+        }
+        byte[] content;
+        try (InputStream input = resource.getInputStream()) {
+            content = input.readAllBytes();
+        }
+        if (CompiledScenarioTable.checksum(content) != table.sourceChecksum()) {
+            log.info("{} changed since its table was generated, parsing JSON instead", fileName);
+            return null;
+        }
+        log.debug("Using the compiled table for {}", fileName);
+        List<String> prompts = table.prompts();
+        List<P> compiled = table.plans();
+        Map<String, P> plans = new LinkedHashMap<>();
+        for (int i = 0; i < prompts.size(); i++) {
+            plans.put(ScenarioIndex.normalize(prompts.get(i)), compiled.get(i));
+        }
+        return new EagerScenarioIndex<>(plans, prompts, PromptMatcher.of(prompts, matching));
+    }
+
+    private static void forEachScenario(JsonParser parser, String fileName, ScenarioVisitor visitor)
+            throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalStateException(fileName + " must contain a JSON object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"scenarios".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                visitor.visit();
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IllegalStateException("Every entry of 'scenarios' in " + fileName + " must be an object");
+            }
+        }
+    }
+
+    private static IllegalStateException duplicatePrompt(String prompt, String fileName) {
+        return new IllegalStateException("Duplicate prompt '" + prompt + "' in " + fileName);
+    }
+
+    private static String requirePrompt(String prompt, String fileName) {
+        if (!StringUtils.hasText(prompt)) {
+            throw new IllegalStateException("Scenario without prompt in " + fileName);
+        }
+        return prompt;
+    }
+
+    /**
+     * Maps a private snapshot of a scenario file rather than the file itself: the watched file may be
+     * truncated or rewritten in place by an editor, which would tear, or fault on, a live mapping
+     * before the reload swaps the index. The snapshot is unlinked once mapped where the platform
+     * allows it.
+     */
+    private static ByteBuffer map(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            Path snapshot = Files.createTempFile("ollama-mock-scenarios-", ".json");
+            try {
+                Files.copy(resource.getFile().toPath(), snapshot, StandardCopyOption.REPLACE_EXISTING);
+                try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } finally {
+                deleteSnapshot(snapshot);
+            }
+        }
+        try (InputStream input = resource.getInputStream()) {
+            return ByteBuffer.wrap(input.readAllBytes());
+        }
+    }
+
+    private static void deleteSnapshot(Path snapshot) {
+        try {
+            Files.deleteIfExists(snapshot);
+        } catch (IOException e) {
+            snapshot.toFile().deleteOnExit();
+        }
+    }
+
+    private synchronized void startWatching() {
+        if (watchService != null) {
+            return;
+        }
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot watch scenario directory " + directory, e);
+        }
+        Thread watcher = new Thread(() -> watch(watchService), "scenario-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching {} for scenario changes", directory.toAbsolutePath());
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                Set<String> changed = new HashSet<>();
+                collect(service.take(), changed);
+                WatchKey more;
+                while ((more = service.poll(Math.max(1, debounce.toMillis()), TimeUnit.MILLISECONDS)) != null) {
+                    collect(more, changed);
+                }
+                changed.forEach(fileName -> listeners.getOrDefault(fileName, List.of()).forEach(this::runReload));
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Scenario watcher stopped");
+        }
+    }
+
+    private void collect(WatchKey key, Set<String> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path path) {
+                changed.add(path.getFileName().toString());
+            }
+        }
+        key.reset();
+    }
+
+    private void runReload(Runnable reload) {
+        try {
+            reload.run();
+        } catch (RuntimeException e) {
+            log.warn("Scenario reload failed", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ScenarioVisitor {
+        void visit() throws IOException;
+    }
+}
@@ -0,0 +1,17 @@
+package com.awesome.testing.ollama.scenario;
+
+import lombok.Value;
+
+/**
+ * Pre-tokenized thinking and response parts of a single scenario chunk.
+ */
+@Value
+public class StreamChunkPlan {
+
+    TokenizedText thinking;
+    TokenizedText response;
+
+    public static StreamChunkPlan of(String thinking, String response) {
+        return new StreamChunkPlan(TokenizedText.of(thinking), TokenizedText.of(response));
+    }
+}
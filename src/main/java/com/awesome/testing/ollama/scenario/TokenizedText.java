@@ -0,0 +1,52 @@
+package com.awesome.testing.ollama.scenario;
+
+import com.awesome.testing.ollama.codec.PreparedJsonStrings;
+import com.awesome.testing.ollama.util.TokenStreamUtils;
+import java.util.List;
+import lombok.Value;
+import org.springframework.util.StringUtils;
+
+/**
+ * Scenario text split into stream tokens once, when the scenario is loaded.
+ */
+@Value
+public class TokenizedText {
+
+    public static final TokenizedText EMPTY = new TokenizedText(null, List.of());
+
+    String text;
+    List<String> tokens;
+
+    public static TokenizedText of(String text) {
+        if (!StringUtils.hasText(text)) {
+            return EMPTY;
+        }
+        List<String> tokens = List.copyOf(TokenStreamUtils.tokenize(text));
+        tokens.forEach(PreparedJsonStrings::prepare);
+        return new TokenizedText(text, tokens);
+    }
+
+    /**
+     * Text built for one request, such as a reply quoting the user's prompt. Its tokens are not added
+     * to {@link PreparedJsonStrings}, which only holds scenario text.
+     */
+    public static TokenizedText ofRequest(String text) {
+        if (!StringUtils.hasText(text)) {
+            return EMPTY;
+        }
+        return new TokenizedText(text, List.copyOf(TokenStreamUtils.tokenize(text)));
+    }
+
+    /**
+     * Text tokenized ahead of time, e.g. by the build-time scenario table generator.
+     */
+    public static TokenizedText precompiled(String text, String... tokens) {
+        List<String> tokenList = List.of(tokens);
+        tokenList.forEach(PreparedJsonStrings::prepare);
+        return new TokenizedText(text, tokenList);
+    }
+
+    public boolean isEmpty() {
+        return tokens.isEmpty();
+    }
+}
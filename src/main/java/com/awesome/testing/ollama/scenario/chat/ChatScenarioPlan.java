@@ -0,0 +1,59 @@
+package com.awesome.testing.ollama.scenario.chat;
+
+import java.util.List;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.Value;
+
+/**
+ * Immutable, pre-tokenized form of a {@link ChatScenarioDefinition}, with its stages compiled into a
+ * transition table.
+ */
+@Value
+public class ChatScenarioPlan {
+
+    String name;
+    String prompt;
+    List<ChatScenarioStagePlan> stages;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    ChatStageTable transitions;
+
+    public static ChatScenarioPlan compile(ChatScenarioDefinition definition) {
+        List<ChatScenarioStagePlan> stages = Optional.ofNullable(definition.getStages()).orElse(List.of()).stream()
+                .map(ChatScenarioStagePlan::compile)
+                .toList();
+        return of(definition.getName(), definition.getPrompt(), stages);
+    }
+
+    public static ChatScenarioPlan of(String name, String prompt, List<ChatScenarioStagePlan> stages) {
+        return new ChatScenarioPlan(name, prompt, stages, ChatStageTable.of(stages));
+    }
+
+    public Optional<ChatScenarioStagePlan> stageForUserPrompt() {
+        return transitions.userStage();
+    }
+
+    public Optional<ChatScenarioStagePlan> stageForTool(String toolName) {
+        return stageForTool(toolName, 1);
+    }
+
+    /**
+     * Stage answering the {@code occurrence}-th (1-based) result of {@code toolName} in the conversation.
+     */
+    public Optional<ChatScenarioStagePlan> stageForTool(String toolName, int occurrence) {
+        return transitions.toolStage(toolName, occurrence);
+    }
+
+    /**
+     * Stages triggered by {@code toolName}; only when there is more than one does the caller need to
+     * count earlier results of that tool.
+     */
+    public int toolStageCount(String toolName) {
+        return transitions.toolStageCount(toolName);
+    }
+}
@@ -1,81 +1,98 @@
 package com.awesome.testing.ollama.scenario.chat;
 
 import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.scenario.ConversationSessions;
+import com.awesome.testing.ollama.scenario.ScenarioIndex;
+import com.awesome.testing.ollama.scenario.ScenarioSource;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.IOException;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+/**
+ * Chat tool scenarios indexed by normalized prompt; the index is swapped atomically on reload.
+ */
 @Slf4j
 @Component
 public class ChatScenarioRepository {
 
-    private static final String SCENARIO_PATH = "scenarios/chat-scenarios.json";
+    public static final String SCENARIO_FILE = "chat-scenarios.json";
 
-    private final Map<String, ChatScenarioDefinition> promptIndex = new LinkedHashMap<>();
-    private final List<ChatScenarioDefinition> definitions;
+    private final ObjectMapper objectMapper;
+    private final ScenarioSource scenarioSource;
+    private final ConversationSessions<ChatScenarioPlan> sessions;
+    private volatile ScenarioIndex<ChatScenarioPlan> index;
 
-    public ChatScenarioRepository(ObjectMapper objectMapper) {
-        this.definitions = loadScenarios(objectMapper);
-        definitions.forEach(def -> promptIndex.put(def.normalizedPrompt(), def));
-        log.info("Loaded {} chat scenario(s) from {}", definitions.size(), SCENARIO_PATH);
+    public ChatScenarioRepository(ObjectMapper objectMapper, ScenarioSource scenarioSource) {
+        this.objectMapper = objectMapper;
+        this.scenarioSource = scenarioSource;
+        this.sessions = scenarioSource.sessions();
+        this.index = load();
+        log.info("Loaded {} chat scenario(s) from {}", index.supportedPrompts().size(), SCENARIO_FILE);
+        scenarioSource.onChange(SCENARIO_FILE, this::reload);
     }
 
-    public Optional<ChatScenarioDefinition> findByPrompt(String prompt) {
-        if (!StringUtils.hasText(prompt)) {
-            return Optional.empty();
-        }
-        return Optional.ofNullable(promptIndex.get(normalize(prompt)));
+    public Optional<ChatScenarioPlan> findByPrompt(String prompt) {
+        return lookup(index, prompt);
     }
 
-    public Optional<ChatScenarioDefinition> findScenarioForConversation(List<ChatMessageDto> messages) {
-        if (CollectionUtils.isEmpty(messages)) {
-            return Optional.empty();
-        }
-        return messages.stream()
-                .filter(msg -> "user".equalsIgnoreCase(msg.getRole()))
-                .map(ChatMessageDto::getContent)
-                .map(this::findByPrompt)
-                .flatMap(Optional::stream)
-                .findFirst();
+    public Optional<ChatScenarioPlan> findScenarioForConversation(List<ChatMessageDto> messages) {
+        return findScenarioForConversation(null, messages);
+    }
+
+    /**
+     * Scenario of the first user message that has one, remembered per conversation so later turns
+     * only look at new messages.
+     */
+    public Optional<ChatScenarioPlan> findScenarioForConversation(String conversationId,
+                                                                  List<ChatMessageDto> messages) {
+        return sessions.resolve(conversationId, messages, index);
+    }
+
+    /**
+     * {@link #findScenarioForConversation(String, List)} together with the tool results counted so far.
+     */
+    public ConversationSessions.Conversation<ChatScenarioPlan> findConversation(String conversationId,
+                                                                               List<ChatMessageDto> messages) {
+        return sessions.open(conversationId, messages, index);
     }
 
     public List<String> supportedPrompts() {
-        return definitions.stream()
-                .map(ChatScenarioDefinition::getPrompt)
-                .toList();
+        return index.supportedPrompts();
     }
 
-    private List<ChatScenarioDefinition> loadScenarios(ObjectMapper objectMapper) {
-        Resource resource = new ClassPathResource(SCENARIO_PATH);
-        if (!resource.exists()) {
-            log.warn("Chat scenario file {} not found, falling back to empty list", SCENARIO_PATH);
-            return Collections.emptyList();
-        }
+    /**
+     * Supported prompts nearest to {@code prompt}, for the reply to a prompt without a scenario.
+     */
+    public List<String> suggestPrompts(String prompt) {
+        return index.matcher().nearest(prompt);
+    }
+
+    /**
+     * Re-reads the scenario file and swaps the index; a file that fails to load is rejected and the
+     * current index stays in place.
+     */
+    public void reload() {
         try {
-            ChatScenarioWrapper wrapper = objectMapper.readValue(resource.getInputStream(), ChatScenarioWrapper.class);
-            return Optional.ofNullable(wrapper.getScenarios()).orElse(Collections.emptyList());
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to read chat scenario definitions", e);
+            index = load();
+            log.info("Reloaded {} chat scenario(s) from {}", index.supportedPrompts().size(), SCENARIO_FILE);
+        } catch (RuntimeException e) {
+            log.warn("Rejected {}; keeping {} previously loaded scenario(s): {}",
+                    SCENARIO_FILE, index.supportedPrompts().size(), e.getMessage());
         }
     }
 
-    private String normalize(String prompt) {
-        return prompt.trim().toLowerCase(Locale.ROOT);
+    private Optional<ChatScenarioPlan> lookup(ScenarioIndex<ChatScenarioPlan> current, String prompt) {
+        if (!StringUtils.hasText(prompt)) {
+            return Optional.empty();
+        }
+        return current.match(prompt);
     }
 
-    @lombok.Data
-    private static class ChatScenarioWrapper {
-        private List<ChatScenarioDefinition> scenarios;
+    private ScenarioIndex<ChatScenarioPlan> load() {
+        return scenarioSource.load(objectMapper, SCENARIO_FILE, ChatScenarioDefinition.class,
+                ChatScenarioDefinition::getPrompt, ChatScenarioPlan::compile);
     }
 }
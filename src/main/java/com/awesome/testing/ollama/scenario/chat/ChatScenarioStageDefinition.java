@@ -16,6 +16,6 @@ public class ChatScenarioStageDefinition {
     }
 
     public String getToolNameNormalized() {
-        return toolName == null ? null : toolName.trim().toLowerCase();
+        return toolName == null ? null : ChatStageTable.normalize(toolName);
     }
 }
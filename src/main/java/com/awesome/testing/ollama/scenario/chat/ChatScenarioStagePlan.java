@@ -0,0 +1,24 @@
+package com.awesome.testing.ollama.scenario.chat;
+
+import com.awesome.testing.ollama.scenario.TokenizedText;
+import lombok.Value;
+
+/**
+ * Immutable, pre-tokenized form of a {@link ChatScenarioStageDefinition}.
+ */
+@Value
+public class ChatScenarioStagePlan {
+
+    ChatScenarioTrigger trigger;
+    String toolNameNormalized;
+    TokenizedText response;
+    ChatScenarioToolCallDefinition toolCall;
+
+    public static ChatScenarioStagePlan compile(ChatScenarioStageDefinition definition) {
+        return new ChatScenarioStagePlan(
+                definition.getTriggerEnum(),
+                definition.getToolNameNormalized(),
+                TokenizedText.of(definition.getResponse()),
+                definition.getToolCall());
+    }
+}
@@ -0,0 +1,88 @@
+package com.awesome.testing.ollama.scenario.chat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stage transitions of one scenario keyed by trigger and normalized tool name.
+ *
+ * <p>Stages for the same tool are numbered in file order, so the n-th result of that tool in a
+ * conversation moves to its n-th stage; results beyond the last one keep getting the last stage.
+ * Lookups return pre-built {@link Optional}s and only lowercase the tool name when the caller did not
+ * already send it in lowercase, so they do not allocate.
+ */
+final class ChatStageTable {
+
+    private final Optional<ChatScenarioStagePlan> userStage;
+    private final Map<String, Optional<ChatScenarioStagePlan>[]> toolStages;
+
+    private ChatStageTable(Optional<ChatScenarioStagePlan> userStage,
+                           Map<String, Optional<ChatScenarioStagePlan>[]> toolStages) {
+        this.userStage = userStage;
+        this.toolStages = toolStages;
+    }
+
+    @SuppressWarnings("unchecked")
+    static ChatStageTable of(List<ChatScenarioStagePlan> stages) {
+        ChatScenarioStagePlan user = null;
+        Map<String, List<ChatScenarioStagePlan>> byTool = new HashMap<>();
+        for (ChatScenarioStagePlan stage : stages) {
+            if (stage.getTrigger() == ChatScenarioTrigger.USER && user == null) {
+                user = stage;
+            } else if (stage.getTrigger() == ChatScenarioTrigger.TOOL && stage.getToolNameNormalized() != null) {
+                byTool.computeIfAbsent(stage.getToolNameNormalized(), ignored -> new ArrayList<>()).add(stage);
+            }
+        }
+        Map<String, Optional<ChatScenarioStagePlan>[]> toolStages = new HashMap<>(byTool.size() * 2);
+        byTool.forEach((tool, planned) -> toolStages.put(tool, planned.stream()
+                .map(Optional::of)
+                .toArray(Optional[]::new)));
+        return new ChatStageTable(Optional.ofNullable(user), toolStages);
+    }
+
+    Optional<ChatScenarioStagePlan> userStage() {
+        return userStage;
+    }
+
+    int toolStageCount(String toolName) {
+        Optional<ChatScenarioStagePlan>[] planned = stagesFor(toolName);
+        return planned == null ? 0 : planned.length;
+    }
+
+    Optional<ChatScenarioStagePlan> toolStage(String toolName, int occurrence) {
+        Optional<ChatScenarioStagePlan>[] planned = stagesFor(toolName);
+        if (planned == null) {
+            return Optional.empty();
+        }
+        return planned[Math.min(Math.max(occurrence, 1), planned.length) - 1];
+    }
+
+    private Optional<ChatScenarioStagePlan>[] stagesFor(String toolName) {
+        if (toolName == null || toolStages.isEmpty()) {
+            return null;
+        }
+        return toolStages.get(isNormalized(toolName) ? toolName : normalize(toolName));
+    }
+
+    static String normalize(String toolName) {
+        return toolName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isNormalized(String toolName) {
+        int length = toolName.length();
+        if (length == 0 || toolName.charAt(0) <= ' ' || toolName.charAt(length - 1) <= ' ') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = toolName.charAt(i);
+            if (Character.toLowerCase(c) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
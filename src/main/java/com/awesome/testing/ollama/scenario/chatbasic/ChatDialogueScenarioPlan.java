@@ -0,0 +1,55 @@
+package com.awesome.testing.ollama.scenario.chatbasic;
+
+import com.awesome.testing.ollama.scenario.StreamChunkPlan;
+import java.util.List;
+import java.util.Optional;
+import lombok.Value;
+import org.springframework.util.StringUtils;
+
+/**
+ * Immutable, pre-tokenized form of a {@link ChatDialogueScenarioDefinition}.
+ */
+@Value
+public class ChatDialogueScenarioPlan {
+
+    String prompt;
+    List<StreamChunkPlan> chunks;
+
+    /**
+     * All thinking sections joined for non-streamed responses, or {@code null} when there is none.
+     */
+    String aggregatedThinking;
+
+    /**
+     * All response sections joined for non-streamed responses, or {@code null} when there is none.
+     */
+    String aggregatedContent;
+
+    public static ChatDialogueScenarioPlan compile(ChatDialogueScenarioDefinition definition) {
+        List<ChatDialogueChunkDefinition> chunks = Optional.ofNullable(definition.getChunks()).orElse(List.of());
+        StringBuilder thinking = new StringBuilder();
+        StringBuilder content = new StringBuilder();
+        chunks.forEach(chunk -> {
+            if (StringUtils.hasText(chunk.getThinking())) {
+                appendSection(thinking, chunk.getThinking());
+            }
+            if (StringUtils.hasText(chunk.getResponse())) {
+                appendSection(content, chunk.getResponse());
+            }
+        });
+        return new ChatDialogueScenarioPlan(
+                definition.getPrompt(),
+                chunks.stream()
+                        .map(chunk -> StreamChunkPlan.of(chunk.getThinking(), chunk.getResponse()))
+                        .toList(),
+                thinking.length() > 0 ? thinking.toString() : null,
+                content.length() > 0 ? content.toString() : null);
+    }
+
+    private static void appendSection(StringBuilder builder, String addition) {
+        if (builder.length() > 0) {
+            builder.append("\n\n");
+        }
+        builder.append(addition);
+    }
+}
@@ -1,79 +1,77 @@
 package com.awesome.testing.ollama.scenario.chatbasic;
 
 import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.scenario.ConversationSessions;
+import com.awesome.testing.ollama.scenario.ScenarioIndex;
+import com.awesome.testing.ollama.scenario.ScenarioSource;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.IOException;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
-import org.springframework.util.StringUtils;
 
+/**
+ * Chat dialogue scenarios indexed by normalized prompt; the index is swapped atomically on reload.
+ */
 @Slf4j
 @Component
 public class ChatDialogueScenarioRepository {
 
-    private static final String SCENARIO_PATH = "scenarios/chat-dialog-scenarios.json";
+    public static final String SCENARIO_FILE = "chat-dialog-scenarios.json";
 
-    private final Map<String, ChatDialogueScenarioDefinition> index = new LinkedHashMap<>();
-    private final List<ChatDialogueScenarioDefinition> definitions;
+    private final ObjectMapper objectMapper;
+    private final ScenarioSource scenarioSource;
+    private final ConversationSessions<ChatDialogueScenarioPlan> sessions;
+    private volatile ScenarioIndex<ChatDialogueScenarioPlan> index;
 
-    public ChatDialogueScenarioRepository(ObjectMapper objectMapper) {
-        this.definitions = load(objectMapper);
-        definitions.forEach(def -> index.put(def.normalizedPrompt(), def));
-        log.info("Loaded {} chat dialogue scenario(s) from {}", definitions.size(), SCENARIO_PATH);
+    public ChatDialogueScenarioRepository(ObjectMapper objectMapper, ScenarioSource scenarioSource) {
+        this.objectMapper = objectMapper;
+        this.scenarioSource = scenarioSource;
+        this.sessions = scenarioSource.sessions();
+        this.index = load();
+        log.info("Loaded {} chat dialogue scenario(s) from {}", index.supportedPrompts().size(), SCENARIO_FILE);
+        scenarioSource.onChange(SCENARIO_FILE, this::reload);
     }
 
-    public Optional<ChatDialogueScenarioDefinition> findScenario(List<ChatMessageDto> messages) {
-        if (CollectionUtils.isEmpty(messages)) {
-            return Optional.empty();
-        }
-        return messages.stream()
-                .filter(msg -> "user".equalsIgnoreCase(msg.getRole()))
-                .map(ChatMessageDto::getContent)
-                .filter(StringUtils::hasText)
-                .map(this::findByPrompt)
-                .flatMap(Optional::stream)
-                .findFirst();
+    public Optional<ChatDialogueScenarioPlan> findScenario(List<ChatMessageDto> messages) {
+        return findScenario(null, messages);
+    }
+
+    /**
+     * Scenario of the first user message that has one, remembered per conversation so later turns
+     * only look at new messages.
+     */
+    public Optional<ChatDialogueScenarioPlan> findScenario(String conversationId, List<ChatMessageDto> messages) {
+        return sessions.resolve(conversationId, messages, index);
     }
 
     public List<String> supportedPrompts() {
-        return definitions.stream()
-                .map(ChatDialogueScenarioDefinition::getPrompt)
-                .toList();
+        return index.supportedPrompts();
     }
 
-    private Optional<ChatDialogueScenarioDefinition> findByPrompt(String content) {
-        return Optional.ofNullable(index.get(normalize(content)));
+    /**
+     * Supported prompts nearest to {@code prompt}, for the reply to a prompt without a scenario.
+     */
+    public List<String> suggestPrompts(String prompt) {
+        return index.matcher().nearest(prompt);
     }
 
-    private List<ChatDialogueScenarioDefinition> load(ObjectMapper mapper) {
-        Resource resource = new ClassPathResource(SCENARIO_PATH);
-        if (!resource.exists()) {
-            log.warn("Chat dialogue scenario file {} missing, returning empty list", SCENARIO_PATH);
-            return Collections.emptyList();
-        }
+    /**
+     * Re-reads the scenario file and swaps the index; a file that fails to load is rejected and the
+     * current index stays in place.
+     */
+    public void reload() {
         try {
-            ChatDialogueWrapper wrapper = mapper.readValue(resource.getInputStream(), ChatDialogueWrapper.class);
-            return Optional.ofNullable(wrapper.getScenarios()).orElse(Collections.emptyList());
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to read chat dialogue scenarios", e);
+            index = load();
+            log.info("Reloaded {} chat dialogue scenario(s) from {}", index.supportedPrompts().size(), SCENARIO_FILE);
+        } catch (RuntimeException e) {
+            log.warn("Rejected {}; keeping {} previously loaded scenario(s): {}",
+                    SCENARIO_FILE, index.supportedPrompts().size(), e.getMessage());
         }
     }
 
-    private String normalize(String prompt) {
-        return prompt.trim().toLowerCase(Locale.ROOT);
-    }
-
-    @lombok.Data
-    private static class ChatDialogueWrapper {
-        private List<ChatDialogueScenarioDefinition> scenarios;
+    private ScenarioIndex<ChatDialogueScenarioPlan> load() {
+        return scenarioSource.load(objectMapper, SCENARIO_FILE, ChatDialogueScenarioDefinition.class,
+                ChatDialogueScenarioDefinition::getPrompt, ChatDialogueScenarioPlan::compile);
     }
 }
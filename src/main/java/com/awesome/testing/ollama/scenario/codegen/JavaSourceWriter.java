@@ -0,0 +1,173 @@
+package com.awesome.testing.ollama.scenario.codegen;
+
+import com.awesome.testing.ollama.scenario.StreamChunkPlan;
+import com.awesome.testing.ollama.scenario.TokenizedText;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Renders scenario values as Java expressions for the generated tables, counting the distinct string
+ * constants so the generator can stay within the class file constant pool, and the size of each
+ * scenario method so it stays within the 64 KB bytecode limit.
+ */
+final class JavaSourceWriter {
+
+    /**
+     * Longest string emitted as a single literal; longer ones are joined at runtime because the class
+     * file format limits a constant to 65535 UTF-8 bytes.
+     */
+    private static final int MAX_LITERAL = 8_000;
+
+    /**
+     * Bytecode budget of one scenario method, in units of about eight bytes: one per string literal,
+     * {@value #ELEMENT_COST} per list element. Texts whose tokens no longer fit are tokenized at startup
+     * instead, keeping methods well below the 64 KB limit.
+     */
+    private static final int MAX_METHOD_COST = 4_000;
+
+    private static final int ELEMENT_COST = 4;
+
+    private final Set<String> constants = new HashSet<>();
+    private int methodCost;
+
+    int constantCount() {
+        return constants.size();
+    }
+
+    /**
+     * Starts the budget of a new scenario method.
+     */
+    void startMethod() {
+        methodCost = 0;
+    }
+
+    /**
+     * Whether the expressions rendered since {@link #startMethod()} fit in one method.
+     */
+    boolean methodFits() {
+        return methodCost <= MAX_METHOD_COST;
+    }
+
+    String string(String value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value.length() <= MAX_LITERAL) {
+            methodCost++;
+            constants.add(value);
+            return quote(value);
+        }
+        StringBuilder joined = new StringBuilder("String.join(\"\"");
+        int start = 0;
+        while (start < value.length()) {
+            int end = Math.min(value.length(), start + MAX_LITERAL);
+            if (end < value.length() && Character.isHighSurrogate(value.charAt(end - 1))) {
+                end--;
+            }
+            String part = value.substring(start, end);
+            methodCost++;
+            constants.add(part);
+            joined.append(", ").append(quote(part));
+            start = end;
+        }
+        return joined.append(')').toString();
+    }
+
+    String tokenized(TokenizedText text) {
+        if (text.getText() == null && text.isEmpty()) {
+            return "TokenizedText.EMPTY";
+        }
+        if (methodCost + text.getTokens().size() >= MAX_METHOD_COST) {
+            return "TokenizedText.of(" + string(text.getText()) + ")";
+        }
+        StringBuilder expression = new StringBuilder("TokenizedText.precompiled(").append(string(text.getText()));
+        text.getTokens().forEach(token -> expression.append(", ").append(string(token)));
+        return expression.append(')').toString();
+    }
+
+    String chunk(StreamChunkPlan chunk) {
+        return "new StreamChunkPlan(" + tokenized(chunk.getThinking()) + ", " + tokenized(chunk.getResponse()) + ")";
+    }
+
+    <T> String list(List<T> values, Function<T, String> element, String indent) {
+        if (values.isEmpty()) {
+            return "List.of()";
+        }
+        methodCost += ELEMENT_COST * values.size();
+        StringBuilder expression = new StringBuilder("List.of(");
+        for (int i = 0; i < values.size(); i++) {
+            expression.append(i == 0 ? "\n" : ",\n").append(indent).append(element.apply(values.get(i)));
+        }
+        return expression.append(')').toString();
+    }
+
+    /**
+     * A value as Jackson binds it into {@code Map<String, Object>}: maps, lists, strings, numbers,
+     * booleans and nulls, keeping key order and number types.
+     */
+    String json(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof String text) {
+            return string(text);
+        }
+        if (value instanceof Boolean || value instanceof Integer) {
+            return value.toString();
+        }
+        if (value instanceof Long) {
+            return value + "L";
+        }
+        if (value instanceof Double number) {
+            return Double.toString(number) + "d";
+        }
+        if (value instanceof BigInteger || value instanceof BigDecimal) {
+            return "new " + value.getClass().getName() + "(" + quote(value.toString()) + ")";
+        }
+        if (value instanceof Map<?, ?> map) {
+            StringBuilder expression = new StringBuilder("map(");
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                expression.append(first ? "" : ", ").append(string(entry.getKey().toString()))
+                        .append(", ").append(json(entry.getValue()));
+                first = false;
+            }
+            return expression.append(')').toString();
+        }
+        if (value instanceof List<?> list) {
+            StringBuilder expression = new StringBuilder("list(");
+            for (int i = 0; i < list.size(); i++) {
+                expression.append(i == 0 ? "" : ", ").append(json(list.get(i)));
+            }
+            return expression.append(')').toString();
+        }
+        throw new IllegalStateException("Unsupported value in scenario arguments: " + value.getClass().getName());
+    }
+
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
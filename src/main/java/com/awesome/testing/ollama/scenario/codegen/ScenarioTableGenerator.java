@@ -0,0 +1,257 @@
+package com.awesome.testing.ollama.scenario.codegen;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.scenario.CompiledScenarioTable;
+import com.awesome.testing.ollama.scenario.ScenarioIndex;
+import com.awesome.testing.ollama.scenario.ScenarioSource;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioDefinition;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioPlan;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioRepository;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioStagePlan;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioTrigger;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioDefinition;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioPlan;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioRepository;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioDefinition;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioPlan;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+/**
+ * Build step that validates the bundled scenario files and compiles each one into a
+ * {@link CompiledScenarioTable} source file, so the packaged app loads scenarios without parsing JSON.
+ *
+ * <p>Runs in the {@code process-classes} phase ({@code ScenarioTableGenerator <scenario directory>
+ * <output directory>}) and fails the build on invalid files, e.g. duplicate normalized prompts or
+ * tool stages without a tool name. Files too large for one class, or with a scenario too large for one
+ * method, are validated but left to JSON.
+ */
+@Slf4j
+public final class ScenarioTableGenerator {
+
+    /**
+     * Distinct string constants allowed per generated class; the constant pool holds 65535 entries.
+     */
+    private static final int MAX_CONSTANTS = 30_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScenarioSource scenarioSource;
+    private final Path scenarioDirectory;
+
+    ScenarioTableGenerator(Path scenarioDirectory) {
+        OllamaMockProperties properties = new OllamaMockProperties();
+        properties.getScenarios().setDirectory(scenarioDirectory);
+        this.scenarioSource = new ScenarioSource(properties);
+        this.scenarioDirectory = scenarioDirectory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ScenarioTableGenerator <scenario directory> <output directory>");
+        }
+        new ScenarioTableGenerator(Path.of(args[0])).generate(Path.of(args[1]));
+    }
+
+    void generate(Path outputDirectory) throws IOException {
+        Path packageDirectory = outputDirectory.resolve(
+                CompiledScenarioTable.GENERATED_PACKAGE.replace('.', '/'));
+        clean(packageDirectory);
+        Files.createDirectories(packageDirectory);
+        generate(packageDirectory, GenerateScenarioRepository.SCENARIO_FILE, GenerateScenarioDefinition.class,
+                GenerateScenarioDefinition::getPrompt, GenerateScenarioPlan::compile, GenerateScenarioPlan.class,
+                ScenarioTableGenerator::generatePlan);
+        generate(packageDirectory, ChatDialogueScenarioRepository.SCENARIO_FILE, ChatDialogueScenarioDefinition.class,
+                ChatDialogueScenarioDefinition::getPrompt, ChatDialogueScenarioPlan::compile,
+                ChatDialogueScenarioPlan.class, ScenarioTableGenerator::dialoguePlan);
+        generate(packageDirectory, ChatScenarioRepository.SCENARIO_FILE, ChatScenarioDefinition.class,
+                ChatScenarioDefinition::getPrompt, ChatScenarioPlan::compile, ChatScenarioPlan.class,
+                ScenarioTableGenerator::chatPlan);
+    }
+
+    private <D, P> void generate(Path packageDirectory,
+                                 String fileName,
+                                 Class<D> definitionType,
+                                 Function<D, String> promptOf,
+                                 Function<D, P> compiler,
+                                 Class<P> planType,
+                                 BiFunction<JavaSourceWriter, P, String> planWriter) throws IOException {
+        Path file = scenarioDirectory.resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            log.warn("No {} in {}, skipping its table", fileName, scenarioDirectory);
+            return;
+        }
+        ScenarioIndex<P> index = scenarioSource.load(objectMapper, fileName, definitionType, promptOf, compiler);
+        List<String> prompts = index.supportedPrompts();
+        List<P> plans = prompts.stream()
+                .map(prompt -> index.find(ScenarioIndex.normalize(prompt)).orElseThrow())
+                .toList();
+        if (planType == ChatScenarioPlan.class) {
+            validateStages(fileName, plans.stream().map(ChatScenarioPlan.class::cast).toList());
+        }
+
+        JavaSourceWriter writer = new JavaSourceWriter();
+        List<String> scenarioMethods = new ArrayList<>();
+        for (int i = 0; i < plans.size(); i++) {
+            writer.startMethod();
+            scenarioMethods.add(planWriter.apply(writer, plans.get(i)));
+            if (!writer.methodFits()) {
+                log.warn("{} scenario '{}' is too large for one method; the file will be parsed at startup",
+                        fileName, prompts.get(i));
+                return;
+            }
+        }
+        String promptList = writer.list(prompts, writer::string, "                ");
+        if (writer.constantCount() > MAX_CONSTANTS) {
+            log.warn("{} has {} distinct strings, too many for one class; it will be parsed at startup",
+                    fileName, writer.constantCount());
+            return;
+        }
+
+        String className = CompiledScenarioTable.className(fileName);
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        long checksum = CompiledScenarioTable.checksum(Files.readAllBytes(file));
+        String source = render(fileName, simpleName, planType, checksum, promptList, scenarioMethods);
+        Files.writeString(packageDirectory.resolve(simpleName + ".java"), source, StandardCharsets.UTF_8);
+        log.info("Generated {} from {} ({} scenario(s))", simpleName, fileName, prompts.size());
+    }
+
+    private static String render(String fileName,
+                                 String simpleName,
+                                 Class<?> planType,
+                                 long checksum,
+                                 String promptList,
+                                 List<String> scenarioMethods) {
+        String plan = planType.getSimpleName();
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(CompiledScenarioTable.GENERATED_PACKAGE).append(";\n\n")
+                .append("import com.awesome.testing.ollama.scenario.CompiledScenarioTable;\n")
+                .append("import com.awesome.testing.ollama.scenario.StreamChunkPlan;\n")
+                .append("import com.awesome.testing.ollama.scenario.TokenizedText;\n")
+                .append("import com.awesome.testing.ollama.scenario.chat.ChatScenarioToolCallDefinition;\n")
+                .append("import com.awesome.testing.ollama.scenario.chat.ChatScenarioStagePlan;\n")
+                .append("import com.awesome.testing.ollama.scenario.chat.ChatScenarioTrigger;\n")
+                .append("import ").append(planType.getName()).append(";\n")
+                .append("import java.util.ArrayList;\n")
+                .append("import java.util.Arrays;\n")
+                .append("import java.util.LinkedHashMap;\n")
+                .append("import java.util.List;\n")
+                .append("import java.util.Map;\n\n")
+                .append("/**\n * Generated from {@code ").append(fileName)
+                .append("} by ScenarioTableGenerator; do not edit.\n */\n")
+                .append("@SuppressWarnings(\"unused\")\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements CompiledScenarioTable<").append(plan).append("> {\n\n")
+                .append("    @Override\n    public long sourceChecksum() {\n        return ")
+                .append(checksum).append("L;\n    }\n\n")
+                .append("    @Override\n    public List<String> prompts() {\n        return ")
+                .append(promptList).append(";\n    }\n\n")
+                .append("    @Override\n    public List<").append(plan).append("> plans() {\n        return List.of(");
+        for (int i = 0; i < scenarioMethods.size(); i++) {
+            source.append(i == 0 ? "\n" : ",\n").append("                scenario").append(i).append("()");
+        }
+        source.append(");\n    }\n");
+        for (int i = 0; i < scenarioMethods.size(); i++) {
+            source.append("\n    private static ").append(plan).append(" scenario").append(i).append("() {\n")
+                    .append("        return ").append(scenarioMethods.get(i)).append(";\n    }\n");
+        }
+        source.append("""
+
+                    private static Map<String, Object> map(Object... entries) {
+                        Map<String, Object> map = new LinkedHashMap<>();
+                        for (int i = 0; i < entries.length; i += 2) {
+                            map.put((String) entries[i], entries[i + 1]);
+                        }
+                        return map;
+                    }
+
+                    private static List<Object> list(Object... values) {
+                        return new ArrayList<>(Arrays.asList(values));
+                    }
+
+                    private static ChatScenarioToolCallDefinition toolCall(String name, Map<String, Object> arguments) {
+                        ChatScenarioToolCallDefinition toolCall = new ChatScenarioToolCallDefinition();
+                        toolCall.setName(name);
+                        toolCall.setArguments(arguments);
+                        return toolCall;
+                    }
+                }
+                """);
+        return source.toString();
+    }
+
+    private static String generatePlan(JavaSourceWriter writer, GenerateScenarioPlan plan) {
+        return "new GenerateScenarioPlan(" + writer.string(plan.getPrompt()) + ", "
+                + writer.list(plan.getChunks(), writer::chunk, "                ") + ", "
+                + writer.string(plan.getSingleResponse()) + ")";
+    }
+
+    private static String dialoguePlan(JavaSourceWriter writer, ChatDialogueScenarioPlan plan) {
+        return "new ChatDialogueScenarioPlan(" + writer.string(plan.getPrompt()) + ", "
+                + writer.list(plan.getChunks(), writer::chunk, "                ") + ", "
+                + writer.string(plan.getAggregatedThinking()) + ", "
+                + writer.string(plan.getAggregatedContent()) + ")";
+    }
+
+    private static String chatPlan(JavaSourceWriter writer, ChatScenarioPlan plan) {
+        return "ChatScenarioPlan.of(" + writer.string(plan.getName()) + ", " + writer.string(plan.getPrompt()) + ", "
+                + writer.list(plan.getStages(), stage -> chatStage(writer, stage), "                ") + ")";
+    }
+
+    private static String chatStage(JavaSourceWriter writer, ChatScenarioStagePlan stage) {
+        String toolCall = stage.getToolCall() == null
+                ? "null"
+                : "toolCall(" + writer.string(stage.getToolCall().getName()) + ", "
+                        + writer.json(stage.getToolCall().getArguments()) + ")";
+        return "new ChatScenarioStagePlan(ChatScenarioTrigger." + stage.getTrigger().name() + ", "
+                + writer.string(stage.getToolNameNormalized()) + ", "
+                + writer.tokenized(stage.getResponse()) + ", " + toolCall + ")";
+    }
+
+    private static void validateStages(String fileName, List<ChatScenarioPlan> plans) {
+        List<String> problems = new ArrayList<>();
+        for (ChatScenarioPlan plan : plans) {
+            List<ChatScenarioStagePlan> stages = plan.getStages();
+            for (int i = 0; i < stages.size(); i++) {
+                ChatScenarioStagePlan stage = stages.get(i);
+                String where = "'%s' stage %d".formatted(plan.getPrompt(), i + 1);
+                if (stage.getTrigger() == ChatScenarioTrigger.UNKNOWN) {
+                    problems.add(where + ": trigger must be 'user' or 'tool'");
+                }
+                if (stage.getTrigger() == ChatScenarioTrigger.TOOL && !StringUtils.hasText(stage.getToolNameNormalized())) {
+                    problems.add(where + ": tool stage without toolName");
+                }
+                if (stage.getToolCall() == null && stage.getResponse().isEmpty()) {
+                    problems.add(where + ": neither response nor toolCall");
+                }
+                if (stage.getToolCall() != null && !StringUtils.hasText(stage.getToolCall().getName())) {
+                    problems.add(where + ": toolCall without name");
+                }
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Invalid " + fileName + ":\n  " + String.join("\n  ", problems));
+        }
+    }
+
+    private static void clean(Path packageDirectory) throws IOException {
+        if (!Files.isDirectory(packageDirectory)) {
+            return;
+        }
+        try (DirectoryStream<Path> sources = Files.newDirectoryStream(packageDirectory, "*.java")) {
+            for (Path source : sources) {
+                Files.delete(source);
+            }
+        }
+    }
+}
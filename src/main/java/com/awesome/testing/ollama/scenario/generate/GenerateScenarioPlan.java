@@ -0,0 +1,38 @@
+package com.awesome.testing.ollama.scenario.generate;
+
+import com.awesome.testing.ollama.scenario.StreamChunkPlan;
+import java.util.List;
+import java.util.Optional;
+import lombok.Value;
+import org.springframework.util.StringUtils;
+
+/**
+ * Immutable, pre-tokenized form of a {@link GenerateScenarioDefinition}.
+ */
+@Value
+public class GenerateScenarioPlan {
+
+    String prompt;
+    List<StreamChunkPlan> chunks;
+
+    /**
+     * Last non-blank response of the scenario, returned when streaming is disabled.
+     */
+    String singleResponse;
+
+    public static GenerateScenarioPlan compile(GenerateScenarioDefinition definition) {
+        List<GenerateScenarioChunkDefinition> chunks = Optional.ofNullable(definition.getChunks()).orElse(List.of());
+        String singleResponse = null;
+        for (GenerateScenarioChunkDefinition chunk : chunks) {
+            if (StringUtils.hasText(chunk.getResponse())) {
+                singleResponse = chunk.getResponse();
+            }
+        }
+        return new GenerateScenarioPlan(
+                definition.getPrompt(),
+                chunks.stream()
+                        .map(chunk -> StreamChunkPlan.of(chunk.getThinking(), chunk.getResponse()))
+                        .toList(),
+                singleResponse);
+    }
+}
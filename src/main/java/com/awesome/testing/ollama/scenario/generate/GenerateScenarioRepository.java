@@ -1,66 +1,70 @@
 package com.awesome.testing.ollama.scenario.generate;
 
+import com.awesome.testing.ollama.scenario.ScenarioIndex;
+import com.awesome.testing.ollama.scenario.ScenarioSource;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.IOException;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
+/**
+ * Generate scenarios indexed by normalized prompt. The index is immutable and replaced as a whole
+ * when the scenario file is reloaded, so a reload never blocks lookups and in-flight streams keep
+ * their plan.
+ */
 @Slf4j
 @Component
 public class GenerateScenarioRepository {
 
-    private static final String SCENARIO_PATH = "scenarios/generate-scenarios.json";
+    public static final String SCENARIO_FILE = "generate-scenarios.json";
 
-    private final Map<String, GenerateScenarioDefinition> promptIndex = new LinkedHashMap<>();
-    private final List<GenerateScenarioDefinition> definitions;
+    private final ObjectMapper objectMapper;
+    private final ScenarioSource scenarioSource;
+    private volatile ScenarioIndex<GenerateScenarioPlan> index;
 
-    public GenerateScenarioRepository(ObjectMapper objectMapper) {
-        this.definitions = load(objectMapper);
-        definitions.forEach(def -> promptIndex.put(def.normalizedPrompt(), def));
-        log.info("Loaded {} generate scenario(s) from {}", definitions.size(), SCENARIO_PATH);
+    public GenerateScenarioRepository(ObjectMapper objectMapper, ScenarioSource scenarioSource) {
+        this.objectMapper = objectMapper;
+        this.scenarioSource = scenarioSource;
+        this.index = load();
+        log.info("Loaded {} generate scenario(s) from {}", index.supportedPrompts().size(), SCENARIO_FILE);
+        scenarioSource.onChange(SCENARIO_FILE, this::reload);
     }
 
-    public Optional<GenerateScenarioDefinition> findByPrompt(String prompt) {
+    public Optional<GenerateScenarioPlan> findByPrompt(String prompt) {
         if (prompt == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(promptIndex.get(normalize(prompt)));
+        return index.match(prompt);
     }
 
     public List<String> supportedPrompts() {
-        return definitions.stream()
-                .map(GenerateScenarioDefinition::getPrompt)
-                .toList();
+        return index.supportedPrompts();
     }
 
-    private List<GenerateScenarioDefinition> load(ObjectMapper objectMapper) {
-        Resource resource = new ClassPathResource(SCENARIO_PATH);
-        if (!resource.exists()) {
-            log.warn("Generate scenario file {} not found, defaulting to empty list", SCENARIO_PATH);
-            return Collections.emptyList();
-        }
-        try {
-            GenerateScenarioWrapper wrapper = objectMapper.readValue(resource.getInputStream(), GenerateScenarioWrapper.class);
-            return Optional.ofNullable(wrapper.getScenarios()).orElse(Collections.emptyList());
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to read generate scenario definitions", e);
-        }
+    /**
+     * Supported prompts nearest to {@code prompt}, for the reply to a prompt without a scenario.
+     */
+    public List<String> suggestPrompts(String prompt) {
+        return index.matcher().nearest(prompt);
     }
 
-    private String normalize(String prompt) {
-        return prompt.trim().toLowerCase(Locale.ROOT);
+    /**
+     * Re-reads the scenario file and swaps the index; a file that fails to load is rejected and the
+     * current index stays in place.
+     */
+    public void reload() {
+        try {
+            index = load();
+            log.info("Reloaded {} generate scenario(s) from {}", index.supportedPrompts().size(), SCENARIO_FILE);
+        } catch (RuntimeException e) {
+            log.warn("Rejected {}; keeping {} previously loaded scenario(s): {}",
+                    SCENARIO_FILE, index.supportedPrompts().size(), e.getMessage());
+        }
     }
 
-    @lombok.Data
-    private static class GenerateScenarioWrapper {
-        private List<GenerateScenarioDefinition> scenarios;
+    private ScenarioIndex<GenerateScenarioPlan> load() {
+        return scenarioSource.load(objectMapper, SCENARIO_FILE, GenerateScenarioDefinition.class,
+                GenerateScenarioDefinition::getPrompt, GenerateScenarioPlan::compile);
     }
 }
@@ -0,0 +1,294 @@
+package com.awesome.testing.ollama.scheduling;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.registry.ModelRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Limits concurrent generations per model the way Ollama does with {@code OLLAMA_NUM_PARALLEL} and
+ * {@code OLLAMA_MAX_QUEUE}. A request holds one of its model's slots from the moment it is admitted
+ * until its response completes, fails or is cancelled. Requests beyond the limit wait in a FIFO
+ * queue, and requests beyond the queue fail with {@link ServerBusyException}.
+ *
+ * <p>Waiting is a pending {@link Mono}, not a parked thread: a released slot is handed straight to
+ * the oldest waiter on the releasing thread. With {@code ollama.mock.slots.parallel=0} (the default)
+ * nothing is scheduled or measured.
+ *
+ * <p>Only models in {@code ollama.mock.slots.models} or the {@link ModelRegistry} get a lane and
+ * meters of their own. Any other model name shares one lane, measured with {@code model=(other)}, so
+ * clients sending arbitrary names cannot grow the lanes or meters without bound.
+ */
+@Component
+public class ModelSlotScheduler implements MeterBinder {
+
+    private static final String LATEST = ":latest";
+    private static final String OTHER = "(other)";
+
+    private final OllamaMockProperties properties;
+    private final ModelRegistry models;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public ModelSlotScheduler(OllamaMockProperties properties, ModelRegistry models) {
+        this.properties = properties;
+        this.models = models;
+    }
+
+    /**
+     * Emits {@code body} once a slot for {@code model} is free; the slot is released when the body
+     * terminates or is cancelled, or, if the body is never subscribed, when the returned {@link Mono}
+     * fails or is cancelled or the exchange bracketed by {@link SlotLeases} ends.
+     */
+    public <T> Mono<Flux<T>> stream(String model, Flux<T> body) {
+        Lane lane = lane(model);
+        if (lane == null) {
+            return Mono.just(body);
+        }
+        return admit(lane, slot -> body.doOnSubscribe(subscription -> slot.claim())
+                .doFinally(signal -> slot.release()));
+    }
+
+    /**
+     * Emits {@code body} once a slot for {@code model} is free; the slot is released the same way as
+     * for {@link #stream}.
+     */
+    public <T> Mono<Mono<T>> single(String model, Mono<T> body) {
+        Lane lane = lane(model);
+        if (lane == null) {
+            return Mono.just(body);
+        }
+        return admit(lane, slot -> body.doOnSubscribe(subscription -> slot.claim())
+                .doFinally(signal -> slot.release()));
+    }
+
+    /**
+     * Requests currently holding a slot of {@code model}.
+     */
+    public int active(String model) {
+        Lane lane = lanes.get(laneKey(key(model)));
+        return lane == null ? 0 : lane.active();
+    }
+
+    /**
+     * Requests currently waiting for a slot of {@code model}.
+     */
+    public int queued(String model) {
+        Lane lane = lanes.get(laneKey(key(model)));
+        return lane == null ? 0 : lane.queued();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        lanes.values().forEach(lane -> lane.bindTo(registry));
+    }
+
+    private <B> Mono<B> admit(Lane lane, Function<Slot, B> bind) {
+        return Mono.deferContextual(context -> {
+            AtomicReference<Slot> admitted = new AtomicReference<>();
+            return acquire(lane)
+                    .map(slot -> {
+                        admitted.set(slot);
+                        context.<SlotLeases>getOrEmpty(SlotLeases.class).ifPresent(leases -> leases.add(slot::release));
+                        return bind.apply(slot);
+                    })
+                    .doOnCancel(() -> {
+                        Slot slot = admitted.get();
+                        if (slot != null) {
+                            slot.releaseUnclaimed();
+                        }
+                    });
+        });
+    }
+
+    private Mono<Slot> acquire(Lane lane) {
+        return Mono.<Slot>create(lane::acquire).doOnDiscard(Slot.class, Slot::release);
+    }
+
+    private Lane lane(String model) {
+        String key = key(model);
+        int parallel = parallel(key);
+        if (parallel <= 0) {
+            return null;
+        }
+        return lanes.computeIfAbsent(laneKey(key), name -> {
+            Lane lane = new Lane(name, parallel, Math.max(0, properties.getSlots().getMaxQueue()));
+            MeterRegistry target = registry;
+            if (target != null) {
+                lane.bindTo(target);
+            }
+            return lane;
+        });
+    }
+
+    private int parallel(String key) {
+        Integer parallel = override(key);
+        return parallel != null ? parallel : properties.getSlots().getParallel();
+    }
+
+    private Integer override(String key) {
+        Map<String, Integer> overrides = properties.getSlots().getModels();
+        Integer parallel = overrides.get(key);
+        if (parallel == null && key.endsWith(LATEST)) {
+            parallel = overrides.get(untagged(key));
+        }
+        return parallel;
+    }
+
+    private String laneKey(String key) {
+        boolean known = override(key) != null
+                || models.find(key).isPresent()
+                || (key.endsWith(LATEST) && models.find(untagged(key)).isPresent());
+        return known ? key : OTHER;
+    }
+
+    private static String untagged(String key) {
+        return key.substring(0, key.length() - LATEST.length());
+    }
+
+    private String key(String model) {
+        String name = StringUtils.hasText(model) ? model : properties.getDefaultModel();
+        return name.contains(":") ? name : name + LATEST;
+    }
+
+    private static final class Lane {
+
+        private final String model;
+        private final int parallel;
+        private final int maxQueue;
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        private final LongAdder rejected = new LongAdder();
+        private int active;
+        private volatile Timer wait;
+
+        Lane(String model, int parallel, int maxQueue) {
+            this.model = model;
+            this.parallel = parallel;
+            this.maxQueue = maxQueue;
+        }
+
+        void acquire(MonoSink<Slot> sink) {
+            Waiter waiter = null;
+            boolean admitted = false;
+            synchronized (this) {
+                if (active < parallel) {
+                    active++;
+                    admitted = true;
+                } else if (queue.size() < maxQueue) {
+                    waiter = new Waiter(sink, System.nanoTime());
+                    queue.addLast(waiter);
+                }
+            }
+            if (admitted) {
+                recordWait(0);
+                sink.success(new Slot(this));
+            } else if (waiter != null) {
+                Waiter queued = waiter;
+                sink.onCancel(() -> leave(queued));
+            } else {
+                rejected.increment();
+                sink.error(new ServerBusyException());
+            }
+        }
+
+        void release() {
+            Waiter next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    active--;
+                }
+            }
+            if (next != null) {
+                recordWait(System.nanoTime() - next.enqueued());
+                next.sink().success(new Slot(this));
+            }
+        }
+
+        synchronized int active() {
+            return active;
+        }
+
+        synchronized int queued() {
+            return queue.size();
+        }
+
+        void bindTo(MeterRegistry registry) {
+            wait = Timer.builder("ollama.mock.slots.wait")
+                    .description("Time a request waited for a model slot")
+                    .tag("model", model)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            Gauge.builder("ollama.mock.slots.queued", this, Lane::queued)
+                    .description("Requests waiting for a model slot")
+                    .tag("model", model)
+                    .register(registry);
+            Gauge.builder("ollama.mock.slots.active", this, Lane::active)
+                    .description("Requests holding a model slot")
+                    .tag("model", model)
+                    .register(registry);
+            FunctionCounter.builder("ollama.mock.slots.rejected", rejected, LongAdder::sum)
+                    .description("Requests rejected because the model's slot queue was full")
+                    .tag("model", model)
+                    .register(registry);
+        }
+
+        private synchronized void leave(Waiter waiter) {
+            queue.remove(waiter);
+        }
+
+        private void recordWait(long nanos) {
+            Timer timer = wait;
+            if (timer != null) {
+                timer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private record Waiter(MonoSink<Slot> sink, long enqueued) {
+    }
+
+    private static final class Slot {
+
+        private final Lane lane;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean claimed;
+
+        Slot(Lane lane) {
+            this.lane = lane;
+        }
+
+        void claim() {
+            claimed = true;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                lane.release();
+            }
+        }
+
+        void releaseUnclaimed() {
+            if (!claimed) {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.awesome.testing.ollama.scheduling;
+
+/**
+ * A model's slot queue is full. Answered with 503 and Ollama's own error message.
+ */
+public class ServerBusyException extends RuntimeException {
+
+    public ServerBusyException() {
+        super("server busy, please try again.  maximum pending requests exceeded", null, false, false);
+    }
+}
@@ -0,0 +1,48 @@
+package com.awesome.testing.ollama.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import reactor.core.publisher.Mono;
+
+/**
+ * Slots admitted on behalf of one exchange, released when the exchange ends. This covers the window
+ * between admission and the response body being subscribed: a client that disconnects, or a failed
+ * header write, would otherwise leave the slot held forever because the body never runs.
+ */
+public final class SlotLeases {
+
+    private final List<Runnable> releases = new ArrayList<>(1);
+    private boolean closed;
+
+    /**
+     * Runs {@code exchange} with a fresh set of leases in its context and releases whatever it
+     * admitted once it completes, fails or is cancelled.
+     */
+    public static <T> Mono<T> bracket(Mono<T> exchange) {
+        return Mono.defer(() -> {
+            SlotLeases leases = new SlotLeases();
+            return exchange.doFinally(signal -> leases.releaseAll())
+                    .contextWrite(context -> context.put(SlotLeases.class, leases));
+        });
+    }
+
+    void add(Runnable release) {
+        synchronized (this) {
+            if (!closed) {
+                releases.add(release);
+                return;
+            }
+        }
+        release.run();
+    }
+
+    private void releaseAll() {
+        List<Runnable> pending;
+        synchronized (this) {
+            closed = true;
+            pending = List.copyOf(releases);
+            releases.clear();
+        }
+        pending.forEach(Runnable::run);
+    }
+}
@@ -4,13 +4,26 @@ import com.awesome.testing.ollama.config.OllamaMockProperties;
 import com.awesome.testing.ollama.dto.ChatMessageDto;
 import com.awesome.testing.ollama.dto.ChatRequestDto;
 import com.awesome.testing.ollama.dto.ChatResponseDto;
-import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioDefinition;
+import com.awesome.testing.ollama.logging.TokenStreamLogger;
+import com.awesome.testing.ollama.logging.TokenStreamLogger.StreamLog;
+import com.awesome.testing.ollama.metrics.StreamMetrics;
+import com.awesome.testing.ollama.metrics.StreamMetrics.Endpoint;
+import com.awesome.testing.ollama.metrics.StreamMetrics.ScenarioOutcome;
+import com.awesome.testing.ollama.pacing.LatencyModel;
+import com.awesome.testing.ollama.pacing.PacingPolicy;
+import com.awesome.testing.ollama.pacing.StreamLatency;
+import com.awesome.testing.ollama.pacing.TokenPacer;
+import com.awesome.testing.ollama.scenario.TokenizedText;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioPlan;
 import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioRepository;
-import com.awesome.testing.ollama.util.TokenStreamUtils;
-import java.time.Duration;
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import com.awesome.testing.ollama.stream.CoalescedTokens;
+import com.awesome.testing.ollama.stream.CoalescingPolicy;
+import com.awesome.testing.ollama.stream.StreamFrame;
+import com.awesome.testing.ollama.stream.StreamTimings;
+import com.awesome.testing.ollama.util.CoarseClock;
+import com.awesome.testing.ollama.web.RequestOverrides;
 import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,26 +37,59 @@ import reactor.core.publisher.Mono;
 public class ChatService {
 
     private static final Logger log = LoggerFactory.getLogger(ChatService.class);
+    private static final String UNSUPPORTED_SCENARIO = "(unsupported prompt)";
 
     private final OllamaMockProperties properties;
+    private final TokenPacer tokenPacer;
+    private final LatencyModel latencyModel;
+    private final TokenStreamLogger tokenLogger;
+    private final StreamMetrics streamMetrics;
     private final ChatDialogueScenarioRepository scenarioRepository;
 
     public Flux<ChatResponseDto> chatStream(ChatRequestDto request) {
-        String model = resolveModel(request.getModel());
-        boolean thinkingEnabled = Boolean.TRUE.equals(request.getThink());
-        Flux<ChatResponseDto> conversation = scenarioRepository.findScenario(request.getMessages())
-                .map(scenario -> streamScenario(model, scenario, thinkingEnabled))
-                .orElseGet(() -> streamUnsupportedPrompt(model));
-        return conversation.concatWithValues(doneChunk(model))
-                .concatMap(this::applyTokenDelay);
+        long requested = System.nanoTime();
+        return Flux.deferContextual(context -> {
+            String model = resolveModel(request.getModel());
+            boolean thinkingEnabled = Boolean.TRUE.equals(request.getThink());
+            Optional<ChatDialogueScenarioPlan> scenario = recordScenario(scenarioRepository.findScenario(
+                    RequestOverrides.from(context).getConversationId(), request.getMessages()));
+            StreamLog streamLog = tokenLogger.open(log, "chat-stream",
+                    scenario.map(ChatDialogueScenarioPlan::getPrompt).orElse(UNSUPPORTED_SCENARIO), context);
+            RequestOverrides overrides = RequestOverrides.from(context);
+            PacingPolicy pacing = PacingPolicy.resolve(properties.getTokenDelay(), request.getOptions(),
+                    overrides.getTokenDelay(), overrides.isFirehose());
+            CoalescingPolicy coalescing = CoalescingPolicy.resolve(
+                    properties.getCoalescing(), request.getOptions(), pacing.getTokenDelay());
+            Flux<StreamFrame<ChatResponseDto>> conversation = scenario
+                    .map(plan -> streamScenario(model, plan, thinkingEnabled, coalescing, streamLog))
+                    .orElseGet(() -> streamUnsupportedPrompt(model, latestUserContent(request), coalescing, streamLog));
+            StreamLatency latency = latencyModel.open(model, request.getMessages(), pacing.getTokenDelay());
+            StreamTimings timings = new StreamTimings(requested, latency.promptTokens());
+            Flux<StreamFrame<ChatResponseDto>> paced = timings.record(tokenPacer.pace(
+                    conversation.concatWithValues(StreamFrame.done(doneChunk(model))),
+                    pacing,
+                    latency::delay));
+            return streamLog.track(streamMetrics.track(Endpoint.CHAT, paced), StreamFrame::getTokens)
+                    .map(StreamFrame::getChunk);
+        });
     }
 
     public Mono<ChatResponseDto> chatSingle(ChatRequestDto request) {
-        String model = resolveModel(request.getModel());
-        boolean thinkingEnabled = Boolean.TRUE.equals(request.getThink());
-        return scenarioRepository.findScenario(request.getMessages())
-                .map(scenario -> Mono.just(aggregateScenario(model, scenario, thinkingEnabled)))
-                .orElseGet(() -> Mono.just(unsupportedPrompt(model)));
+        return Mono.deferContextual(context -> {
+            String model = resolveModel(request.getModel());
+            boolean thinkingEnabled = Boolean.TRUE.equals(request.getThink());
+            return recordScenario(scenarioRepository.findScenario(
+                    RequestOverrides.from(context).getConversationId(), request.getMessages()))
+                    .map(scenario -> Mono.just(aggregateScenario(model, scenario, thinkingEnabled)))
+                    .orElseGet(() -> Mono.just(unsupportedPrompt(model, latestUserContent(request))));
+        });
+    }
+
+    private Optional<ChatDialogueScenarioPlan> recordScenario(Optional<ChatDialogueScenarioPlan> scenario) {
+        scenario.ifPresentOrElse(
+                plan -> streamMetrics.scenario(Endpoint.CHAT, plan.getPrompt(), ScenarioOutcome.HIT),
+                () -> streamMetrics.scenario(Endpoint.CHAT, null, ScenarioOutcome.UNSUPPORTED));
+        return scenario;
     }
 
     private String resolveModel(String requestedModel) {
@@ -53,40 +99,59 @@ public class ChatService {
         return properties.getDefaultModel();
     }
 
-    private Flux<ChatResponseDto> streamScenario(String model,
-                                                 ChatDialogueScenarioDefinition scenario,
-                                                 boolean thinkingEnabled) {
-        log.info("[chat-stream] prompt='{}' think={} model={}", scenario.getPrompt(), thinkingEnabled, model);
+    private Flux<StreamFrame<ChatResponseDto>> streamScenario(String model,
+                                                              ChatDialogueScenarioPlan scenario,
+                                                              boolean thinkingEnabled,
+                                                              CoalescingPolicy coalescing,
+                                                              StreamLog streamLog) {
+        streamLog.event("[chat-stream] prompt='{}' think={} model={}", scenario.getPrompt(), thinkingEnabled, model);
         return Flux.fromIterable(scenario.getChunks())
                 .concatMap(chunk -> Flux.concat(
-                        thinkingEnabled && StringUtils.hasText(chunk.getThinking())
-                                ? streamThinkingTokens(model, chunk.getThinking())
+                        thinkingEnabled && !chunk.getThinking().isEmpty()
+                                ? streamThinkingTokens(model, chunk.getThinking().getTokens(), coalescing, streamLog)
                                 : Flux.empty(),
-                        StringUtils.hasText(chunk.getResponse())
-                                ? streamContentTokens(model, chunk.getResponse())
+                        !chunk.getResponse().isEmpty()
+                                ? streamContentTokens(model, chunk.getResponse().getTokens(), coalescing, streamLog)
                                 : Flux.empty()
                 ));
     }
 
-    private Flux<ChatResponseDto> streamUnsupportedPrompt(String model) {
-        return streamContentTokens(model, formatSupportedPromptMessage("Sorry, only these chat prompts are supported:"));
+    private Flux<StreamFrame<ChatResponseDto>> streamUnsupportedPrompt(String model,
+                                                                       String prompt,
+                                                                       CoalescingPolicy coalescing,
+                                                                       StreamLog streamLog) {
+        return streamContentTokens(model, TokenizedText.ofRequest(
+                formatSupportedPromptMessage("Sorry, only these chat prompts are supported:", prompt)).getTokens(),
+                coalescing, streamLog);
     }
 
-    private ChatResponseDto unsupportedPrompt(String model) {
-        String message = formatSupportedPromptMessage("Sorry, only these chat prompts are supported:");
+    private ChatResponseDto unsupportedPrompt(String model, String prompt) {
+        String message = formatSupportedPromptMessage("Sorry, only these chat prompts are supported:", prompt);
         return contentChunk(model, message);
     }
 
-    private String formatSupportedPromptMessage(String prefix) {
-        List<String> prompts = scenarioRepository.supportedPrompts();
-        if (prompts.isEmpty()) {
+    private String latestUserContent(ChatRequestDto request) {
+        List<ChatMessageDto> messages = Optional.ofNullable(request.getMessages()).orElse(List.of());
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if ("user".equalsIgnoreCase(messages.get(i).getRole())) {
+                return messages.get(i).getContent();
+            }
+        }
+        return null;
+    }
+
+    private String formatSupportedPromptMessage(String prefix, String prompt) {
+        int total = scenarioRepository.supportedPrompts().size();
+        if (total == 0) {
             return prefix + " (no chat prompts configured)";
         }
-        String joined = prompts.stream()
-                .map(prompt -> "- " + prompt)
-                .reduce((a, b) -> a + "\n" + b)
-                .orElse("");
-        return prefix + "\n" + joined;
+        List<String> nearest = scenarioRepository.suggestPrompts(prompt);
+        StringBuilder message = new StringBuilder(prefix);
+        nearest.forEach(suggestion -> message.append("\n- ").append(suggestion));
+        if (total > nearest.size()) {
+            message.append("\n(and ").append(total - nearest.size()).append(" more)");
+        }
+        return message.toString();
     }
 
     private ChatResponseDto thinkingChunk(String model, String content) {
@@ -108,7 +173,7 @@ public class ChatService {
     private ChatResponseDto doneChunk(String model) {
         return ChatResponseDto.builder()
                 .model(model)
-                .createdAt(OffsetDateTime.now(ZoneOffset.UTC).toString())
+                .createdAt(CoarseClock.now())
                 .done(true)
                 .build();
     }
@@ -116,64 +181,45 @@ public class ChatService {
     private ChatResponseDto chunk(String model, ChatMessageDto message) {
         return ChatResponseDto.builder()
                 .model(model)
-                .createdAt(OffsetDateTime.now(ZoneOffset.UTC).toString())
+                .createdAt(CoarseClock.now())
                 .message(message)
                 .done(false)
                 .build();
     }
 
-    private Flux<ChatResponseDto> streamThinkingTokens(String model, String text) {
-        List<String> tokens = TokenStreamUtils.tokenize(text);
-        return Flux.fromIterable(tokens)
-                .doOnSubscribe(sub -> log.info("[chat-stream][thinking] {} token(s) queued", tokens.size()))
-                .doOnNext(token -> log.info("[chat-stream][thinking-token] {}", TokenStreamUtils.printable(token)))
-                .map(token -> thinkingChunk(model, token));
+    private Flux<StreamFrame<ChatResponseDto>> streamThinkingTokens(String model,
+                                                                    List<String> tokens,
+                                                                    CoalescingPolicy coalescing,
+                                                                    StreamLog streamLog) {
+        CoalescedTokens groups = CoalescedTokens.of(tokens, coalescing);
+        return Flux.range(0, groups.size())
+                .doOnSubscribe(sub -> streamLog.queued("thinking", tokens.size()))
+                .doOnNext(index -> streamLog.token("thinking", groups.text(index)))
+                .map(index -> StreamFrame.token(thinkingChunk(model, groups.text(index)), groups.tokenCount(index)));
     }
 
-    private Flux<ChatResponseDto> streamContentTokens(String model, String text) {
-        List<String> tokens = TokenStreamUtils.tokenize(text);
-        return Flux.fromIterable(tokens)
-                .doOnSubscribe(sub -> log.info("[chat-stream][content] {} token(s) queued", tokens.size()))
-                .doOnNext(token -> log.info("[chat-stream][content-token] {}", TokenStreamUtils.printable(token)))
-                .map(token -> contentChunk(model, token));
-    }
-
-    private Mono<ChatResponseDto> applyTokenDelay(ChatResponseDto chunk) {
-        Duration delay = chunk.isDone() ? Duration.ZERO : properties.getTokenDelay();
-        if (delay.isZero() || delay.isNegative()) {
-            return Mono.just(chunk);
-        }
-        return Mono.just(chunk).delayElement(delay);
+    private Flux<StreamFrame<ChatResponseDto>> streamContentTokens(String model,
+                                                                   List<String> tokens,
+                                                                   CoalescingPolicy coalescing,
+                                                                   StreamLog streamLog) {
+        CoalescedTokens groups = CoalescedTokens.of(tokens, coalescing);
+        return Flux.range(0, groups.size())
+                .doOnSubscribe(sub -> streamLog.queued("content", tokens.size()))
+                .doOnNext(index -> streamLog.token("content", groups.text(index)))
+                .map(index -> StreamFrame.token(contentChunk(model, groups.text(index)), groups.tokenCount(index)));
     }
 
     private ChatResponseDto aggregateScenario(String model,
-                                              ChatDialogueScenarioDefinition scenario,
+                                              ChatDialogueScenarioPlan scenario,
                                               boolean thinkingEnabled) {
-        StringBuilder thinking = new StringBuilder();
-        StringBuilder content = new StringBuilder();
-        scenario.getChunks().forEach(chunk -> {
-            if (thinkingEnabled && StringUtils.hasText(chunk.getThinking())) {
-                appendSection(thinking, chunk.getThinking());
-            }
-            if (StringUtils.hasText(chunk.getResponse())) {
-                appendSection(content, chunk.getResponse());
-            }
-        });
         ChatMessageDto.ChatMessageDtoBuilder builder = ChatMessageDto.builder()
                 .role("assistant");
-        if (thinkingEnabled && thinking.length() > 0) {
-            builder.thinking(thinking.toString());
+        if (thinkingEnabled && scenario.getAggregatedThinking() != null) {
+            builder.thinking(scenario.getAggregatedThinking());
         }
-        if (content.length() > 0) {
-            builder.content(content.toString());
+        if (scenario.getAggregatedContent() != null) {
+            builder.content(scenario.getAggregatedContent());
         }
         return chunk(model, builder.build());
     }
-
-    private void appendSection(StringBuilder builder, String addition) {
-        if (builder.length() > 0) {
-            builder.append("\n\n");
-        }
-        builder.append(addition);
-    }
 }
@@ -6,11 +6,27 @@ import com.awesome.testing.ollama.dto.ChatRequestDto;
 import com.awesome.testing.ollama.dto.ChatResponseDto;
 import com.awesome.testing.ollama.dto.ToolCallDto;
 import com.awesome.testing.ollama.dto.ToolCallFunctionDto;
-import com.awesome.testing.ollama.scenario.chat.ChatScenarioDefinition;
+import com.awesome.testing.ollama.logging.TokenStreamLogger;
+import com.awesome.testing.ollama.logging.TokenStreamLogger.StreamLog;
+import com.awesome.testing.ollama.metrics.StreamMetrics;
+import com.awesome.testing.ollama.metrics.StreamMetrics.Endpoint;
+import com.awesome.testing.ollama.metrics.StreamMetrics.ScenarioOutcome;
+import com.awesome.testing.ollama.pacing.LatencyModel;
+import com.awesome.testing.ollama.pacing.PacingPolicy;
+import com.awesome.testing.ollama.pacing.StreamLatency;
+import com.awesome.testing.ollama.pacing.TokenPacer;
+import com.awesome.testing.ollama.scenario.ConversationSessions.Conversation;
+import com.awesome.testing.ollama.scenario.TokenizedText;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioPlan;
 import com.awesome.testing.ollama.scenario.chat.ChatScenarioRepository;
-import com.awesome.testing.ollama.scenario.chat.ChatScenarioStageDefinition;
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioStagePlan;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioTrigger;
+import com.awesome.testing.ollama.stream.CoalescedTokens;
+import com.awesome.testing.ollama.stream.CoalescingPolicy;
+import com.awesome.testing.ollama.stream.StreamFrame;
+import com.awesome.testing.ollama.stream.StreamTimings;
+import com.awesome.testing.ollama.util.CoarseClock;
+import com.awesome.testing.ollama.web.RequestOverrides;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,35 +37,61 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import com.awesome.testing.ollama.util.TokenStreamUtils;
-import java.time.Duration;
 
 @Service
 @RequiredArgsConstructor
 public class ChatToolsService {
 
     private static final Logger log = LoggerFactory.getLogger(ChatToolsService.class);
+    private static final String UNSUPPORTED_SCENARIO = "(unsupported prompt)";
 
     private final OllamaMockProperties properties;
+    private final TokenPacer tokenPacer;
+    private final LatencyModel latencyModel;
+    private final TokenStreamLogger tokenLogger;
+    private final StreamMetrics streamMetrics;
     private final ChatScenarioRepository scenarioRepository;
 
     public Flux<ChatResponseDto> chatToolStream(ChatRequestDto request) {
-        String model = resolveModel(request.getModel());
-        Flux<ChatResponseDto> conversation = scenarioRepository.findScenarioForConversation(request.getMessages())
-                .map(scenario -> streamStage(model, scenario, request))
-                .orElseGet(() -> streamUnsupportedPrompt(model));
-        return conversation.concatWithValues(doneChunk(model))
-                .concatMap(this::applyAdaptiveDelay);
+        long requested = System.nanoTime();
+        return Flux.deferContextual(context -> {
+            String model = resolveModel(request.getModel());
+            Conversation<ChatScenarioPlan> conversation = scenarioRepository.findConversation(
+                    RequestOverrides.from(context).getConversationId(), request.getMessages());
+            Optional<ChatScenarioPlan> scenario = recordUnsupported(conversation.plan());
+            StreamLog streamLog = tokenLogger.open(log, "chat-tools",
+                    scenario.map(ChatScenarioPlan::getPrompt).orElse(UNSUPPORTED_SCENARIO), context);
+            RequestOverrides overrides = RequestOverrides.from(context);
+            PacingPolicy pacing = PacingPolicy.resolve(properties.getTokenDelay(), request.getOptions(),
+                    overrides.getTokenDelay(), overrides.isFirehose());
+            CoalescingPolicy coalescing = CoalescingPolicy.resolve(
+                    properties.getCoalescing(), request.getOptions(), pacing.getTokenDelay());
+            Flux<StreamFrame<ChatResponseDto>> frames = scenario
+                    .map(plan -> streamStage(model, plan, conversation, request, coalescing, streamLog))
+                    .orElseGet(() -> streamUnsupportedPrompt(model, latestUserContent(request), coalescing, streamLog));
+            StreamLatency latency = latencyModel.open(model, request.getMessages(), pacing.getTokenDelay());
+            StreamTimings timings = new StreamTimings(requested, latency.promptTokens());
+            Flux<StreamFrame<ChatResponseDto>> paced = timings.record(tokenPacer.pace(
+                    frames.concatWithValues(StreamFrame.done(doneChunk(model))),
+                    pacing,
+                    latency::delay));
+            return streamLog.track(streamMetrics.track(Endpoint.CHAT_TOOLS, paced), StreamFrame::getTokens)
+                    .map(StreamFrame::getChunk);
+        });
     }
 
     public Mono<ChatResponseDto> chatToolSingle(ChatRequestDto request) {
-        String model = resolveModel(request.getModel());
-        return scenarioRepository.findScenarioForConversation(request.getMessages())
-                .map(scenario -> determineStage(scenario, request)
-                        .map(stage -> resolveSingleStageChunk(model, stage))
-                        .orElseGet(() -> unhandledStageChunk(model, scenario.getPrompt())))
-                .map(Mono::just)
-                .orElseGet(() -> Mono.just(unsupportedPromptChunk(model)));
+        return Mono.deferContextual(context -> {
+            String model = resolveModel(request.getModel());
+            Conversation<ChatScenarioPlan> conversation = scenarioRepository.findConversation(
+                    RequestOverrides.from(context).getConversationId(), request.getMessages());
+            return recordUnsupported(conversation.plan())
+                    .map(scenario -> recordStage(scenario, determineStage(scenario, conversation, request))
+                            .map(stage -> resolveSingleStageChunk(model, stage))
+                            .orElseGet(() -> unhandledStageChunk(model, scenario.getPrompt())))
+                    .map(Mono::just)
+                    .orElseGet(() -> Mono.just(unsupportedPromptChunk(model, latestUserContent(request))));
+        });
     }
 
     private String resolveModel(String requestedModel) {
@@ -59,43 +101,49 @@ public class ChatToolsService {
         return properties.getDefaultModel();
     }
 
-    private Flux<ChatResponseDto> streamStage(String model,
-                                              ChatScenarioDefinition scenario,
-                                              ChatRequestDto request) {
-        Optional<ChatScenarioStageDefinition> stage = determineStage(scenario, request);
+    private Flux<StreamFrame<ChatResponseDto>> streamStage(String model,
+                                                           ChatScenarioPlan scenario,
+                                                           Conversation<ChatScenarioPlan> conversation,
+                                                           ChatRequestDto request,
+                                                           CoalescingPolicy coalescing,
+                                                           StreamLog streamLog) {
+        Optional<ChatScenarioStagePlan> stage = recordStage(scenario, determineStage(scenario, conversation, request));
         if (stage.isEmpty()) {
-            return streamContentTokens(model,
+            return streamContentTokens(model, TokenizedText.ofRequest(
                     "This step for prompt \"%s\" is not configured yet. Please restart the conversation."
-                            .formatted(scenario.getPrompt()));
+                            .formatted(scenario.getPrompt())).getTokens(), coalescing, streamLog);
         }
-        ChatScenarioStageDefinition resolvedStage = stage.get();
+        ChatScenarioStagePlan resolvedStage = stage.get();
 
-        Flux<ChatResponseDto> responseStream = Flux.empty();
-        if (StringUtils.hasText(resolvedStage.getResponse())) {
-            responseStream = streamContentTokens(model, resolvedStage.getResponse());
+        Flux<StreamFrame<ChatResponseDto>> responseStream = Flux.empty();
+        if (!resolvedStage.getResponse().isEmpty()) {
+            responseStream = streamContentTokens(model, resolvedStage.getResponse().getTokens(), coalescing, streamLog);
         }
 
-        Flux<ChatResponseDto> toolCallStream = Flux.empty();
+        Flux<StreamFrame<ChatResponseDto>> toolCallStream = Flux.empty();
         if (resolvedStage.getToolCall() != null) {
-            log.info("[chat-tools][call] prompt='{}' issuing {}", scenario.getPrompt(), resolvedStage.getToolCall().getName());
-            toolCallStream = Flux.just(toolCallChunk(model, resolvedStage));
+            streamLog.event("[chat-tools][call] prompt='{}' issuing {}", scenario.getPrompt(), resolvedStage.getToolCall().getName());
+            toolCallStream = Flux.just(StreamFrame.toolCall(toolCallChunk(model, resolvedStage)));
         }
 
-        if (resolvedStage.getToolCall() == null && !StringUtils.hasText(resolvedStage.getResponse())) {
+        if (resolvedStage.getToolCall() == null && resolvedStage.getResponse().isEmpty()) {
             return Flux.empty();
         }
 
         return responseStream.concatWith(toolCallStream);
     }
 
-    private Optional<ChatScenarioStageDefinition> determineStage(ChatScenarioDefinition scenario,
-                                                                 ChatRequestDto request) {
+    private Optional<ChatScenarioStagePlan> determineStage(ChatScenarioPlan scenario,
+                                                           Conversation<ChatScenarioPlan> conversation,
+                                                           ChatRequestDto request) {
         ChatMessageDto latest = latestMessage(request);
         if (latest == null) {
             return Optional.empty();
         }
         if ("tool".equalsIgnoreCase(latest.getRole())) {
-            return scenario.stageForTool(latest.getToolName());
+            String toolName = latest.getToolName();
+            int occurrence = scenario.toolStageCount(toolName) > 1 ? conversation.toolResults(toolName) : 1;
+            return scenario.stageForTool(toolName, occurrence);
         }
         if ("user".equalsIgnoreCase(latest.getRole())) {
             return scenario.stageForUserPrompt();
@@ -103,6 +151,24 @@ public class ChatToolsService {
         return Optional.empty();
     }
 
+    private Optional<ChatScenarioPlan> recordUnsupported(Optional<ChatScenarioPlan> scenario) {
+        if (scenario.isEmpty()) {
+            streamMetrics.scenario(Endpoint.CHAT_TOOLS, null, ScenarioOutcome.UNSUPPORTED);
+        }
+        return scenario;
+    }
+
+    private Optional<ChatScenarioStagePlan> recordStage(ChatScenarioPlan scenario,
+                                                        Optional<ChatScenarioStagePlan> stage) {
+        stage.ifPresentOrElse(resolved -> {
+            streamMetrics.scenario(Endpoint.CHAT_TOOLS, scenario.getPrompt(), ScenarioOutcome.HIT);
+            streamMetrics.stageTransition(
+                    resolved.getTrigger() == ChatScenarioTrigger.TOOL ? resolved.getToolNameNormalized() : "user",
+                    resolved.getToolCall() == null ? null : resolved.getToolCall().getName());
+        }, () -> streamMetrics.scenario(Endpoint.CHAT_TOOLS, scenario.getPrompt(), ScenarioOutcome.MISS));
+        return stage;
+    }
+
     private ChatMessageDto latestMessage(ChatRequestDto request) {
         List<ChatMessageDto> messages = Optional.ofNullable(request.getMessages()).orElse(List.of());
         for (int i = messages.size() - 1; i >= 0; i--) {
@@ -114,13 +180,18 @@ public class ChatToolsService {
         return null;
     }
 
-    private ChatResponseDto unsupportedPromptChunk(String model) {
-        String content = formatSupportedPromptMessage("Sorry, only these chat tool prompts are supported:");
+    private ChatResponseDto unsupportedPromptChunk(String model, String prompt) {
+        String content = formatSupportedPromptMessage("Sorry, only these chat tool prompts are supported:", prompt);
         return contentChunk(model, content);
     }
 
-    private Flux<ChatResponseDto> streamUnsupportedPrompt(String model) {
-        return streamContentTokens(model, formatSupportedPromptMessage("Sorry, only these chat tool prompts are supported:"));
+    private Flux<StreamFrame<ChatResponseDto>> streamUnsupportedPrompt(String model,
+                                                                       String prompt,
+                                                                       CoalescingPolicy coalescing,
+                                                                       StreamLog streamLog) {
+        return streamContentTokens(model, TokenizedText.ofRequest(
+                formatSupportedPromptMessage("Sorry, only these chat tool prompts are supported:", prompt)).getTokens(),
+                coalescing, streamLog);
     }
 
     private ChatResponseDto unhandledStageChunk(String model, String prompt) {
@@ -129,19 +200,31 @@ public class ChatToolsService {
         return contentChunk(model, content);
     }
 
-    private String formatSupportedPromptMessage(String prefix) {
-        List<String> prompts = scenarioRepository.supportedPrompts();
-        if (prompts.isEmpty()) {
+    private String latestUserContent(ChatRequestDto request) {
+        List<ChatMessageDto> messages = Optional.ofNullable(request.getMessages()).orElse(List.of());
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if ("user".equalsIgnoreCase(messages.get(i).getRole())) {
+                return messages.get(i).getContent();
+            }
+        }
+        return null;
+    }
+
+    private String formatSupportedPromptMessage(String prefix, String prompt) {
+        int total = scenarioRepository.supportedPrompts().size();
+        if (total == 0) {
             return prefix + " (no tool prompts configured)";
         }
-        String joined = prompts.stream()
-                .map(name -> "- " + name)
-                .reduce((a, b) -> a + "\n" + b)
-                .orElse("");
-        return prefix + "\n" + joined;
+        List<String> nearest = scenarioRepository.suggestPrompts(prompt);
+        StringBuilder message = new StringBuilder(prefix);
+        nearest.forEach(suggestion -> message.append("\n- ").append(suggestion));
+        if (total > nearest.size()) {
+            message.append("\n(and ").append(total - nearest.size()).append(" more)");
+        }
+        return message.toString();
     }
 
-    private ChatResponseDto toolCallChunk(String model, ChatScenarioStageDefinition stage) {
+    private ChatResponseDto toolCallChunk(String model, ChatScenarioStagePlan stage) {
         ToolCallDto toolCall = ToolCallDto.builder()
                 .id("toolcall-" + UUID.randomUUID())
                 .function(ToolCallFunctionDto.builder()
@@ -168,7 +251,7 @@ public class ChatToolsService {
     private ChatResponseDto doneChunk(String model) {
         return ChatResponseDto.builder()
                 .model(model)
-                .createdAt(OffsetDateTime.now(ZoneOffset.UTC).toString())
+                .createdAt(CoarseClock.now())
                 .done(true)
                 .build();
     }
@@ -176,45 +259,32 @@ public class ChatToolsService {
     private ChatResponseDto chunk(String model, ChatMessageDto message) {
         return ChatResponseDto.builder()
                 .model(model)
-                .createdAt(OffsetDateTime.now(ZoneOffset.UTC).toString())
+                .createdAt(CoarseClock.now())
                 .message(message)
                 .done(false)
                 .build();
     }
 
-    private Flux<ChatResponseDto> streamContentTokens(String model, String text) {
-        List<String> tokens = TokenStreamUtils.tokenize(text);
-        return Flux.fromIterable(tokens)
-                .doOnSubscribe(sub -> log.info("[chat-tools][content] {} token(s) queued", tokens.size()))
-                .doOnNext(token -> log.info("[chat-tools][content-token] {}", TokenStreamUtils.printable(token)))
-                .map(token -> contentChunk(model, token));
-    }
-
-    private Mono<ChatResponseDto> applyAdaptiveDelay(ChatResponseDto chunk) {
-        Duration delay;
-        if (chunk.isDone()) {
-            delay = Duration.ZERO;
-        } else if (chunk.getMessage() != null && chunk.getMessage().getToolCalls() != null
-                && !chunk.getMessage().getToolCalls().isEmpty()) {
-            delay = properties.getToolCallDelay();
-        } else {
-            delay = properties.getTokenDelay();
-        }
-        if (delay.isZero() || delay.isNegative()) {
-            return Mono.just(chunk);
-        }
-        return Mono.just(chunk).delayElement(delay);
+    private Flux<StreamFrame<ChatResponseDto>> streamContentTokens(String model,
+                                                                   List<String> tokens,
+                                                                   CoalescingPolicy coalescing,
+                                                                   StreamLog streamLog) {
+        CoalescedTokens groups = CoalescedTokens.of(tokens, coalescing);
+        return Flux.range(0, groups.size())
+                .doOnSubscribe(sub -> streamLog.queued("content", tokens.size()))
+                .doOnNext(index -> streamLog.token("content", groups.text(index)))
+                .map(index -> StreamFrame.token(contentChunk(model, groups.text(index)), groups.tokenCount(index)));
     }
 
-    private ChatResponseDto resolveSingleStageChunk(String model, ChatScenarioStageDefinition stage) {
+    private ChatResponseDto resolveSingleStageChunk(String model, ChatScenarioStagePlan stage) {
         if (stage.getToolCall() != null) {
-            if (StringUtils.hasText(stage.getResponse())) {
+            if (!stage.getResponse().isEmpty()) {
                 log.debug("[chat-tools][single] stage contains response and tool call; returning tool call chunk");
             }
             return toolCallChunk(model, stage);
         }
-        if (StringUtils.hasText(stage.getResponse())) {
-            return contentChunk(model, stage.getResponse());
+        if (!stage.getResponse().isEmpty()) {
+            return contentChunk(model, stage.getResponse().getText());
         }
         return contentChunk(model, "(no response configured for this stage)");
     }
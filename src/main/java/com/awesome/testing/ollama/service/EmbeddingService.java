@@ -0,0 +1,105 @@
+package com.awesome.testing.ollama.service;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.EmbedRequestDto;
+import com.awesome.testing.ollama.dto.EmbedResponseDto;
+import com.awesome.testing.ollama.dto.EmbeddingRequestDto;
+import com.awesome.testing.ollama.dto.EmbeddingResponseDto;
+import com.awesome.testing.ollama.util.TokenStreamUtils;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Serves {@code /api/embed} and the legacy {@code /api/embeddings} with {@link PseudoEmbeddings}.
+ * Dimensions and normalization come from {@code ollama.mock.embeddings}, per model where configured;
+ * {@code /api/embed} may ask for fewer dimensions with {@code dimensions}, and gets
+ * {@link InvalidRequestException} when asking for more than the model has. Batches of at least
+ * {@code parallel-threshold} inputs are split into slices generated on the parallel scheduler.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmbeddingService {
+
+    private final OllamaMockProperties properties;
+
+    public Mono<EmbedResponseDto> embed(EmbedRequestDto request) {
+        List<String> inputs = Optional.ofNullable(request.getInput()).orElse(List.of());
+        String model = request.getModel();
+        int modelDimensions = dimensions(model);
+        int dimensions = request.getDimensions() != null ? request.getDimensions() : modelDimensions;
+        if (dimensions > modelDimensions) {
+            return Mono.error(new InvalidRequestException("dimensions %d exceeds the %d of model '%s'"
+                    .formatted(dimensions, modelDimensions, model)));
+        }
+        boolean normalize = normalize(model);
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return vectors(model, inputs, dimensions, normalize).map(vectors -> EmbedResponseDto.builder()
+                    .model(model)
+                    .embeddings(vectors)
+                    .totalDuration(System.nanoTime() - started)
+                    .loadDuration(0L)
+                    .promptEvalCount(inputs.stream().mapToInt(TokenStreamUtils::wordCount).sum())
+                    .build());
+        });
+    }
+
+    public Mono<EmbeddingResponseDto> embedding(EmbeddingRequestDto request) {
+        String prompt = request.getPrompt();
+        return Mono.fromSupplier(() -> new EmbeddingResponseDto(prompt == null || prompt.isEmpty()
+                ? new float[0]
+                : PseudoEmbeddings.vector(request.getModel(), prompt, dimensions(request.getModel()),
+                        normalize(request.getModel()))));
+    }
+
+    private Mono<float[][]> vectors(String model, List<String> inputs, int dimensions, boolean normalize) {
+        float[][] vectors = new float[inputs.size()][];
+        int threshold = Math.max(1, properties.getEmbeddings().getParallelThreshold());
+        if (inputs.size() < threshold) {
+            return Mono.fromSupplier(() -> fill(vectors, model, inputs, 0, inputs.size(), dimensions, normalize));
+        }
+        int slices = Math.min(Schedulers.DEFAULT_POOL_SIZE, inputs.size());
+        int sliceSize = (inputs.size() + slices - 1) / slices;
+        return Flux.range(0, slices)
+                .parallel(slices)
+                .runOn(Schedulers.parallel())
+                .doOnNext(slice -> fill(vectors, model, inputs, slice * sliceSize,
+                        Math.min(inputs.size(), (slice + 1) * sliceSize), dimensions, normalize))
+                .sequential()
+                .then(Mono.just(vectors));
+    }
+
+    private static float[][] fill(float[][] vectors,
+                                  String model,
+                                  List<String> inputs,
+                                  int from,
+                                  int to,
+                                  int dimensions,
+                                  boolean normalize) {
+        for (int i = from; i < to; i++) {
+            vectors[i] = PseudoEmbeddings.vector(model, inputs.get(i), dimensions, normalize);
+        }
+        return vectors;
+    }
+
+    private int dimensions(String model) {
+        OllamaMockProperties.Embeddings embeddings = properties.getEmbeddings();
+        OllamaMockProperties.EmbeddingModel override = embeddings.getModels().get(model);
+        return override != null && override.getDimensions() != null
+                ? override.getDimensions()
+                : embeddings.getDimensions();
+    }
+
+    private boolean normalize(String model) {
+        OllamaMockProperties.Embeddings embeddings = properties.getEmbeddings();
+        OllamaMockProperties.EmbeddingModel override = embeddings.getModels().get(model);
+        return override != null && override.getNormalize() != null
+                ? override.getNormalize()
+                : embeddings.isNormalize();
+    }
+}
@@ -3,15 +3,26 @@ package com.awesome.testing.ollama.service;
 import com.awesome.testing.ollama.config.OllamaMockProperties;
 import com.awesome.testing.ollama.dto.GenerateResponseDto;
 import com.awesome.testing.ollama.dto.StreamedRequestDto;
-import com.awesome.testing.ollama.scenario.generate.GenerateScenarioDefinition;
+import com.awesome.testing.ollama.logging.TokenStreamLogger;
+import com.awesome.testing.ollama.logging.TokenStreamLogger.StreamLog;
+import com.awesome.testing.ollama.metrics.StreamMetrics;
+import com.awesome.testing.ollama.metrics.StreamMetrics.Endpoint;
+import com.awesome.testing.ollama.metrics.StreamMetrics.ScenarioOutcome;
+import com.awesome.testing.ollama.pacing.LatencyModel;
+import com.awesome.testing.ollama.pacing.PacingPolicy;
+import com.awesome.testing.ollama.pacing.StreamLatency;
+import com.awesome.testing.ollama.pacing.TokenPacer;
+import com.awesome.testing.ollama.scenario.TokenizedText;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioPlan;
 import com.awesome.testing.ollama.scenario.generate.GenerateScenarioRepository;
-import com.awesome.testing.ollama.util.TokenStreamUtils;
-import java.time.Duration;
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
-import java.util.ArrayList;
-import java.util.Collections;
+import com.awesome.testing.ollama.stream.CoalescedTokens;
+import com.awesome.testing.ollama.stream.CoalescingPolicy;
+import com.awesome.testing.ollama.stream.StreamFrame;
+import com.awesome.testing.ollama.stream.StreamTimings;
+import com.awesome.testing.ollama.util.CoarseClock;
+import com.awesome.testing.ollama.web.RequestOverrides;
 import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,25 +36,54 @@ import reactor.core.publisher.Mono;
 public class GenerateService {
 
     private static final Logger log = LoggerFactory.getLogger(GenerateService.class);
+    private static final String UNSUPPORTED_SCENARIO = "(unsupported prompt)";
 
     private final OllamaMockProperties properties;
+    private final TokenPacer tokenPacer;
+    private final LatencyModel latencyModel;
+    private final TokenStreamLogger tokenLogger;
+    private final StreamMetrics streamMetrics;
     private final GenerateScenarioRepository scenarioRepository;
 
     public Flux<GenerateResponseDto> generateStream(StreamedRequestDto request) {
-        String model = resolveModel(request.getModel());
-        boolean thinkingEnabled = Boolean.TRUE.equals(request.getThink());
-        Flux<GenerateResponseDto> stream = scenarioRepository.findByPrompt(request.getPrompt())
-                .map(scenario -> streamScenario(model, scenario, thinkingEnabled))
-                .orElseGet(() -> streamUnsupportedPrompt(model));
-        return stream.concatWithValues(doneChunk(model))
-                .concatMap(this::applyTokenDelay);
+        long requested = System.nanoTime();
+        return Flux.deferContextual(context -> {
+            String model = resolveModel(request.getModel());
+            boolean thinkingEnabled = Boolean.TRUE.equals(request.getThink());
+            Optional<GenerateScenarioPlan> scenario = recordScenario(scenarioRepository.findByPrompt(request.getPrompt()));
+            StreamLog streamLog = tokenLogger.open(log, "generate-stream",
+                    scenario.map(GenerateScenarioPlan::getPrompt).orElse(UNSUPPORTED_SCENARIO), context);
+            RequestOverrides overrides = RequestOverrides.from(context);
+            PacingPolicy pacing = PacingPolicy.resolve(properties.getTokenDelay(), request.getOptions(),
+                    overrides.getTokenDelay(), overrides.isFirehose());
+            CoalescingPolicy coalescing = CoalescingPolicy.resolve(
+                    properties.getCoalescing(), request.getOptions(), pacing.getTokenDelay());
+            Flux<StreamFrame<GenerateResponseDto>> stream = scenario
+                    .map(plan -> streamScenario(model, plan, thinkingEnabled, coalescing, streamLog))
+                    .orElseGet(() -> streamUnsupportedPrompt(model, request.getPrompt(), coalescing, streamLog));
+            StreamLatency latency = latencyModel.open(model, request.getPrompt(), pacing.getTokenDelay());
+            StreamTimings timings = new StreamTimings(requested, latency.promptTokens());
+            Flux<StreamFrame<GenerateResponseDto>> paced = timings.record(tokenPacer.pace(
+                    stream.concatWithValues(StreamFrame.done(doneChunk(model))),
+                    pacing,
+                    latency::delay));
+            return streamLog.track(streamMetrics.track(Endpoint.GENERATE, paced), StreamFrame::getTokens)
+                    .map(StreamFrame::getChunk);
+        });
     }
 
     public Mono<GenerateResponseDto> generateSingle(StreamedRequestDto request) {
         String model = resolveModel(request.getModel());
-        return scenarioRepository.findByPrompt(request.getPrompt())
+        return recordScenario(scenarioRepository.findByPrompt(request.getPrompt()))
                 .map(scenario -> Mono.just(selectSingleChunk(model, scenario)))
-                .orElseGet(() -> Mono.just(unsupportedPromptChunk(model, true)));
+                .orElseGet(() -> Mono.just(unsupportedPromptChunk(model, request.getPrompt(), true)));
+    }
+
+    private Optional<GenerateScenarioPlan> recordScenario(Optional<GenerateScenarioPlan> scenario) {
+        scenario.ifPresentOrElse(
+                plan -> streamMetrics.scenario(Endpoint.GENERATE, plan.getPrompt(), ScenarioOutcome.HIT),
+                () -> streamMetrics.scenario(Endpoint.GENERATE, null, ScenarioOutcome.UNSUPPORTED));
+        return scenario;
     }
 
     private String resolveModel(String requestedModel) {
@@ -53,29 +93,26 @@ public class GenerateService {
         return properties.getDefaultModel();
     }
 
-    private Flux<GenerateResponseDto> streamScenario(String model,
-                                                     GenerateScenarioDefinition scenario,
-                                                     boolean thinkingEnabled) {
-        log.info("[generate-stream] prompt='{}' think={} model={}", scenario.getPrompt(), thinkingEnabled, model);
+    private Flux<StreamFrame<GenerateResponseDto>> streamScenario(String model,
+                                                                  GenerateScenarioPlan scenario,
+                                                                  boolean thinkingEnabled,
+                                                                  CoalescingPolicy coalescing,
+                                                                  StreamLog streamLog) {
+        streamLog.event("[generate-stream] prompt='{}' think={} model={}", scenario.getPrompt(), thinkingEnabled, model);
         return Flux.fromIterable(scenario.getChunks())
                 .concatMap(chunk -> Flux.concat(
-                        thinkingEnabled && StringUtils.hasText(chunk.getThinking())
-                                ? streamThinkingTokens(model, chunk.getThinking())
+                        thinkingEnabled && !chunk.getThinking().isEmpty()
+                                ? streamThinkingTokens(model, chunk.getThinking().getTokens(), coalescing, streamLog)
                                 : Flux.empty(),
-                        StringUtils.hasText(chunk.getResponse())
-                                ? streamResponseTokens(model, chunk.getResponse())
+                        !chunk.getResponse().isEmpty()
+                                ? streamResponseTokens(model, chunk.getResponse().getTokens(), coalescing, streamLog)
                                 : Flux.empty()
                 ));
     }
 
-    private GenerateResponseDto selectSingleChunk(String model, GenerateScenarioDefinition scenario) {
-        List<com.awesome.testing.ollama.scenario.generate.GenerateScenarioChunkDefinition> chunks =
-                new ArrayList<>(scenario.getChunks());
-        Collections.reverse(chunks);
-        for (var chunk : chunks) {
-            if (StringUtils.hasText(chunk.getResponse())) {
-                return responseChunk(model, chunk.getResponse(), true);
-            }
+    private GenerateResponseDto selectSingleChunk(String model, GenerateScenarioPlan scenario) {
+        if (scenario.getSingleResponse() != null) {
+            return responseChunk(model, scenario.getSingleResponse(), true);
         }
         return responseChunk(
                 model,
@@ -83,32 +120,38 @@ public class GenerateService {
                 true);
     }
 
-    private GenerateResponseDto unsupportedPromptChunk(String model, boolean done) {
-        String message = formatSupportedPromptMessage("Sorry, only these prompts are supported for this endpoint:");
+    private GenerateResponseDto unsupportedPromptChunk(String model, String prompt, boolean done) {
+        String message = formatSupportedPromptMessage("Sorry, only these prompts are supported for this endpoint:", prompt);
         return responseChunk(model, message, done);
     }
 
-    private Flux<GenerateResponseDto> streamUnsupportedPrompt(String model) {
-        return streamResponseTokens(model,
-                formatSupportedPromptMessage("Sorry, only these prompts are supported for this endpoint:"));
+    private Flux<StreamFrame<GenerateResponseDto>> streamUnsupportedPrompt(String model,
+                                                                           String prompt,
+                                                                           CoalescingPolicy coalescing,
+                                                                           StreamLog streamLog) {
+        return streamResponseTokens(model, TokenizedText.ofRequest(
+                formatSupportedPromptMessage("Sorry, only these prompts are supported for this endpoint:", prompt)).getTokens(),
+                coalescing, streamLog);
     }
 
-    private String formatSupportedPromptMessage(String prefix) {
-        List<String> prompts = scenarioRepository.supportedPrompts();
-        if (prompts.isEmpty()) {
+    private String formatSupportedPromptMessage(String prefix, String prompt) {
+        int total = scenarioRepository.supportedPrompts().size();
+        if (total == 0) {
             return prefix + " (no scenarios configured)";
         }
-        String joined = prompts.stream()
-                .map(entry -> "- " + entry)
-                .reduce((a, b) -> a + "\n" + b)
-                .orElse("");
-        return prefix + "\n" + joined;
+        List<String> nearest = scenarioRepository.suggestPrompts(prompt);
+        StringBuilder message = new StringBuilder(prefix);
+        nearest.forEach(suggestion -> message.append("\n- ").append(suggestion));
+        if (total > nearest.size()) {
+            message.append("\n(and ").append(total - nearest.size()).append(" more)");
+        }
+        return message.toString();
     }
 
     private GenerateResponseDto thinkingChunk(String model, String thought) {
         return GenerateResponseDto.builder()
                 .model(model)
-                .createdAt(OffsetDateTime.now(ZoneOffset.UTC).toString())
+                .createdAt(CoarseClock.now())
                 .thinking(thought)
                 .done(false)
                 .build();
@@ -117,7 +160,7 @@ public class GenerateService {
     private GenerateResponseDto responseChunk(String model, String content, boolean done) {
         return GenerateResponseDto.builder()
                 .model(model)
-                .createdAt(OffsetDateTime.now(ZoneOffset.UTC).toString())
+                .createdAt(CoarseClock.now())
                 .response(content)
                 .done(done)
                 .build();
@@ -126,32 +169,30 @@ public class GenerateService {
     private GenerateResponseDto doneChunk(String model) {
         return GenerateResponseDto.builder()
                 .model(model)
-                .createdAt(OffsetDateTime.now(ZoneOffset.UTC).toString())
+                .createdAt(CoarseClock.now())
                 .done(true)
                 .build();
     }
 
-    private Flux<GenerateResponseDto> streamThinkingTokens(String model, String text) {
-        List<String> tokens = TokenStreamUtils.tokenize(text);
-        return Flux.fromIterable(tokens)
-                .doOnSubscribe(sub -> log.info("[generate-stream][thinking] {} token(s) queued", tokens.size()))
-                .doOnNext(token -> log.info("[generate-stream][thinking-token] {}", TokenStreamUtils.printable(token)))
-                .map(token -> thinkingChunk(model, token));
+    private Flux<StreamFrame<GenerateResponseDto>> streamThinkingTokens(String model,
+                                                                        List<String> tokens,
+                                                                        CoalescingPolicy coalescing,
+                                                                        StreamLog streamLog) {
+        CoalescedTokens groups = CoalescedTokens.of(tokens, coalescing);
+        return Flux.range(0, groups.size())
+                .doOnSubscribe(sub -> streamLog.queued("thinking", tokens.size()))
+                .doOnNext(index -> streamLog.token("thinking", groups.text(index)))
+                .map(index -> StreamFrame.token(thinkingChunk(model, groups.text(index)), groups.tokenCount(index)));
     }
 
-    private Flux<GenerateResponseDto> streamResponseTokens(String model, String text) {
-        List<String> tokens = TokenStreamUtils.tokenize(text);
-        return Flux.fromIterable(tokens)
-                .doOnSubscribe(sub -> log.info("[generate-stream][content] {} token(s) queued", tokens.size()))
-                .doOnNext(token -> log.info("[generate-stream][content-token] {}", TokenStreamUtils.printable(token)))
-                .map(token -> responseChunk(model, token, false));
-    }
-
-    private Mono<GenerateResponseDto> applyTokenDelay(GenerateResponseDto chunk) {
-        Duration delay = chunk.isDone() ? Duration.ZERO : properties.getTokenDelay();
-        if (delay.isZero() || delay.isNegative()) {
-            return Mono.just(chunk);
-        }
-        return Mono.just(chunk).delayElement(delay);
+    private Flux<StreamFrame<GenerateResponseDto>> streamResponseTokens(String model,
+                                                                        List<String> tokens,
+                                                                        CoalescingPolicy coalescing,
+                                                                        StreamLog streamLog) {
+        CoalescedTokens groups = CoalescedTokens.of(tokens, coalescing);
+        return Flux.range(0, groups.size())
+                .doOnSubscribe(sub -> streamLog.queued("content", tokens.size()))
+                .doOnNext(index -> streamLog.token("content", groups.text(index)))
+                .map(index -> StreamFrame.token(responseChunk(model, groups.text(index), false), groups.tokenCount(index)));
     }
 }
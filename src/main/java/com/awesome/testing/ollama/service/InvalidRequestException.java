@@ -0,0 +1,11 @@
+package com.awesome.testing.ollama.service;
+
+/**
+ * A request the model cannot serve as asked. Answered with 400 and the message as Ollama's error.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message, null, false, false);
+    }
+}
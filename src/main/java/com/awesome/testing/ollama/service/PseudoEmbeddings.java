@@ -0,0 +1,83 @@
+package com.awesome.testing.ollama.service;
+
+/**
+ * Deterministic stand-in for an embedding model. The vector for an input is derived from a 64-bit
+ * hash of the model name and the input text: element {@code i} is a SplitMix64 mix of
+ * {@code seed + i}, so elements do not depend on each other, the loops carry no state between
+ * iterations and a shorter vector is a prefix of a longer one before normalization. Equal inputs give
+ * equal vectors across requests and restarts; different inputs give near-orthogonal ones. Elements
+ * are rounded to {@value #DECIMALS} decimal places, which keeps unit length to within about 1e-6
+ * and lets {@link com.awesome.testing.ollama.codec.EmbeddingVectorSerializer} print them exactly from
+ * an integer instead of going through {@link Float#toString(float)}.
+ */
+public final class PseudoEmbeddings {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private static final float UNIT = 0x1.0p-23f;
+
+    /**
+     * Decimal places kept per element.
+     */
+    public static final int DECIMALS = 6;
+
+    private static final float SCALE = 1_000_000f;
+
+    private PseudoEmbeddings() {
+    }
+
+    /**
+     * Vector of {@code dimensions} floats in [-1, 1), scaled to unit length when {@code normalize}.
+     */
+    public static float[] vector(String model, String input, int dimensions, boolean normalize) {
+        float[] vector = new float[dimensions];
+        fill(vector, seed(model, input));
+        if (normalize) {
+            normalize(vector);
+        }
+        round(vector);
+        return vector;
+    }
+
+    static long seed(String model, String input) {
+        return hash(hash(FNV_OFFSET, model) * GOLDEN_GAMMA, input);
+    }
+
+    private static long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static void fill(float[] vector, long seed) {
+        for (int i = 0; i < vector.length; i++) {
+            long z = seed + (i + 1) * GOLDEN_GAMMA;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            z ^= z >>> 31;
+            vector[i] = (z >> 40) * UNIT;
+        }
+    }
+
+    private static void round(float[] vector) {
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = Math.round(vector[i] * SCALE) / SCALE;
+        }
+    }
+
+    private static void normalize(float[] vector) {
+        double sumOfSquares = 0;
+        for (float value : vector) {
+            sumOfSquares += value * value;
+        }
+        if (sumOfSquares == 0) {
+            return;
+        }
+        float scale = (float) (1 / Math.sqrt(sumOfSquares));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.awesome.testing.ollama.startup;
+
+import com.awesome.testing.ollama.bench.BenchClient;
+import com.awesome.testing.ollama.bench.BenchEndpoint;
+import com.awesome.testing.ollama.bench.LatencyReport;
+import com.awesome.testing.ollama.config.BenchProperties;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioRepository;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioRepository;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Workload of the {@code train} run mode: streams every bundled scenario prompt, plus one without a
+ * scenario, through {@code /api/generate}, {@code /api/chat} and {@code /api/chat/tools} of the
+ * running instance, once without and once with thinking. Run under {@code -XX:AOTCacheOutput} it
+ * leaves the JVM with the classes and profiles real traffic needs when the process exits.
+ *
+ * <p>Only beans that exist in every run mode are used, so the workload also runs against the
+ * context generated by Spring AOT, whose bean definitions are fixed at build time.
+ */
+@Slf4j
+public final class TrainingRun {
+
+    /**
+     * Profile adding {@code application-training.properties}: a free port and no pacing.
+     */
+    public static final String PROFILE = "training";
+
+    static final String UNMATCHED_PROMPT = "Training run prompt without a scenario";
+
+    private static final int CONCURRENCY = 4;
+
+    private TrainingRun() {
+    }
+
+    /**
+     * Runs the workload against {@code context} and returns the process exit code: 1 when any
+     * stream failed.
+     */
+    public static int exercise(ConfigurableApplicationContext context) {
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        long failed = 0;
+        for (boolean think : new boolean[] {false, true}) {
+            BenchProperties properties = new BenchProperties();
+            properties.setTarget("http://localhost:" + port);
+            properties.setConcurrency(CONCURRENCY);
+            properties.setThink(think);
+            BenchClient client = new BenchClient(properties, objectMapper, context.getBean(WebClient.Builder.class));
+            for (BenchEndpoint endpoint : BenchEndpoint.values()) {
+                List<String> prompts = promptsFor(endpoint, context);
+                LatencyReport report = new LatencyReport(endpoint);
+                Flux.fromIterable(prompts)
+                        .flatMap(prompt -> client.run(endpoint, prompt, report), CONCURRENCY)
+                        .blockLast();
+                log.info("Training {} (think={}): {} stream(s) completed, {} failed", endpoint.getPath(), think,
+                        report.completed(), report.failed());
+                failed += report.failed();
+            }
+        }
+        return failed > 0 ? 1 : 0;
+    }
+
+    private static List<String> promptsFor(BenchEndpoint endpoint, ConfigurableApplicationContext context) {
+        List<String> prompts = new ArrayList<>(switch (endpoint) {
+            case GENERATE -> context.getBean(GenerateScenarioRepository.class).supportedPrompts();
+            case CHAT -> context.getBean(ChatDialogueScenarioRepository.class).supportedPrompts();
+            case CHAT_TOOLS -> context.getBean(ChatScenarioRepository.class).supportedPrompts();
+        });
+        prompts.add(UNMATCHED_PROMPT);
+        return prompts;
+    }
+}
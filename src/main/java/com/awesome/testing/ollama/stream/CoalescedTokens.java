@@ -0,0 +1,79 @@
+package com.awesome.testing.ollama.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scenario tokens grouped according to a {@link CoalescingPolicy}. With coalescing disabled the
+ * pre-tokenized list is used as is and every group holds a single token.
+ */
+public final class CoalescedTokens {
+
+    private final List<String> texts;
+    private final int[] tokenCounts;
+
+    private CoalescedTokens(List<String> texts, int[] tokenCounts) {
+        this.texts = texts;
+        this.tokenCounts = tokenCounts;
+    }
+
+    public static CoalescedTokens of(List<String> tokens, CoalescingPolicy policy) {
+        if (policy.isDisabled() || tokens.size() < 2) {
+            return new CoalescedTokens(tokens, null);
+        }
+        List<String> texts = new ArrayList<>();
+        int[] counts = new int[tokens.size()];
+        StringBuilder group = new StringBuilder();
+        int groupTokens = 0;
+        int groupBytes = 0;
+        for (String token : tokens) {
+            int tokenBytes = utf8Length(token);
+            boolean full = groupTokens > 0
+                    && ((policy.getMaxTokens() > 0 && groupTokens >= policy.getMaxTokens())
+                    || (policy.getMaxBytes() > 0 && groupBytes + tokenBytes > policy.getMaxBytes()));
+            if (full) {
+                counts[texts.size()] = groupTokens;
+                texts.add(group.toString());
+                group.setLength(0);
+                groupTokens = 0;
+                groupBytes = 0;
+            }
+            group.append(token);
+            groupTokens++;
+            groupBytes += tokenBytes;
+        }
+        counts[texts.size()] = groupTokens;
+        texts.add(group.toString());
+        return new CoalescedTokens(texts, counts);
+    }
+
+    public int size() {
+        return texts.size();
+    }
+
+    public String text(int index) {
+        return texts.get(index);
+    }
+
+    public int tokenCount(int index) {
+        return tokenCounts == null ? 1 : tokenCounts[index];
+    }
+
+    private static int utf8Length(String token) {
+        int length = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char ch = token.charAt(i);
+            if (ch < 0x80) {
+                length++;
+            } else if (ch < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(ch)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,77 @@
+package com.awesome.testing.ollama.stream;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+
+/**
+ * Limits for grouping consecutive tokens into one streamed chunk. A group is closed as soon as
+ * adding the next token would exceed any of the configured limits.
+ */
+@Value
+public class CoalescingPolicy {
+
+    public static final String OPTION_MAX_TOKENS = "mock_coalesce_tokens";
+    public static final String OPTION_MAX_BYTES = "mock_coalesce_bytes";
+    public static final String OPTION_WINDOW_MS = "mock_coalesce_window_ms";
+
+    public static final CoalescingPolicy NONE = new CoalescingPolicy(1, 0);
+
+    /**
+     * Maximum tokens per group; 0 means unlimited.
+     */
+    int maxTokens;
+
+    /**
+     * Maximum UTF-8 bytes per group; 0 means unlimited.
+     */
+    int maxBytes;
+
+    /**
+     * Resolves the policy for one request: request {@code options} win over the global defaults, and
+     * a time window is converted into a token count using the token delay the stream is paced with.
+     * A window alone has no effect on an unpaced stream, which then gets {@link #NONE}.
+     */
+    public static CoalescingPolicy resolve(OllamaMockProperties.Coalescing defaults,
+                                           Map<String, Object> options,
+                                           Duration tokenDelay) {
+        int maxTokens = intOption(options, OPTION_MAX_TOKENS, defaults.getMaxTokens());
+        int maxBytes = intOption(options, OPTION_MAX_BYTES, defaults.getMaxBytes());
+        long windowNanos = defaults.getWindow().toNanos();
+        if (options != null && options.containsKey(OPTION_WINDOW_MS)) {
+            windowNanos = TimeUnit.MILLISECONDS.toNanos(
+                    intOption(options, OPTION_WINDOW_MS, (int) defaults.getWindow().toMillis()));
+        }
+        long delayNanos = tokenDelay.toNanos();
+        if (windowNanos > 0 && delayNanos > 0) {
+            int windowTokens = (int) Math.min(Integer.MAX_VALUE, Math.max(1, windowNanos / delayNanos));
+            maxTokens = maxTokens > 0 ? Math.min(maxTokens, windowTokens) : windowTokens;
+        }
+        if (maxTokens <= 0 && maxBytes <= 0) {
+            return NONE;
+        }
+        CoalescingPolicy policy = new CoalescingPolicy(Math.max(0, maxTokens), Math.max(0, maxBytes));
+        return policy.isDisabled() ? NONE : policy;
+    }
+
+    public boolean isDisabled() {
+        return maxTokens == 1;
+    }
+
+    private static int intOption(Map<String, Object> options, String key, int fallback) {
+        Object value = options == null ? null : options.get(key);
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Integer.parseInt(text.trim());
+            } catch (NumberFormatException e) {
+                return fallback;
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,41 @@
+package com.awesome.testing.ollama.stream;
+
+import lombok.Value;
+
+/**
+ * A response chunk on its way through the streaming pipeline, together with what pacing, logging
+ * and metrics need to know about it. Only {@link #getChunk()} reaches the client.
+ */
+@Value
+public class StreamFrame<T> {
+
+    public enum Kind {
+        TOKEN,
+        TOOL_CALL,
+        DONE
+    }
+
+    T chunk;
+    Kind kind;
+
+    /**
+     * Number of scenario tokens carried by the chunk; greater than one when tokens are coalesced.
+     */
+    int tokens;
+
+    public static <T> StreamFrame<T> token(T chunk, int tokens) {
+        return new StreamFrame<>(chunk, Kind.TOKEN, tokens);
+    }
+
+    public static <T> StreamFrame<T> toolCall(T chunk) {
+        return new StreamFrame<>(chunk, Kind.TOOL_CALL, 1);
+    }
+
+    public static <T> StreamFrame<T> done(T chunk) {
+        return new StreamFrame<>(chunk, Kind.DONE, 0);
+    }
+
+    public boolean isDone() {
+        return kind == Kind.DONE;
+    }
+}
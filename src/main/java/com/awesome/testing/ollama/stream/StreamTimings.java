@@ -0,0 +1,54 @@
+package com.awesome.testing.ollama.stream;
+
+import com.awesome.testing.ollama.dto.TimedResponse;
+import reactor.core.publisher.Flux;
+
+/**
+ * Nanosecond timestamps of one stream, taken when the request arrives, when generation starts,
+ * when the first chunk leaves the pacer and when the done chunk does. The done chunk is filled in
+ * the way Ollama reports it: {@code load_duration} covers the wait until generation starts (slot
+ * queueing included), {@code prompt_eval_duration} the time to the first chunk and
+ * {@code eval_duration} the rest of the stream.
+ */
+public final class StreamTimings {
+
+    private final long requested;
+    private final long started;
+    private final int promptTokens;
+    private long firstChunk;
+    private boolean generating;
+    private int evalCount;
+
+    public StreamTimings(long requested, int promptTokens) {
+        this.requested = requested;
+        this.started = System.nanoTime();
+        this.promptTokens = promptTokens;
+    }
+
+    /**
+     * Records {@code frames} as they are emitted; apply it to the paced stream.
+     */
+    public <T extends TimedResponse> Flux<StreamFrame<T>> record(Flux<StreamFrame<T>> frames) {
+        return frames.doOnNext(this::onFrame);
+    }
+
+    void onFrame(StreamFrame<? extends TimedResponse> frame) {
+        long now = System.nanoTime();
+        if (!frame.isDone()) {
+            if (!generating) {
+                firstChunk = now;
+                generating = true;
+            }
+            evalCount += frame.getTokens();
+            return;
+        }
+        long evalStart = generating ? firstChunk : now;
+        TimedResponse chunk = frame.getChunk();
+        chunk.setTotalDuration(now - requested);
+        chunk.setLoadDuration(started - requested);
+        chunk.setPromptEvalCount(promptTokens);
+        chunk.setPromptEvalDuration(evalStart - started);
+        chunk.setEvalCount(evalCount);
+        chunk.setEvalDuration(now - evalStart);
+    }
+}
@@ -0,0 +1,47 @@
+package com.awesome.testing.ollama.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Millisecond-granular UTC clock for {@code created_at} values. The formatted timestamp (and its
+ * quoted JSON bytes) is rebuilt at most once per millisecond and shared by every stream.
+ */
+@UtilityClass
+public class CoarseClock {
+
+    private volatile Tick current = tick(System.currentTimeMillis());
+
+    public String now() {
+        return currentTick().text;
+    }
+
+    /**
+     * Returns the quoted JSON bytes for {@code timestamp} when it is the value currently cached by
+     * this clock, or {@code null} when the caller has to encode it itself.
+     */
+    public byte[] jsonBytes(String timestamp) {
+        Tick tick = current;
+        return tick.text == timestamp ? tick.json : null;
+    }
+
+    private Tick currentTick() {
+        long millis = System.currentTimeMillis();
+        Tick tick = current;
+        if (tick.millis != millis) {
+            tick = tick(millis);
+            current = tick;
+        }
+        return tick;
+    }
+
+    private Tick tick(long millis) {
+        String text = Instant.ofEpochMilli(millis).atOffset(ZoneOffset.UTC).toString();
+        return new Tick(millis, text, ('"' + text + '"').getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Tick(long millis, String text, byte[] json) {
+    }
+}
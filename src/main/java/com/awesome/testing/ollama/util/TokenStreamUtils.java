@@ -13,24 +13,44 @@ public class TokenStreamUtils {
             return List.of();
         }
         List<String> tokens = new ArrayList<>();
-        StringBuilder buffer = new StringBuilder();
-        for (char ch : text.toCharArray()) {
+        int start = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
             if (Character.isWhitespace(ch)) {
-                if (buffer.length() > 0) {
-                    tokens.add(buffer.toString());
-                    buffer.setLength(0);
+                if (start >= 0) {
+                    tokens.add(text.substring(start, i));
+                    start = -1;
                 }
                 tokens.add(String.valueOf(ch));
-            } else {
-                buffer.append(ch);
+            } else if (start < 0) {
+                start = i;
             }
         }
-        if (buffer.length() > 0) {
-            tokens.add(buffer.toString());
+        if (start >= 0) {
+            tokens.add(text.substring(start));
         }
         return tokens;
     }
 
+    /**
+     * Whitespace-separated words in {@code text}; the mock's stand-in for a prompt token count.
+     */
+    public int wordCount(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int count = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean whitespace = Character.isWhitespace(text.charAt(i));
+            if (!whitespace && !inWord) {
+                count++;
+            }
+            inWord = !whitespace;
+        }
+        return count;
+    }
+
     public String printable(String token) {
         if (token == null) {
             return "(null)";
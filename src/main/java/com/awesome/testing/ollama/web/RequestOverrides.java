@@ -0,0 +1,82 @@
+package com.awesome.testing.ollama.web;
+
+import java.time.Duration;
+import java.util.function.UnaryOperator;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.boot.convert.DurationStyle;
+import reactor.util.context.ContextView;
+
+/**
+ * Per-request behaviour switches taken from {@code X-Ollama-Mock-*} headers and carried to the
+ * services through the Reactor context, so the service API stays the plain Ollama request DTOs.
+ */
+@Value
+@Builder
+public class RequestOverrides {
+
+    public static final String TRACE_HEADER = "X-Ollama-Mock-Trace";
+    public static final String CONVERSATION_HEADER = "X-Ollama-Mock-Conversation";
+    public static final String TOKEN_DELAY_HEADER = "X-Ollama-Mock-Token-Delay";
+    public static final String FIREHOSE = "firehose";
+
+    public static final RequestOverrides NONE = RequestOverrides.builder().build();
+
+    /**
+     * Log every token of this request regardless of {@code ollama.mock.logging.token-mode}.
+     */
+    boolean trace;
+
+    /**
+     * Client-chosen id of the chat conversation, used to remember its scenario between turns instead
+     * of fingerprinting the history.
+     */
+    String conversationId;
+
+    /**
+     * Token delay for this request's stream, or {@code null} to keep the configured pacing. Accepts
+     * {@code 25ms}-style durations and plain milliseconds; anything else is ignored.
+     */
+    Duration tokenDelay;
+
+    /**
+     * Stream without pacing, requested with {@code X-Ollama-Mock-Token-Delay: firehose}.
+     */
+    boolean firehose;
+
+    /**
+     * Overrides named by the {@code X-Ollama-Mock-*} headers, or {@link #NONE} when none is sent.
+     */
+    public static RequestOverrides fromHeaders(UnaryOperator<String> header) {
+        String trace = header.apply(TRACE_HEADER);
+        String conversationId = header.apply(CONVERSATION_HEADER);
+        String pacing = header.apply(TOKEN_DELAY_HEADER);
+        boolean firehose = pacing != null && FIREHOSE.equalsIgnoreCase(pacing.trim());
+        Duration tokenDelay = firehose ? null : tokenDelay(pacing);
+        if (trace == null && conversationId == null && tokenDelay == null && !firehose) {
+            return NONE;
+        }
+        return RequestOverrides.builder()
+                .trace(Boolean.parseBoolean(trace))
+                .conversationId(conversationId)
+                .tokenDelay(tokenDelay)
+                .firehose(firehose)
+                .build();
+    }
+
+    public static RequestOverrides from(ContextView context) {
+        return context.getOrDefault(RequestOverrides.class, NONE);
+    }
+
+    private static Duration tokenDelay(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            Duration delay = DurationStyle.detectAndParse(value.trim());
+            return delay.isNegative() ? null : delay;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
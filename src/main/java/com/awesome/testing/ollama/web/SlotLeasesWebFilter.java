@@ -0,0 +1,21 @@
+package com.awesome.testing.ollama.web;
+
+import com.awesome.testing.ollama.scheduling.SlotLeases;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Releases model slots admitted for an exchange once the exchange ends, including when the response
+ * body was never subscribed.
+ */
+@Component
+public class SlotLeasesWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return SlotLeases.bracket(chain.filter(exchange));
+    }
+}
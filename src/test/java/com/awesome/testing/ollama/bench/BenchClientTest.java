@@ -0,0 +1,59 @@
+package com.awesome.testing.ollama.bench;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.config.BenchProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"ollama.mock.token-delay=0ms", "ollama.mock.logging.token-mode=off"})
+class BenchClientTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Test
+    void shouldMeasureStreamsServedByTheMock() {
+        BenchClient client = new BenchClient(properties(), objectMapper, webClientBuilder);
+        LatencyReport report = new LatencyReport(BenchEndpoint.CHAT);
+
+        client.run(BenchEndpoint.CHAT, "Give me a quick status update on the Ollama mock", report).block();
+        client.run(BenchEndpoint.CHAT, "Give me a quick status update on the Ollama mock", report).block();
+
+        assertThat(report.completed()).isEqualTo(2);
+        assertThat(report.failed()).isZero();
+        assertThat(report.timeToFirstToken().getTotalCount()).isEqualTo(2);
+        assertThat(report.interToken().getTotalCount()).isPositive();
+    }
+
+    @Test
+    void shouldCountHttpErrorsInsteadOfFailing() {
+        BenchProperties properties = properties();
+        properties.setTarget("http://localhost:" + port + "/missing");
+        BenchClient client = new BenchClient(properties, objectMapper, webClientBuilder);
+        LatencyReport report = new LatencyReport(BenchEndpoint.GENERATE);
+
+        client.run(BenchEndpoint.GENERATE, "Summarize the release plan", report).block();
+
+        assertThat(report.completed()).isZero();
+        assertThat(report.failed()).isEqualTo(1);
+    }
+
+    private BenchProperties properties() {
+        BenchProperties properties = new BenchProperties();
+        properties.setTarget("http://localhost:" + port);
+        return properties;
+    }
+}
@@ -0,0 +1,48 @@
+package com.awesome.testing.ollama.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.dto.EmbedResponseDto;
+import com.awesome.testing.ollama.dto.EmbeddingResponseDto;
+import com.awesome.testing.ollama.service.PseudoEmbeddings;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class EmbeddingVectorSerializerTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void shouldPrintRoundedElementsThatParseBackExactly() throws Exception {
+        float[] vector = PseudoEmbeddings.vector("nomic-embed-text", "why is the sky blue", 768, true);
+
+        String json = objectMapper.writeValueAsString(new EmbeddingResponseDto(vector));
+
+        assertThat(objectMapper.readValue(json, EmbeddingResponseDto.class).getEmbedding()).isEqualTo(vector);
+        assertThat(json).doesNotContain("E");
+    }
+
+    @Test
+    void shouldFormatEdgeValues() throws Exception {
+        float[] vector = {0f, -0.5f, 1f, 0.000001f, -0.12f, 0.1234567f, 12.5f};
+
+        String json = objectMapper.writeValueAsString(new EmbeddingResponseDto(vector));
+
+        assertThat(json).isEqualTo("{\"embedding\":[0.0,-0.5,1.0,0.000001,-0.12,0.1234567,12.5]}");
+        assertThat(objectMapper.readValue(json, EmbeddingResponseDto.class).getEmbedding()).isEqualTo(vector);
+    }
+
+    @Test
+    void shouldWriteEveryVectorOfABatch() throws Exception {
+        EmbedResponseDto response = EmbedResponseDto.builder()
+                .model("m")
+                .embeddings(new float[][] {{0.25f, -0.75f}, {}})
+                .build();
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(response));
+
+        assertThat(json.get("embeddings").toString()).isEqualTo("[[0.25,-0.75],[]]");
+    }
+}
@@ -0,0 +1,32 @@
+package com.awesome.testing.ollama.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class FrameBufferTest {
+
+    @Test
+    void shouldShrinkBackAfterAnOversizedFrame() {
+        FrameBuffer buffer = new FrameBuffer();
+        int initial = buffer.array().length;
+
+        buffer.append(new byte[1024]);
+        buffer.reset();
+        assertThat(buffer.array().length).isGreaterThanOrEqualTo(1024);
+
+        buffer.append(new byte[1024 * 1024]);
+        buffer.reset();
+        assertThat(buffer.length()).isZero();
+        assertThat(buffer.array()).hasSize(initial);
+    }
+
+    @Test
+    void shouldEscapeControlCharactersAsUnicode() {
+        FrameBuffer buffer = new FrameBuffer().appendJsonString("a\u0001\u001fb");
+
+        assertThat(new String(buffer.array(), 0, buffer.length(), StandardCharsets.UTF_8))
+                .isEqualTo("\"a\\u0001\\u001Fb\"");
+    }
+}
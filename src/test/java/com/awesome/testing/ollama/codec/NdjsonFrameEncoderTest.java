@@ -0,0 +1,99 @@
+package com.awesome.testing.ollama.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.dto.ChatResponseDto;
+import com.awesome.testing.ollama.dto.GenerateResponseDto;
+import com.awesome.testing.ollama.dto.ToolCallDto;
+import com.awesome.testing.ollama.dto.ToolCallFunctionDto;
+import com.awesome.testing.ollama.util.CoarseClock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+class NdjsonFrameEncoderTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final NdjsonFrameEncoder encoder = new NdjsonFrameEncoder(objectMapper);
+
+    @Test
+    void shouldOnlyHandleStreamingChunks() {
+        assertThat(encoder.canEncode(ResolvableType.forClass(ChatResponseDto.class), MediaType.APPLICATION_NDJSON))
+                .isTrue();
+        assertThat(encoder.canEncode(ResolvableType.forClass(GenerateResponseDto.class), MediaType.APPLICATION_NDJSON))
+                .isTrue();
+        assertThat(encoder.canEncode(ResolvableType.forClass(ChatResponseDto.class), MediaType.APPLICATION_JSON))
+                .isFalse();
+        assertThat(encoder.canEncode(ResolvableType.forClass(String.class), MediaType.APPLICATION_NDJSON))
+                .isFalse();
+    }
+
+    @Test
+    void shouldMatchJacksonOutputForChatChunks() throws Exception {
+        PreparedJsonStrings.prepare("prepared token");
+        List<ChatResponseDto> chunks = List.of(
+                chatChunk(ChatMessageDto.builder().role("assistant").content("prepared token").build(), false),
+                chatChunk(ChatMessageDto.builder().role("assistant").thinking("quote \" slash \\ tab \t").build(), false),
+                chatChunk(ChatMessageDto.builder().role("assistant").content("żółć — 🚀 \u0001").build(), false),
+                chatChunk(ChatMessageDto.builder().role("assistant").toolCalls(null).build(), false),
+                chatChunk(null, true),
+                ChatResponseDto.builder().model("mock-model").createdAt(CoarseClock.now()).done(true)
+                        .totalDuration(5_000_000L).loadDuration(1_000L).promptEvalCount(12).promptEvalDuration(2_000L)
+                        .evalCount(40).evalDuration(4_000_000L).build(),
+                chatChunk(ChatMessageDto.builder()
+                        .role("assistant")
+                        .toolCalls(List.of(ToolCallDto.builder()
+                                .id("toolcall-1")
+                                .function(ToolCallFunctionDto.builder()
+                                        .name("list_products")
+                                        .arguments(Map.of("limit", 25))
+                                        .build())
+                                .build()))
+                        .build(), false));
+
+        for (ChatResponseDto chunk : chunks) {
+            assertThat(encodeStreamed(chunk)).isEqualTo(objectMapper.writeValueAsString(chunk) + "\n");
+        }
+    }
+
+    @Test
+    void shouldMatchJacksonOutputForGenerateChunks() throws Exception {
+        List<GenerateResponseDto> chunks = List.of(
+                GenerateResponseDto.builder().model("m").createdAt(CoarseClock.now()).response("\n").build(),
+                GenerateResponseDto.builder().model("m").createdAt(CoarseClock.now()).thinking("hmm").build(),
+                GenerateResponseDto.builder().model("m").createdAt("2024-01-01T00:00Z").done(true).build(),
+                GenerateResponseDto.builder().model("m").response("x").totalDuration(42L).build(),
+                GenerateResponseDto.builder().model("m").createdAt(CoarseClock.now()).done(true).totalDuration(42L)
+                        .loadDuration(1L).promptEvalCount(3).promptEvalDuration(7L).evalCount(9).evalDuration(30L).build(),
+                GenerateResponseDto.builder().model("m").context(new Long[] {1L, 2L}).done(true).evalCount(9).build());
+
+        for (GenerateResponseDto chunk : chunks) {
+            assertThat(encodeStreamed(chunk)).isEqualTo(objectMapper.writeValueAsString(chunk) + "\n");
+        }
+    }
+
+    private ChatResponseDto chatChunk(ChatMessageDto message, boolean done) {
+        return ChatResponseDto.builder()
+                .model("mock-model")
+                .createdAt(CoarseClock.now())
+                .message(message)
+                .done(done)
+                .build();
+    }
+
+    private String encodeStreamed(Object chunk) {
+        DataBuffer buffer = encoder.encode(Flux.just(chunk), DefaultDataBufferFactory.sharedInstance,
+                        ResolvableType.forInstance(chunk), MediaType.APPLICATION_NDJSON, Map.of())
+                .blockFirst();
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,178 @@
+package com.awesome.testing.ollama.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.awesome.testing.ollama.dto.StreamedRequestDto;
+import com.awesome.testing.ollama.util.TokenStreamUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class StreamingRequestDecoderTest {
+
+    private static final String IMAGE = "iVBORw0KGgo".repeat(20_000);
+
+    private static final String CHAT_REQUEST = """
+            {
+              "model": "qwen3:4b",
+              "format": {"type": "object", "properties": {"answer": {"type": "string"}}},
+              "messages": [
+                {"role": "system", "content": "You are helpful."},
+                {"content": "What is on this picture?", "role": "user", "images": ["%s"]},
+                {"role": "assistant", "content": "", "tool_calls": [{"function": {"name": "list_products", "arguments": {"limit": 5}}}]},
+                {"role": "tool", "tool_name": "list_products", "content": "%s"}
+              ],
+              "tools": [{"type": "function", "function": {"name": "list_products", "description": "Lists products"}}],
+              "options": {"temperature": 0.2, "mock_coalesce_tokens": 4, "stop": ["\\n"]},
+              "keep_alive": "5m",
+              "stream": false,
+              "think": true
+            }
+            """.formatted(IMAGE, "[{\\\"id\\\":1}]".repeat(5_000));
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final StreamingRequestDecoder decoder = new StreamingRequestDecoder(objectMapper);
+
+    @Test
+    void shouldOnlyHandleRequestDtosAsJson() {
+        assertThat(decoder.canDecode(ResolvableType.forClass(ChatRequestDto.class), MediaType.APPLICATION_JSON))
+                .isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(StreamedRequestDto.class), null)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(ChatRequestDto.class), MediaType.TEXT_PLAIN)).isFalse();
+        assertThat(decoder.canDecode(ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    @Test
+    void shouldBindWhatTheServicesReadAndSkipTheRest() throws Exception {
+        ChatRequestDto databind = objectMapper.readValue(CHAT_REQUEST, ChatRequestDto.class);
+
+        StepVerifier.create(decoder.decode(chunks(CHAT_REQUEST, 7), ChatRequestDto.class))
+                .assertNext(request -> {
+                    assertThat(request.getModel()).isEqualTo("qwen3:4b");
+                    assertThat(request.getStream()).isFalse();
+                    assertThat(request.getThink()).isTrue();
+                    assertThat(request.getOptions()).isEqualTo(databind.getOptions());
+                    assertThat(request.getTools()).isEqualTo(databind.getTools());
+                    assertThat(request.getMessages())
+                            .extracting(ChatMessageDto::getRole, ChatMessageDto::getToolName, ChatMessageDto::getContent)
+                            .containsExactly(
+                                    tuple("system", null, null),
+                                    tuple("user", null, "What is on this picture?"),
+                                    tuple("assistant", null, null),
+                                    tuple("tool", "list_products", null));
+                    assertThat(request.getMessages()).allSatisfy(message ->
+                            assertThat(message.getToolCalls()).isEmpty());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldKeepDtoDefaultsForAbsentFields() {
+        StepVerifier.create(decoder.decode(chunks("{\"model\":\"m\",\"prompt\":\"hi\",\"images\":[\"" + IMAGE
+                        + "\"],\"context\":[1,2,3]}", 1), StreamedRequestDto.class))
+                .assertNext(request -> assertThat(request)
+                        .isEqualTo(StreamedRequestDto.builder().model("m").prompt("hi").build()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldDecodeEscapesLikeJackson() {
+        String json = """
+                {"mo\\u0064el":"m","messages":[{"role":"user","content":"say \\"hi\\" \\u017c\\n\\\\"},
+                {"role":"tool","content":"\\"}\\\\"}]}""";
+
+        StepVerifier.create(decoder.decode(chunks(json, 2), ChatRequestDto.class))
+                .assertNext(request -> {
+                    assertThat(request.getModel()).isEqualTo("m");
+                    assertThat(request.getMessages()).extracting(ChatMessageDto::getContent)
+                            .containsExactly("say \"hi\" \u017c\n\\", null);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCountWordsOfContentItDoesNotKeep() throws Exception {
+        String json = """
+                {"model":"m","messages":[
+                {"role":"system","content":"  Be\\tbrief,\\\\nplease \\u2003 and\\u00a0kind\\r\\n"},
+                {"role":"user","content":"Zażółć gęślą jaźń"},
+                {"content":"okay\\u3000 \\ud83d\\ude00 done \\"quoted\\" 😀x","role":"assistant"},
+                {"role":"tool","tool_name":"list_products","content":"[{\\"id\\": 1}, {\\"id\\": 2}]"},
+                {"role":"tool","content":""}]}""";
+        ChatRequestDto databind = objectMapper.readValue(json, ChatRequestDto.class);
+        Integer[] expected = databind.getMessages().stream()
+                .map(message -> "user".equals(message.getRole())
+                        ? null
+                        : TokenStreamUtils.wordCount(message.getContent()))
+                .toArray(Integer[]::new);
+
+        for (int size : new int[] {1, 3, 4096}) {
+            StepVerifier.create(decoder.decode(chunks(json, size), ChatRequestDto.class))
+                    .assertNext(request -> assertThat(request.getMessages())
+                            .extracting(ChatMessageDto::getContentTokens)
+                            .containsExactly(expected))
+                    .verifyComplete();
+        }
+        assertThat(expected).containsExactly(3, null, 5, 4, 0);
+    }
+
+    @Test
+    void shouldCompleteEmptyForMissingBody() {
+        StepVerifier.create(decoder.decode(Flux.empty(), ChatRequestDto.class)).verifyComplete();
+        StepVerifier.create(decoder.decode(chunks("null", 4), ChatRequestDto.class)).verifyComplete();
+    }
+
+    @Test
+    void shouldRejectMalformedBodies() {
+        StepVerifier.create(decoder.decode(chunks("{\"model\":\"m\",\"messages\":[", 3), ChatRequestDto.class))
+                .verifyError(DecodingException.class);
+        StepVerifier.create(decoder.decode(chunks("{\"model\" \"m\"}", 3), ChatRequestDto.class))
+                .verifyError(DecodingException.class);
+        StepVerifier.create(decoder.decode(chunks("[]", 3), StreamedRequestDto.class))
+                .verifyError(DecodingException.class);
+        StepVerifier.create(decoder.decode(chunks("{\"stream\":{}}", 3), StreamedRequestDto.class))
+                .verifyError(DecodingException.class);
+        StepVerifier.create(decoder.decode(chunks("{\"model\":}", 3), ChatRequestDto.class))
+                .verifyError(DecodingException.class);
+        StepVerifier.create(decoder.decode(chunks("{\"images\":[1,2,],\"model\":\"m\"}", 3), ChatRequestDto.class))
+                .verifyError(DecodingException.class);
+        StepVerifier.create(decoder.decode(chunks("{\"model\":\"m\"} {}", 3), ChatRequestDto.class))
+                .verifyError(DecodingException.class);
+    }
+
+    @Test
+    void shouldLimitBufferedValuesButNotSkippedOnes() {
+        decoder.setMaxInMemorySize(64 * 1024);
+
+        StepVerifier.create(decoder.decode(chunks(CHAT_REQUEST, 8192), ChatRequestDto.class))
+                .assertNext(request -> assertThat(request.getModel()).isEqualTo("qwen3:4b"))
+                .verifyComplete();
+        StepVerifier.create(decoder.decode(chunks("{\"model\":\"m\",\"prompt\":\"" + "a".repeat(64 * 1024)
+                        + "\"}", 8192), StreamedRequestDto.class))
+                .verifyError(DataBufferLimitException.class);
+        StepVerifier.create(decoder.decode(chunks("{\"model\":\"m\",\"options\":{\"stop\":[\"" + IMAGE
+                        + "\"]}}", 8192), StreamedRequestDto.class))
+                .verifyError(DataBufferLimitException.class);
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int size) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return Flux.range(0, (bytes.length + size - 1) / size)
+                .map(index -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(bytes, index * size, Math.min(bytes.length, (index + 1) * size))));
+    }
+}
@@ -0,0 +1,121 @@
+package com.awesome.testing.ollama.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.fastpath.FastPathServer;
+import io.netty.channel.Channel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.util.concurrent.MultithreadEventExecutorGroup;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.netty.http.server.HttpServer;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "ollama.mock.token-delay=0ms",
+                "ollama.mock.logging.token-mode=off",
+                "ollama.mock.fast-path.enabled=true",
+                "ollama.mock.fast-path.port=0",
+                "ollama.mock.transport.native-transport=false",
+                "ollama.mock.transport.event-loop-threads=2",
+                "ollama.mock.transport.write-buffer-low-water-mark=1KB",
+                "ollama.mock.transport.write-buffer-high-water-mark=2KB",
+                "ollama.mock.transport.flush-consolidation=16",
+                "ollama.mock.transport.h2c=true"})
+class NettyTransportCustomizerTest {
+
+    private static final String GENERATE_REQUEST = """
+            {"model": "mock", "prompt": "Walk me through the streaming demo for /api/generate", "think": true}""";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FastPathServer fastPathServer;
+
+    @Autowired
+    private NettyTransportCustomizer customizer;
+
+    @Test
+    void shouldApplyLoopCountWaterMarksAndFlushConsolidationToChildChannels() {
+        List<Channel> channels = new CopyOnWriteArrayList<>();
+        DisposableServer server = customizer.apply(HttpServer.create().port(0))
+                .doOnConnection(connection -> channels.add(connection.channel()))
+                .handle((request, response) -> response.sendString(Mono.just("ok")))
+                .bindNow();
+        try {
+            assertThat(HttpClient.create().port(server.port()).get().uri("/")
+                    .responseContent().aggregate().asString().block(Duration.ofSeconds(10))).isEqualTo("ok");
+        } finally {
+            server.disposeNow();
+        }
+
+        assertThat(channels).singleElement().satisfies(channel -> {
+            WriteBufferWaterMark waterMarks = channel.config().getWriteBufferWaterMark();
+            assertThat(waterMarks.low()).isEqualTo(1024);
+            assertThat(waterMarks.high()).isEqualTo(2048);
+            assertThat(channel.eventLoop().parent()).isInstanceOfSatisfying(MultithreadEventExecutorGroup.class,
+                    group -> assertThat(group.executorCount()).isEqualTo(2));
+            assertThat(channel.pipeline().get("ollama.flushConsolidation"))
+                    .isInstanceOf(FlushConsolidationHandler.class);
+        });
+    }
+
+    @Test
+    void shouldServeHttp2WithPriorKnowledgeOnBothListeners() {
+        assertThat(version(HttpClient.create().protocol(HttpProtocol.H2C).port(port)))
+                .isEqualTo(HttpVersion.valueOf("HTTP/2.0"));
+        Tuple2<HttpResponseStatus, String> stream = generate(HttpClient.create().protocol(HttpProtocol.H2C)
+                .port(fastPathServer.port()));
+        assertThat(stream.getT1()).isEqualTo(HttpResponseStatus.OK);
+        assertThat(stream.getT2()).contains("\"done\":true");
+    }
+
+    @Test
+    void shouldStreamCompleteNdjsonThroughConsolidatedFlushesAndSmallWaterMarks() {
+        for (int listener : new int[] {port, fastPathServer.port()}) {
+            Tuple2<HttpResponseStatus, String> stream = generate(HttpClient.create().port(listener));
+
+            assertThat(stream.getT1()).isEqualTo(HttpResponseStatus.OK);
+            assertThat(stream.getT2().lines()).hasSizeGreaterThan(10)
+                    .allSatisfy(line -> assertThat(line).startsWith("{\"model\":\"mock\""));
+            assertThat(stream.getT2().lines().reduce((first, second) -> second).orElseThrow())
+                    .contains("\"done\":true");
+        }
+    }
+
+    private static HttpVersion version(HttpClient client) {
+        return client.get()
+                .uri("/api/version")
+                .response()
+                .map(HttpClientResponse::version)
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static Tuple2<HttpResponseStatus, String> generate(HttpClient client) {
+        return client.headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+                .post()
+                .uri("/api/generate")
+                .send(ByteBufFlux.fromString(Mono.just(GENERATE_REQUEST)))
+                .responseSingle((response, body) -> body.asString().map(text -> Tuples.of(response.status(), text)))
+                .block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,29 @@
+package com.awesome.testing.ollama.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.codec.HttpCodecsProperties;
+import org.springframework.util.unit.DataSize;
+
+class WebFluxCodecConfigTest {
+
+    private final HttpCodecsProperties codecsProperties = new HttpCodecsProperties();
+
+    @Test
+    void shouldApplyHttpCodecsMaxInMemorySizeToRequestDecoder() {
+        codecsProperties.setMaxInMemorySize(DataSize.ofMegabytes(1));
+
+        assertThat(config().streamingRequestDecoder().getMaxInMemorySize()).isEqualTo(1024 * 1024);
+    }
+
+    @Test
+    void shouldKeepDecoderDefaultWhenMaxInMemorySizeIsNotSet() {
+        assertThat(config().streamingRequestDecoder().getMaxInMemorySize()).isEqualTo(256 * 1024);
+    }
+
+    private WebFluxCodecConfig config() {
+        return new WebFluxCodecConfig(new ObjectMapper(), new OllamaMockProperties(), codecsProperties);
+    }
+}
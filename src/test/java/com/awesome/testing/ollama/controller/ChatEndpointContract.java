@@ -0,0 +1,182 @@
+package com.awesome.testing.ollama.controller;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.awesome.testing.ollama.dto.ChatResponseDto;
+import com.awesome.testing.ollama.dto.OllamaToolDefinitionDto;
+import com.awesome.testing.ollama.pacing.LatencyModel;
+import com.awesome.testing.ollama.service.ChatService;
+import com.awesome.testing.ollama.service.ChatToolsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Wire behaviour of {@code /api/chat}, shared by the WebFlux controller and the fast path.
+ */
+abstract class ChatEndpointContract {
+
+    @MockitoBean
+    protected ChatService chatService;
+    @MockitoBean
+    protected ChatToolsService chatToolsService;
+
+    protected abstract WebTestClient webTestClient();
+
+    @Test
+    void shouldStreamChatResponses() {
+        ChatResponseDto chunk = ChatResponseDto.builder()
+                .model("mock")
+                .message(new ChatMessageDto())
+                .done(false)
+                .build();
+        given(chatService.chatStream(any())).willReturn(Flux.just(chunk));
+
+        webTestClient().post()
+                .uri("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ChatRequestDto.builder().messages(List.of()).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON);
+    }
+
+    @Test
+    void shouldStreamToolResponsesWhenToolsPresent() {
+        ChatResponseDto chunk = ChatResponseDto.builder()
+                .model("mock")
+                .message(new ChatMessageDto())
+                .done(false)
+                .build();
+        given(chatToolsService.chatToolStream(any())).willReturn(Flux.just(chunk));
+
+        ChatRequestDto request = ChatRequestDto.builder()
+                .tools(List.of(new OllamaToolDefinitionDto()))
+                .build();
+
+        webTestClient().post()
+                .uri("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON);
+    }
+
+    @Test
+    void shouldReturnSingleChunkWhenStreamDisabled() {
+        ChatResponseDto response = ChatResponseDto.builder()
+                .model("mock")
+                .message(new ChatMessageDto())
+                .done(true)
+                .build();
+        given(chatService.chatSingle(any())).willReturn(Mono.just(response));
+
+        ChatRequestDto request = ChatRequestDto.builder()
+                .messages(List.of())
+                .stream(false)
+                .build();
+
+        webTestClient().post()
+                .uri("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.done").isEqualTo(true);
+    }
+
+    @Test
+    void shouldReturnToolChunkWhenStreamDisabled() {
+        ChatResponseDto response = ChatResponseDto.builder()
+                .model("mock")
+                .message(new ChatMessageDto())
+                .done(true)
+                .build();
+        given(chatToolsService.chatToolSingle(any())).willReturn(Mono.just(response));
+
+        ChatRequestDto request = ChatRequestDto.builder()
+                .messages(List.of())
+                .stream(false)
+                .tools(List.of(new OllamaToolDefinitionDto()))
+                .build();
+
+        webTestClient().post()
+                .uri("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.done").isEqualTo(true);
+    }
+
+    @Test
+    void shouldRejectMalformedJson() {
+        webTestClient().post()
+                .uri("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"messages\": [")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldRejectUserContentOverTheInMemoryLimit() {
+        String content = "a".repeat(300 * 1024);
+        webTestClient().post()
+                .uri("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"messages\": [{\"role\": \"user\", \"content\": \"" + content + "\"}]}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @Test
+    void shouldCountEveryMessageTowardsPromptEvalCount() {
+        given(chatService.chatSingle(any())).willAnswer(invocation -> Mono.just(done(invocation.getArgument(0))));
+
+        webTestClient().post()
+                .uri("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"model": "mock", "stream": false, "messages": [
+                        {"role": "system", "content": "Be brief."},
+                        {"role": "user", "content": "List products"},
+                        {"role": "assistant", "content": "Calling list_products"},
+                        {"role": "tool", "tool_name": "list_products",
+                         "content": "[{\\"id\\": 1, \\"name\\": \\"phone\\"}]"}
+                        ]}""")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.prompt_eval_count").isEqualTo(10);
+    }
+
+    /**
+     * A done response reporting the prompt tokens the services would, from the decoded request.
+     */
+    private static ChatResponseDto done(ChatRequestDto request) {
+        return ChatResponseDto.builder()
+                .model("mock")
+                .message(new ChatMessageDto())
+                .done(true)
+                .promptEvalCount(new LatencyModel(new OllamaMockProperties())
+                        .open(request.getModel(), request.getMessages())
+                        .promptTokens())
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.awesome.testing.ollama.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.awesome.testing.ollama.dto.ChatResponseDto;
+import com.awesome.testing.ollama.pacing.LatencyModel;
+import com.awesome.testing.ollama.service.ChatToolsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Wire behaviour of {@code /api/chat/tools} and {@code /chat/tools}, shared by the WebFlux controller
+ * and the fast path.
+ */
+abstract class ChatToolsEndpointContract {
+
+    @MockitoBean
+    protected ChatToolsService chatToolsService;
+
+    protected abstract WebTestClient webTestClient();
+
+    @Test
+    void shouldStreamToolResponsesWithApiPath() {
+        ChatResponseDto chunk = ChatResponseDto.builder()
+                .model("mock")
+                .message(new ChatMessageDto())
+                .done(false)
+                .build();
+        given(chatToolsService.chatToolStream(any())).willReturn(Flux.just(chunk));
+
+        webTestClient().post()
+                .uri("/api/chat/tools")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ChatRequestDto.builder().messages(java.util.List.of()).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON);
+    }
+
+    @Test
+    void shouldStreamToolResponsesWithLegacyPath() {
+        ChatResponseDto chunk = ChatResponseDto.builder()
+                .model("mock")
+                .message(new ChatMessageDto())
+                .done(false)
+                .build();
+        given(chatToolsService.chatToolStream(any())).willReturn(Flux.just(chunk));
+
+        webTestClient().post()
+                .uri("/chat/tools")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ChatRequestDto.builder().messages(java.util.List.of()).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON);
+    }
+
+    @Test
+    void shouldReturnSingleToolChunk() {
+        ChatResponseDto response = ChatResponseDto.builder()
+                .model("mock")
+                .message(new ChatMessageDto())
+                .done(true)
+                .build();
+        given(chatToolsService.chatToolSingle(any())).willReturn(Mono.just(response));
+
+        ChatRequestDto request = ChatRequestDto.builder()
+                .messages(java.util.List.of())
+                .stream(false)
+                .build();
+
+        webTestClient().post()
+                .uri("/api/chat/tools")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.done").isEqualTo(true);
+    }
+
+    @Test
+    void shouldCountEveryMessageTowardsPromptEvalCount() {
+        given(chatToolsService.chatToolSingle(any()))
+                .willAnswer(invocation -> Mono.just(done(invocation.getArgument(0))));
+
+        webTestClient().post()
+                .uri("/api/chat/tools")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"model": "mock", "stream": false, "messages": [
+                        {"role": "system", "content": "Be brief."},
+                        {"role": "user", "content": "List products"},
+                        {"role": "assistant", "content": "Calling list_products"},
+                        {"role": "tool", "tool_name": "list_products",
+                         "content": "[{\\"id\\": 1, \\"name\\": \\"phone\\"}]"}
+                        ]}""")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.prompt_eval_count").isEqualTo(10);
+    }
+
+    /**
+     * A done response reporting the prompt tokens the services would, from the decoded request.
+     */
+    private static ChatResponseDto done(ChatRequestDto request) {
+        return ChatResponseDto.builder()
+                .model("mock")
+                .message(new ChatMessageDto())
+                .done(true)
+                .promptEvalCount(new LatencyModel(new OllamaMockProperties())
+                        .open(request.getModel(), request.getMessages())
+                        .promptTokens())
+                .build();
+    }
+}
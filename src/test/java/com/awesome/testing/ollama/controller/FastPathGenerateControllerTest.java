@@ -0,0 +1,22 @@
+package com.awesome.testing.ollama.controller;
+
+import com.awesome.testing.ollama.fastpath.FastPathServer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"ollama.mock.fast-path.enabled=true", "ollama.mock.fast-path.port=0"})
+class FastPathGenerateControllerTest extends GenerateEndpointContract {
+
+    @Autowired
+    private FastPathServer fastPathServer;
+
+    @Override
+    protected WebTestClient webTestClient() {
+        return WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + fastPathServer.port())
+                .build();
+    }
+}
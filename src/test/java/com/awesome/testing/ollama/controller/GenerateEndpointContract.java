@@ -0,0 +1,139 @@
+package com.awesome.testing.ollama.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
+
+import com.awesome.testing.ollama.dto.GenerateResponseDto;
+import com.awesome.testing.ollama.dto.StreamedRequestDto;
+import com.awesome.testing.ollama.scheduling.ModelSlotScheduler;
+import com.awesome.testing.ollama.scheduling.ServerBusyException;
+import com.awesome.testing.ollama.service.GenerateService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Wire behaviour of {@code /api/generate}, shared by the WebFlux controller and the fast path.
+ */
+abstract class GenerateEndpointContract {
+
+    @MockitoBean
+    protected GenerateService generateService;
+
+    @MockitoSpyBean
+    protected ModelSlotScheduler slotScheduler;
+
+    protected abstract WebTestClient webTestClient();
+
+    @Test
+    void shouldStreamNdjsonWhenStreamFlagTrue() {
+        GenerateResponseDto chunk = GenerateResponseDto.builder()
+                .model("mock")
+                .response("hi")
+                .done(false)
+                .build();
+        given(generateService.generateStream(any())).willReturn(Flux.just(chunk));
+
+        webTestClient().post()
+                .uri("/api/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(StreamedRequestDto.builder().model("mock").prompt("hello").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(GenerateResponseDto.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void shouldReturnJsonWhenStreamFlagFalse() {
+        GenerateResponseDto response = GenerateResponseDto.builder()
+                .model("mock")
+                .response("full")
+                .done(true)
+                .build();
+        given(generateService.generateSingle(any())).willReturn(Mono.just(response));
+
+        StreamedRequestDto body = StreamedRequestDto.builder()
+                .model("mock")
+                .prompt("Hello")
+                .stream(false)
+                .build();
+
+        webTestClient().post()
+                .uri("/api/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.done").isEqualTo(true)
+                .jsonPath("$.response").isEqualTo("full");
+    }
+
+    @Test
+    void shouldWriteOneNdjsonLinePerChunk() {
+        given(generateService.generateStream(any())).willReturn(Flux.just(
+                GenerateResponseDto.builder().model("mock").createdAt("2025-01-01T00:00:00Z").response("Hel").build(),
+                GenerateResponseDto.builder().model("mock").createdAt("2025-01-01T00:00:00Z").response("lo").done(true)
+                        .totalDuration(1200L).loadDuration(100L).promptEvalCount(1).promptEvalDuration(300L)
+                        .evalCount(2).evalDuration(800L).build()));
+
+        webTestClient().post()
+                .uri("/api/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(StreamedRequestDto.builder().model("mock").prompt("hello").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("""
+                        {"model":"mock","response":"Hel","thinking":null,"done":false,"context":null,\
+                        "created_at":"2025-01-01T00:00:00Z"}
+                        {"model":"mock","response":"lo","thinking":null,"done":true,"context":null,\
+                        "created_at":"2025-01-01T00:00:00Z","total_duration":1200,"load_duration":100,\
+                        "prompt_eval_count":1,"prompt_eval_duration":300,"eval_count":2,"eval_duration":800}
+                        """);
+    }
+
+    @Test
+    void shouldRejectBlankPrompt() {
+        webTestClient().post()
+                .uri("/api/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(StreamedRequestDto.builder().model("mock").prompt(" ").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldRejectNonJsonContentType() {
+        webTestClient().post()
+                .uri("/api/generate")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("{\"model\":\"mock\",\"prompt\":\"hello\"}")
+                .exchange()
+                .expectStatus().isEqualTo(415);
+    }
+
+    @Test
+    void shouldAnswerServerBusyWhenSlotQueueIsFull() {
+        given(generateService.generateStream(any())).willReturn(Flux.empty());
+        willReturn(Mono.error(new ServerBusyException())).given(slotScheduler).stream(any(), any());
+
+        webTestClient().post()
+                .uri("/api/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(StreamedRequestDto.builder().model("mock").prompt("hello").build())
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("server busy, please try again.  maximum pending requests exceeded");
+    }
+}
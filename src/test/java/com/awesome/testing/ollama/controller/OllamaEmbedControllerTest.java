@@ -0,0 +1,104 @@
+package com.awesome.testing.ollama.controller;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.service.EmbeddingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@WebFluxTest(controllers = OllamaEmbedController.class)
+@Import({EmbeddingService.class, OllamaEmbedControllerTest.TestConfig.class})
+class OllamaEmbedControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void shouldEmbedSingleInputAndBatches() {
+        webTestClient.post()
+                .uri("/api/embed")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"model\":\"nomic-embed-text\",\"input\":\"why is the sky blue\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.model").isEqualTo("nomic-embed-text")
+                .jsonPath("$.embeddings.length()").isEqualTo(1)
+                .jsonPath("$.embeddings[0].length()").isEqualTo(8)
+                .jsonPath("$.prompt_eval_count").isEqualTo(5)
+                .jsonPath("$.total_duration").isNumber();
+
+        webTestClient.post()
+                .uri("/api/embed")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"model\":\"nomic-embed-text\",\"input\":[\"a\",\"b\",\"c\"],\"dimensions\":3}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.embeddings.length()").isEqualTo(3)
+                .jsonPath("$.embeddings[2].length()").isEqualTo(3);
+    }
+
+    @Test
+    void shouldServeLegacyEmbeddings() {
+        webTestClient.post()
+                .uri("/api/embeddings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"model\":\"nomic-embed-text\",\"prompt\":\"hello\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.embedding.length()").isEqualTo(8);
+    }
+
+    @Test
+    void shouldRejectMissingModel() {
+        webTestClient.post()
+                .uri("/api/embed")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"input\":\"hello\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldRejectDimensionsOutOfRange() {
+        for (int dimensions : new int[] {0, 8193}) {
+            webTestClient.post()
+                    .uri("/api/embed")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"model\":\"nomic-embed-text\",\"input\":\"hello\",\"dimensions\":" + dimensions + "}")
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+    }
+
+    @Test
+    void shouldRejectMoreDimensionsThanTheModelHas() {
+        webTestClient.post()
+                .uri("/api/embed")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"model\":\"nomic-embed-text\",\"input\":\"hello\",\"dimensions\":9}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("dimensions 9 exceeds the 8 of model 'nomic-embed-text'");
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        @Primary
+        OllamaMockProperties mockProperties() {
+            OllamaMockProperties props = new OllamaMockProperties();
+            props.getEmbeddings().setDimensions(8);
+            return props;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.awesome.testing.ollama.controller;
 
 import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.registry.ModelRegistry;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
@@ -8,10 +10,13 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 @WebFluxTest(controllers = OllamaMetadataController.class)
-@Import(OllamaMetadataControllerTest.TestConfig.class)
+@Import({ModelRegistry.class, OllamaMetadataControllerTest.TestConfig.class})
 class OllamaMetadataControllerTest {
 
     @Autowired
@@ -29,6 +34,88 @@ class OllamaMetadataControllerTest {
                 .jsonPath("$.timestamp").exists();
     }
 
+    @Test
+    void shouldListDefaultModels() {
+        webTestClient.get()
+                .uri("/api/tags")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .expectHeader().cacheControl(CacheControl.noCache())
+                .expectBody()
+                .jsonPath("$.models.length()").isEqualTo(2)
+                .jsonPath("$.models[0].name").isEqualTo("test-model")
+                .jsonPath("$.models[0].details.quantization_level").isEqualTo("Q4_K_M")
+                .jsonPath("$.models[0].digest").isNotEmpty()
+                .jsonPath("$.models[0].expires_at").doesNotExist()
+                .jsonPath("$.models[1].name").isEqualTo("nomic-embed-text:latest");
+    }
+
+    @Test
+    void shouldListLoadedModelsOnly() {
+        webTestClient.get()
+                .uri("/api/ps")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.models.length()").isEqualTo(1)
+                .jsonPath("$.models[0].name").isEqualTo("test-model")
+                .jsonPath("$.models[0].expires_at").exists()
+                .jsonPath("$.models[0].size_vram").isEqualTo(4_928_307_200L);
+    }
+
+    @Test
+    void shouldAnswerMatchingEtagWithNotModified() {
+        String etag = webTestClient.get()
+                .uri("/api/tags")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get()
+                .uri("/api/tags")
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_MODIFIED)
+                .expectHeader().valueEquals("ETag", etag)
+                .expectBody().isEmpty();
+
+        webTestClient.get()
+                .uri("/api/tags")
+                .header("If-None-Match", "\"stale\"")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void shouldShowModelResolvingLatestTag() {
+        webTestClient.post()
+                .uri("/api/show")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("model", "nomic-embed-text"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .expectBody()
+                .jsonPath("$.details.family").isEqualTo("nomic-bert")
+                .jsonPath("$.capabilities[0]").isEqualTo("embedding")
+                .jsonPath("$.model_info['nomic-bert.context_length']").isEqualTo(2048);
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownModel() {
+        webTestClient.post()
+                .uri("/api/show")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "missing"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("model 'missing' not found");
+    }
+
     @TestConfiguration
     static class TestConfig {
         @Bean
@@ -0,0 +1,99 @@
+package com.awesome.testing.ollama.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class CountingAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final BlockedAppender downstream = new BlockedAppender();
+
+    @Test
+    void shouldCountEveryEventThatDoesNotFitTheSaturatedQueue() throws Exception {
+        CountingAsyncAppender appender = start(2, 0);
+        long droppedBefore = CountingAsyncAppender.droppedEvents();
+
+        appender.doAppend(event(Level.INFO, "first"));
+        assertThat(downstream.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(Level.INFO, "burst " + i));
+        }
+
+        assertThat(CountingAsyncAppender.droppedEvents() - droppedBefore).isEqualTo(9);
+        downstream.release.countDown();
+        appender.stop();
+        assertThat(downstream.delivered).extracting(ILoggingEvent::getMessage).containsExactly("first", "burst 0");
+    }
+
+    @Test
+    void shouldCountEventsDiscardedUnderTheThreshold() throws Exception {
+        CountingAsyncAppender appender = start(4, 4);
+        long droppedBefore = CountingAsyncAppender.droppedEvents();
+
+        appender.doAppend(event(Level.INFO, "first"));
+        assertThat(downstream.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        appender.doAppend(event(Level.INFO, "queued"));
+        appender.doAppend(event(Level.INFO, "discarded"));
+        appender.doAppend(event(Level.WARN, "warning"));
+        appender.doAppend(event(Level.DEBUG, "discarded"));
+
+        assertThat(CountingAsyncAppender.droppedEvents() - droppedBefore).isEqualTo(2);
+        downstream.release.countDown();
+        appender.stop();
+        assertThat(downstream.delivered).extracting(ILoggingEvent::getMessage)
+                .containsExactly("first", "queued", "warning");
+    }
+
+    private CountingAsyncAppender start(int queueSize, int discardingThreshold) {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        downstream.setContext(context);
+        downstream.setName("blocked");
+        downstream.start();
+        CountingAsyncAppender appender = new CountingAsyncAppender();
+        appender.setContext(context);
+        appender.setName("async");
+        appender.setQueueSize(queueSize);
+        appender.setDiscardingThreshold(discardingThreshold);
+        appender.setNeverBlock(true);
+        appender.addAppender(downstream);
+        appender.start();
+        return appender;
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        return new LoggingEvent(CountingAsyncAppenderTest.class.getName(), context.getLogger("test"), level,
+                message, null, null);
+    }
+
+    /**
+     * Holds the worker on the first event until released, keeping the queue saturated.
+     */
+    private static final class BlockedAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<ILoggingEvent> delivered = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.add(event);
+        }
+    }
+}
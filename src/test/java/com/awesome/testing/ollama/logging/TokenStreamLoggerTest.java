@@ -0,0 +1,82 @@
+package com.awesome.testing.ollama.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.logging.TokenStreamLogger.StreamLog;
+import com.awesome.testing.ollama.web.RequestOverrides;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class TokenStreamLoggerTest {
+
+    private OllamaMockProperties properties;
+    private TokenStreamLogger tokenLogger;
+    private Logger log;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OllamaMockProperties();
+        tokenLogger = new TokenStreamLogger(properties);
+        log = mock(Logger.class);
+    }
+
+    @Test
+    void shouldSkipTokensButLogSummaryInSummaryMode() {
+        properties.getLogging().setTokenMode(TokenLogMode.SUMMARY);
+        StreamLog streamLog = tokenLogger.open(log, "chat-stream", "prompt", Context.empty());
+
+        streamLog.token("content", "hello");
+        StepVerifier.create(streamLog.track(Flux.just("a", "b", "done"), chunk -> "done".equals(chunk) ? 0 : 1))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        verify(log, never()).info(eq("[{}][{}-token] {}"), any(), any(), any());
+        verify(log).info(eq("[{}][summary] scenario='{}' tokens={} duration={}ms outcome={}"),
+                eq("chat-stream"), eq("prompt"), eq(2L), any(), eq("complete"));
+    }
+
+    @Test
+    void shouldTraceOneInSampleRateStreams() {
+        properties.getLogging().setTokenMode(TokenLogMode.SAMPLED);
+        properties.getLogging().setSampleRate(3);
+
+        for (int i = 0; i < 6; i++) {
+            tokenLogger.open(log, "generate-stream", "prompt", Context.empty()).token("content", "token");
+        }
+
+        verify(log, times(2)).info(eq("[{}][{}-token] {}"), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void shouldTraceRequestWithTraceHeaderEvenWhenOff() {
+        properties.getLogging().setTokenMode(TokenLogMode.OFF);
+        Context traced = Context.of(RequestOverrides.class, RequestOverrides.builder().trace(true).build());
+
+        tokenLogger.open(log, "chat-tools", "prompt", Context.empty()).token("content", "quiet");
+        tokenLogger.open(log, "chat-tools", "prompt", traced).token("content", "loud");
+
+        verify(log, never()).info(eq("[{}][{}-token] {}"), anyString(), anyString(), eq("quiet"));
+        verify(log).info(eq("[{}][{}-token] {}"), anyString(), anyString(), eq("loud"));
+    }
+
+    @Test
+    void shouldNotTrackStreamsWhenOff() {
+        properties.getLogging().setTokenMode(TokenLogMode.OFF);
+        Flux<String> stream = Flux.just("a");
+
+        assertThat(tokenLogger.open(log, "chat-stream", "prompt", Context.empty()).track(stream, chunk -> 1))
+                .isSameAs(stream);
+    }
+}
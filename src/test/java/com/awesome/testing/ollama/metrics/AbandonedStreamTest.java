@@ -0,0 +1,69 @@
+package com.awesome.testing.ollama.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.awesome.testing.ollama.fastpath.FastPathServer;
+import com.awesome.testing.ollama.metrics.StreamMetrics.Endpoint;
+import com.awesome.testing.ollama.pacing.TokenPacer;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "ollama.mock.token-delay=50ms",
+                "ollama.mock.logging.token-mode=off",
+                "ollama.mock.fast-path.enabled=true",
+                "ollama.mock.fast-path.port=0"})
+class AbandonedStreamTest {
+
+    private static final String GENERATE_REQUEST = """
+            {"model": "mock", "prompt": "Walk me through the streaming demo for /api/generate"}""";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FastPathServer fastPathServer;
+
+    @Autowired
+    private StreamMetrics streamMetrics;
+
+    @Autowired
+    private TokenPacer tokenPacer;
+
+    @Test
+    void shouldReleaseStreamAndCountItAbandonedWhenClientDisconnects() {
+        long abandoned = streamMetrics.abandonedStreams(Endpoint.GENERATE);
+
+        for (int listener : new int[] {port, fastPathServer.port()}) {
+            List<String> received = HttpClient.create()
+                    .port(listener)
+                    .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+                    .post()
+                    .uri("/api/generate")
+                    .send(ByteBufFlux.fromString(Mono.just(GENERATE_REQUEST)))
+                    .responseContent()
+                    .asString()
+                    .take(2)
+                    .collectList()
+                    .block(Duration.ofSeconds(10));
+            assertThat(received).hasSize(2);
+        }
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(streamMetrics.abandonedStreams(Endpoint.GENERATE)).isEqualTo(abandoned + 2);
+            assertThat(streamMetrics.activeStreams(Endpoint.GENERATE)).isZero();
+            assertThat(tokenPacer.pendingTimeouts()).isZero();
+        });
+    }
+}
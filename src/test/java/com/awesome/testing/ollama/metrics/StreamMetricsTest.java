@@ -0,0 +1,99 @@
+package com.awesome.testing.ollama.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.metrics.StreamMetrics.Endpoint;
+import com.awesome.testing.ollama.metrics.StreamMetrics.ScenarioOutcome;
+import com.awesome.testing.ollama.stream.StreamFrame;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class StreamMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private StreamMetrics streamMetrics;
+
+    @BeforeEach
+    void setUp() {
+        OllamaMockProperties properties = new OllamaMockProperties();
+        properties.setTokenDelay(Duration.ofMillis(20));
+        registry = new SimpleMeterRegistry();
+        streamMetrics = new StreamMetrics(properties);
+        streamMetrics.bindTo(registry);
+    }
+
+    @Test
+    void shouldRecordLatencyAndActiveStreams() {
+        Flux<StreamFrame<String>> frames = Flux.just(
+                        StreamFrame.token("a", 1), StreamFrame.token("bc", 2), StreamFrame.done("done"))
+                .delayElements(Duration.ofMillis(5));
+
+        StepVerifier.create(streamMetrics.track(Endpoint.GENERATE, frames))
+                .then(() -> assertThat(streamMetrics.activeStreams(Endpoint.GENERATE)).isEqualTo(1))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        assertThat(streamMetrics.activeStreams(Endpoint.GENERATE)).isZero();
+        assertThat(registry.get("ollama.mock.stream.ttft").tag("endpoint", "generate").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ollama.mock.stream.inter.token").tag("endpoint", "generate").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("ollama.mock.stream.tokens.per.second").tag("endpoint", "generate").summary().count())
+                .isEqualTo(1);
+        assertThat(registry.get("ollama.mock.stream.configured.tokens.per.second").gauge().value()).isEqualTo(50.0);
+    }
+
+    @Test
+    void shouldCountStreamsCancelledBeforeDoneAsAbandoned() {
+        Flux<StreamFrame<String>> frames = Flux.just(
+                StreamFrame.token("a", 1), StreamFrame.token("bc", 2), StreamFrame.token("d", 1));
+
+        StepVerifier.create(streamMetrics.track(Endpoint.CHAT, frames), 2)
+                .expectNextCount(2)
+                .thenCancel()
+                .verify();
+        StepVerifier.create(streamMetrics.track(Endpoint.CHAT, Flux.concat(Flux.just(StreamFrame.done("done")), Flux.never())))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        assertThat(streamMetrics.abandonedStreams(Endpoint.CHAT)).isEqualTo(1);
+        assertThat(streamMetrics.activeStreams(Endpoint.CHAT)).isZero();
+        assertThat(registry.get("ollama.mock.stream.abandoned.tokens").tag("endpoint", "chat").summary().totalAmount())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void shouldCountScenarioOutcomes() {
+        streamMetrics.scenario(Endpoint.CHAT, "Tell me a joke", ScenarioOutcome.HIT);
+        streamMetrics.scenario(Endpoint.CHAT, "Tell me a joke", ScenarioOutcome.HIT);
+        streamMetrics.scenario(Endpoint.CHAT, "whatever the user typed", ScenarioOutcome.UNSUPPORTED);
+
+        assertThat(registry.get("ollama.mock.scenario.requests")
+                .tags("endpoint", "chat", "scenario", StreamMetrics.scenarioId("Tell me a joke"), "outcome", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("ollama.mock.scenario.requests")
+                .tags("scenario", StreamMetrics.UNSUPPORTED_SCENARIO, "outcome", "unsupported")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.find("ollama.mock.scenario.requests").meters())
+                .flatMap(meter -> meter.getId().getTags())
+                .noneMatch(tag -> tag.getValue().contains("joke") || tag.getValue().contains("typed"));
+    }
+
+    @Test
+    void shouldFoldScenariosBeyondTheSeriesCapIntoOther() {
+        for (int i = 0; i < StreamMetrics.MAX_SCENARIO_SERIES + 10; i++) {
+            streamMetrics.scenario(Endpoint.GENERATE, "prompt " + i, ScenarioOutcome.HIT);
+        }
+
+        assertThat(registry.find("ollama.mock.scenario.requests").meters())
+                .hasSize(StreamMetrics.MAX_SCENARIO_SERIES + 1);
+        assertThat(registry.get("ollama.mock.scenario.requests")
+                .tags("scenario", StreamMetrics.OTHER_SCENARIO, "outcome", "hit")
+                .functionCounter().count()).isEqualTo(10);
+    }
+}
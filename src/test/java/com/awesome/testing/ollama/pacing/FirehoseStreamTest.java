@@ -0,0 +1,70 @@
+package com.awesome.testing.ollama.pacing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.fastpath.FastPathServer;
+import com.awesome.testing.ollama.web.RequestOverrides;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "ollama.mock.token-delay=1s",
+                "ollama.mock.logging.token-mode=off",
+                "ollama.mock.fast-path.enabled=true",
+                "ollama.mock.fast-path.port=0"})
+class FirehoseStreamTest {
+
+    private static final String GENERATE_REQUEST = """
+            {"model": "mock", "prompt": "Walk me through the streaming demo for /api/generate"}""";
+
+    private static final String CHAT_REQUEST = """
+            {"model": "mock", "messages": [{"role": "user", "content": "Tell me a joke"}],
+             "options": {"mock_tokens_per_second": 1000}}""";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FastPathServer fastPathServer;
+
+    @Test
+    void shouldStreamWithoutConfiguredDelayWhenRequestOverridesPacing() {
+        for (int listener : new int[] {port, fastPathServer.port()}) {
+            assertThat(stream(listener, "/api/generate", GENERATE_REQUEST, RequestOverrides.FIREHOSE))
+                    .hasSizeGreaterThan(10)
+                    .last().asString().contains("\"done\":true");
+            assertThat(stream(listener, "/api/chat", CHAT_REQUEST, null))
+                    .hasSizeGreaterThan(5)
+                    .last().asString().contains("\"done\":true");
+        }
+    }
+
+    private List<String> stream(int listener, String uri, String body, String tokenDelay) {
+        return HttpClient.create()
+                .port(listener)
+                .headers(headers -> {
+                    headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+                    if (tokenDelay != null) {
+                        headers.set(RequestOverrides.TOKEN_DELAY_HEADER, tokenDelay);
+                    }
+                })
+                .post()
+                .uri(uri)
+                .send(ByteBufFlux.fromString(Mono.just(body)))
+                .responseContent()
+                .asString()
+                .collectList()
+                .map(chunks -> List.of(String.join("", chunks).split("\n")))
+                .block(Duration.ofSeconds(5));
+    }
+}
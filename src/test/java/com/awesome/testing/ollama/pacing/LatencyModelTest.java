@@ -0,0 +1,87 @@
+package com.awesome.testing.ollama.pacing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.config.OllamaMockProperties.Latency.Distribution;
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import com.awesome.testing.ollama.stream.StreamFrame;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LatencyModelTest {
+
+    private final OllamaMockProperties properties = new OllamaMockProperties();
+    private final LatencyModel latencyModel = new LatencyModel(properties);
+
+    @Test
+    void shouldKeepFixedDelaysByDefault() {
+        properties.setTokenDelay(Duration.ofMillis(10));
+        properties.setToolCallDelay(Duration.ofMillis(300));
+        StreamLatency latency = latencyModel.open("m", "Summarize the release plan");
+
+        assertThat(latency.delay(StreamFrame.token("a", 1))).isEqualTo(Duration.ofMillis(10));
+        assertThat(latency.delay(StreamFrame.token("bc", 3))).isEqualTo(Duration.ofMillis(30));
+        assertThat(latency.delay(StreamFrame.toolCall("call"))).isEqualTo(Duration.ofMillis(300));
+        assertThat(latency.delay(StreamFrame.done("done"))).isZero();
+    }
+
+    @Test
+    void shouldAddPromptEvaluationAndFirstTokenDelayToFirstChunkOnly() {
+        properties.setTokenDelay(Duration.ofMillis(10));
+        properties.getLatency().setPromptEvalPerToken(Duration.ofMillis(2));
+        properties.getLatency().setFirstTokenDelay(Duration.ofMillis(100));
+        StreamLatency latency = latencyModel.open("m", List.of(
+                ChatMessageDto.builder().role("system").content("be brief").build(),
+                ChatMessageDto.builder().role("user").content("what is new in the release").build()));
+
+        assertThat(latency.delay(StreamFrame.token("a", 1))).isEqualTo(Duration.ofMillis(10 + 2 * 8 + 100));
+        assertThat(latency.delay(StreamFrame.token("b", 1))).isEqualTo(Duration.ofMillis(10));
+    }
+
+    @Test
+    void shouldCountContentTheDecoderDidNotKeep() {
+        StreamLatency latency = latencyModel.open("m", List.of(
+                ChatMessageDto.builder().role("user").content("list products").build(),
+                ChatMessageDto.builder().role("tool").toolName("list_products").contentTokens(40).build()));
+
+        assertThat(latency.promptTokens()).isEqualTo(42);
+    }
+
+    @Test
+    void shouldDrawLognormalGapsAroundTokenDelayReproducibly() {
+        properties.setTokenDelay(Duration.ofMillis(20));
+        properties.getLatency().setDistribution(Distribution.LOGNORMAL);
+        properties.getLatency().setSigma(0.8);
+
+        long[] gaps = gaps(latencyModel.open("m", "prompt"), 2001);
+
+        assertThat(gaps(latencyModel.open("m", "prompt"), 2001)).isEqualTo(gaps);
+        assertThat(gaps(latencyModel.open("m", "other prompt"), 2001)).isNotEqualTo(gaps);
+        long[] sorted = gaps.clone();
+        Arrays.sort(sorted);
+        assertThat(Duration.ofNanos(sorted[1000])).isBetween(Duration.ofMillis(18), Duration.ofMillis(22));
+        assertThat(sorted[1980]).isGreaterThan(5 * sorted[1000]);
+    }
+
+    @Test
+    void shouldInterpolateBetweenEmpiricalSamples() {
+        properties.getLatency().setDistribution(Distribution.EMPIRICAL);
+        properties.getLatency().setSamples(List.of(Duration.ofMillis(40), Duration.ofMillis(10), Duration.ofMillis(20)));
+
+        long[] gaps = gaps(latencyModel.open("m", "prompt"), 500);
+
+        assertThat(Arrays.stream(gaps).min().getAsLong()).isGreaterThanOrEqualTo(Duration.ofMillis(10).toNanos());
+        assertThat(Arrays.stream(gaps).max().getAsLong()).isLessThanOrEqualTo(Duration.ofMillis(40).toNanos());
+        assertThat(Arrays.stream(gaps).distinct().count()).isGreaterThan(100);
+    }
+
+    private static long[] gaps(StreamLatency latency, int count) {
+        return IntStream.range(0, count)
+                .mapToLong(i -> latency.delay(StreamFrame.token("t", 1)).toNanos())
+                .toArray();
+    }
+}
@@ -0,0 +1,66 @@
+package com.awesome.testing.ollama.pacing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PacingPolicyTest {
+
+    private static final Duration CONFIGURED = Duration.ofMillis(50);
+
+    @Test
+    void shouldPreferOptionsOverHeaderOverConfiguration() {
+        assertThat(PacingPolicy.resolve(CONFIGURED, null, null, false).getTokenDelay()).isEqualTo(CONFIGURED);
+        assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(), Duration.ofMillis(5), false).getTokenDelay())
+                .isEqualTo(Duration.ofMillis(5));
+        assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(PacingPolicy.OPTION_TOKEN_DELAY_MS, 2), Duration.ofMillis(5),
+                false).getTokenDelay()).isEqualTo(Duration.ofMillis(2));
+        assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(PacingPolicy.OPTION_TOKENS_PER_SECOND, "200"), null, true))
+                .isEqualTo(new PacingPolicy(Duration.ofMillis(5), false));
+    }
+
+    @Test
+    void shouldOnlyUseFirehoseWhenAskedExplicitly() {
+        assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(PacingPolicy.OPTION_FIREHOSE, true), null, false).isFirehose())
+                .isTrue();
+        assertThat(PacingPolicy.resolve(CONFIGURED, null, null, true).isFirehose()).isTrue();
+        assertThat(PacingPolicy.resolve(Duration.ZERO, null, null, false).isFirehose()).isFalse();
+        assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(PacingPolicy.OPTION_TOKEN_DELAY_MS, 0), null, false))
+                .isEqualTo(new PacingPolicy(Duration.ZERO, false));
+        assertThat(PacingPolicy.resolve(CONFIGURED, null, Duration.ZERO, false).isFirehose()).isFalse();
+    }
+
+    @Test
+    void shouldIgnoreInvalidOptions() {
+        Map<String, Object> options = Map.of(
+                PacingPolicy.OPTION_TOKEN_DELAY_MS, -3,
+                PacingPolicy.OPTION_TOKENS_PER_SECOND, "fast",
+                PacingPolicy.OPTION_FIREHOSE, "no");
+
+        assertThat(PacingPolicy.resolve(CONFIGURED, options, null, false).getTokenDelay()).isEqualTo(CONFIGURED);
+    }
+
+    @Test
+    void shouldIgnoreNonFiniteOptions() {
+        for (Object value : new Object[] {Double.NaN, Double.POSITIVE_INFINITY, "Infinity", "NaN"}) {
+            assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(PacingPolicy.OPTION_TOKEN_DELAY_MS, value), null, false)
+                    .getTokenDelay()).isEqualTo(CONFIGURED);
+            assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(PacingPolicy.OPTION_TOKENS_PER_SECOND, value), null,
+                    false).getTokenDelay()).isEqualTo(CONFIGURED);
+        }
+    }
+
+    @Test
+    void shouldCapRequestedDelays() {
+        assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(PacingPolicy.OPTION_TOKEN_DELAY_MS, 1e15), null, false)
+                .getTokenDelay()).isEqualTo(PacingPolicy.MAX_TOKEN_DELAY);
+        assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(PacingPolicy.OPTION_TOKENS_PER_SECOND, 1e-300), null, false)
+                .getTokenDelay()).isEqualTo(PacingPolicy.MAX_TOKEN_DELAY);
+        assertThat(PacingPolicy.resolve(CONFIGURED, null, Duration.ofDays(1), false).getTokenDelay())
+                .isEqualTo(PacingPolicy.MAX_TOKEN_DELAY);
+        assertThat(PacingPolicy.resolve(CONFIGURED, Map.of(PacingPolicy.OPTION_TOKEN_DELAY_MS, 9_000), null, false)
+                .getTokenDelay()).isEqualTo(Duration.ofSeconds(9));
+    }
+}
@@ -0,0 +1,95 @@
+package com.awesome.testing.ollama.pacing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class TokenPacerTest {
+
+    private TokenPacer tokenPacer;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        tokenPacer = new TokenPacer(new OllamaMockProperties());
+        registry = new SimpleMeterRegistry();
+        tokenPacer.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenPacer.destroy();
+    }
+
+    @Test
+    void shouldEmitChunksInOrderWithConfiguredSpacing() {
+        long start = System.nanoTime();
+
+        StepVerifier.create(tokenPacer.pace(Flux.range(1, 5), chunk -> Duration.ofMillis(20)))
+                .expectNext(1, 2, 3, 4, 5)
+                .verifyComplete();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(registry.get("ollama.mock.pacing.lag").timer().count()).isPositive();
+    }
+
+    @Test
+    void shouldEmitChunksOffTheWheelThread() {
+        StepVerifier.create(tokenPacer.pace(Flux.range(1, 3), chunk -> Duration.ofMillis(5))
+                        .map(chunk -> Thread.currentThread().getName()))
+                .expectNextMatches(thread -> !thread.startsWith("token-pacer"))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldBypassWheelForZeroDelay() {
+        StepVerifier.create(tokenPacer.pace(Flux.range(1, 3), chunk -> Duration.ZERO))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+
+        assertThat(registry.get("ollama.mock.pacing.scheduled").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void shouldReleasePendingTimeoutWhenCancelled() throws InterruptedException {
+        Disposable subscription = tokenPacer.pace(Flux.just("slow"), chunk -> Duration.ofSeconds(30))
+                .subscribe();
+        assertThat(tokenPacer.pendingTimeouts()).isEqualTo(1);
+
+        subscription.dispose();
+        Thread.sleep(50);
+
+        assertThat(tokenPacer.pendingTimeouts()).isZero();
+        assertThat(registry.get("ollama.mock.pacing.cancelled").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldOnlyPaceChunksDownstreamAskedFor() {
+        AtomicInteger built = new AtomicInteger();
+        Flux<Integer> chunks = Flux.range(1, 100).doOnNext(chunk -> built.incrementAndGet());
+
+        BaseSubscriber<Integer> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.request(1);
+            }
+        };
+        tokenPacer.pace(chunks, chunk -> Duration.ofSeconds(30)).subscribe(subscriber);
+
+        assertThat(tokenPacer.pendingTimeouts()).isEqualTo(1);
+        assertThat(built.get()).isLessThanOrEqualTo(new OllamaMockProperties().getPacing().getPrefetch());
+        subscriber.dispose();
+    }
+}
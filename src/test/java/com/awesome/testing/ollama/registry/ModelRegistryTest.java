@@ -0,0 +1,80 @@
+package com.awesome.testing.ollama.registry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class ModelRegistryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldServeConfiguredModels() throws IOException {
+        OllamaMockProperties properties = new OllamaMockProperties();
+        properties.setModels(List.of(model("qwen3:4b", "qwen3"), model("llama3.2:latest", "llama")));
+
+        ModelRegistry registry = new ModelRegistry(properties, objectMapper);
+
+        JsonNode tags = objectMapper.readTree(registry.tags().body());
+        assertThat(tags.path("models")).hasSize(2);
+        assertThat(tags.at("/models/0/name").asText()).isEqualTo("qwen3:4b");
+        assertThat(tags.at("/models/0/size").asLong()).isEqualTo(DataSize.ofGigabytes(2).toBytes());
+        assertThat(tags.at("/models/0/digest").asText()).hasSize(64);
+        assertThat(tags.at("/models/0/details/family").asText()).isEqualTo("qwen3");
+        assertThat(registry.find("llama3.2")).map(OllamaMockProperties.Model::getName).hasValue("llama3.2:latest");
+        assertThat(registry.find("qwen3")).isEmpty();
+        assertThat(registry.show("qwen3:4b")).isPresent();
+    }
+
+    @Test
+    void shouldKeepEtagsStableUntilModelsChange() {
+        OllamaMockProperties properties = new OllamaMockProperties();
+        properties.setModels(List.of(model("qwen3:4b", "qwen3")));
+        ModelRegistry registry = new ModelRegistry(properties, objectMapper);
+        ModelRegistry.PreparedJson tags = registry.tags();
+
+        assertThat(new ModelRegistry(properties, objectMapper).tags().etag()).isEqualTo(tags.etag());
+        assertThat(registry.tags()).isSameAs(tags);
+
+        registry.replace(List.of(model("qwen3:4b", "qwen3"), model("phi4:latest", "phi3")));
+
+        assertThat(registry.tags().etag()).isNotEqualTo(tags.etag());
+        assertThat(registry.models()).hasSize(2);
+    }
+
+    @Test
+    void shouldMatchIfNoneMatchLists() {
+        ModelRegistry.PreparedJson json = new ModelRegistry.PreparedJson(new byte[0], "\"abc\"");
+
+        assertThat(json.matches(List.of("\"x\"", "\"abc\""))).isTrue();
+        assertThat(json.matches(List.of("W/\"abc\""))).isTrue();
+        assertThat(json.matches(List.of("*"))).isTrue();
+        assertThat(json.matches(List.of("\"abd\""))).isFalse();
+        assertThat(json.matches(List.of())).isFalse();
+    }
+
+    @Test
+    void shouldRejectDuplicateNames() {
+        OllamaMockProperties properties = new OllamaMockProperties();
+        properties.setModels(List.of(model("qwen3:4b", "qwen3"), model("qwen3:4b", "qwen3")));
+
+        assertThatThrownBy(() -> new ModelRegistry(properties, objectMapper))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("qwen3:4b");
+    }
+
+    private static OllamaMockProperties.Model model(String name, String family) {
+        OllamaMockProperties.Model model = new OllamaMockProperties.Model();
+        model.setName(name);
+        model.setFamily(family);
+        model.setSize(DataSize.ofGigabytes(2));
+        return model;
+    }
+}
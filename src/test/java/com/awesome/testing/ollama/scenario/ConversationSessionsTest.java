@@ -0,0 +1,184 @@
+package com.awesome.testing.ollama.scenario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.ChatMessageDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class ConversationSessionsTest {
+
+    private final ConversationSessions<String> sessions = new ConversationSessions<>(16);
+
+    @Test
+    void shouldOnlyLookAtNewMessagesOnLaterTurns() {
+        CountingIndex index = new CountingIndex(Map.of("list iphones", "phones"));
+        List<ChatMessageDto> history = new ArrayList<>(List.of(
+                message("system", "be brief"),
+                message("user", "hello"),
+                message("assistant", "hi"),
+                message("user", "List iphones")));
+
+        assertThat(sessions.resolve(null, history, index)).contains("phones");
+        assertThat(index.lookups).isEqualTo(2);
+
+        history.add(message("assistant", "calling list_products"));
+        history.add(message("tool", "[...]"));
+        assertThat(sessions.resolve(null, history, index)).contains("phones");
+        assertThat(index.lookups).isEqualTo(2);
+    }
+
+    @Test
+    void shouldScanOnlyAppendedMessagesWhileUnmatched() {
+        CountingIndex index = new CountingIndex(Map.of("list iphones", "phones"));
+        List<ChatMessageDto> history = new ArrayList<>(List.of(message("user", "hello")));
+
+        assertThat(sessions.resolve(null, history, index)).isEmpty();
+        history.add(message("assistant", "hi"));
+        history.add(message("user", "List iphones"));
+
+        assertThat(sessions.resolve(null, history, index)).contains("phones");
+        assertThat(index.lookups).isEqualTo(2);
+    }
+
+    @Test
+    void shouldResolveAgainWhenConversationIdIsReusedForAnotherHistory() {
+        CountingIndex index = new CountingIndex(Map.of("list iphones", "phones", "list laptops", "laptops"));
+
+        assertThat(sessions.resolve("c1", List.of(message("user", "List iphones")), index)).contains("phones");
+        assertThat(sessions.resolve("c1", List.of(message("user", "List laptops")), index)).contains("laptops");
+    }
+
+    @Test
+    void shouldOnlyCheckLastScannedMessageOfConversationWithId() {
+        CountingIndex index = new CountingIndex(Map.of("list iphones", "phones"));
+        ReadCountingMessage first = new ReadCountingMessage("hello");
+        List<ChatMessageDto> history = new ArrayList<>(List.of(first, message("user", "List iphones")));
+
+        assertThat(sessions.resolve("c1", history, index)).contains("phones");
+        int reads = first.reads;
+
+        history.add(message("assistant", "calling list_products"));
+        history.add(toolResult("list_products"));
+        assertThat(sessions.open("c1", history, index).toolResults("list_products")).isEqualTo(1);
+        history.add(message("user", "thanks"));
+        assertThat(sessions.resolve("c1", history, index)).contains("phones");
+        assertThat(first.reads).isEqualTo(reads);
+
+        history.set(history.size() - 1, message("user", "edited"));
+        history.add(message("assistant", "ok"));
+        assertThat(sessions.resolve("c1", history, index)).contains("phones");
+        assertThat(first.reads).isGreaterThan(reads);
+    }
+
+    @Test
+    void shouldNotShareSessionBetweenConversationsWithSameFirstMessage() {
+        CountingIndex index = new CountingIndex(Map.of("list iphones", "phones", "list laptops", "laptops"));
+
+        assertThat(sessions.resolve(null, List.of(
+                message("user", "hello"),
+                message("assistant", "hi"),
+                message("user", "List iphones")), index)).contains("phones");
+        assertThat(sessions.resolve(null, List.of(
+                message("user", "hello"),
+                message("user", "List laptops"),
+                message("assistant", "sure"),
+                message("user", "List iphones")), index)).contains("laptops");
+
+        assertThat(sessions.resolve(null, List.of(
+                message("user", "hello"),
+                message("assistant", "hi"),
+                message("user", "anything new?")), index)).isEmpty();
+        assertThat(sessions.resolve(null, List.of(
+                message("user", "hello"),
+                message("user", "List laptops"),
+                message("assistant", "sure"),
+                message("user", "thanks")), index)).contains("laptops");
+    }
+
+    @Test
+    void shouldCountToolResultsIncrementally() {
+        CountingIndex index = new CountingIndex(Map.of("list iphones", "phones"));
+        List<ChatMessageDto> history = new ArrayList<>(List.of(
+                message("user", "List iphones"),
+                toolResult("list_products")));
+
+        assertThat(sessions.open(null, history, index).toolResults("LIST_PRODUCTS")).isEqualTo(1);
+
+        history.add(toolResult("get_product"));
+        history.add(toolResult("List_Products"));
+        ConversationSessions.Conversation<String> conversation = sessions.open(null, history, index);
+        assertThat(conversation.plan()).contains("phones");
+        assertThat(conversation.toolResults("list_products")).isEqualTo(2);
+        assertThat(conversation.toolResults("get_product")).isEqualTo(1);
+        assertThat(conversation.toolResults("unknown")).isZero();
+
+        history.set(1, toolResult("get_product"));
+        assertThat(sessions.open(null, history, index).toolResults("list_products")).isEqualTo(1);
+        assertThat(new ConversationSessions<String>(0).open(null, history, index).toolResults("get_product"))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldResolveAgainAfterReload() {
+        List<ChatMessageDto> history = List.of(message("user", "List iphones"));
+
+        assertThat(sessions.resolve(null, history, new CountingIndex(Map.of("list iphones", "v1")))).contains("v1");
+        assertThat(sessions.resolve(null, history, new CountingIndex(Map.of("list iphones", "v2")))).contains("v2");
+    }
+
+    private static ChatMessageDto message(String role, String content) {
+        return ChatMessageDto.builder().role(role).content(content).build();
+    }
+
+    private static ChatMessageDto toolResult(String toolName) {
+        return ChatMessageDto.builder().role("tool").toolName(toolName).build();
+    }
+
+    private static final class ReadCountingMessage extends ChatMessageDto {
+
+        private int reads;
+
+        ReadCountingMessage(String content) {
+            setRole("user");
+            setContent(content);
+        }
+
+        @Override
+        public String getContent() {
+            reads++;
+            return super.getContent();
+        }
+    }
+
+    private static final class CountingIndex implements ScenarioIndex<String> {
+
+        private final Map<String, String> plans;
+        private final PromptMatcher matcher = PromptMatcher.of(List.of(), new OllamaMockProperties.Matching());
+        private int lookups;
+
+        CountingIndex(Map<String, String> plans) {
+            this.plans = plans;
+        }
+
+        @Override
+        public Optional<String> find(String normalizedPrompt) {
+            lookups++;
+            return Optional.ofNullable(plans.get(normalizedPrompt));
+        }
+
+        @Override
+        public List<String> supportedPrompts() {
+            return List.copyOf(plans.keySet());
+        }
+
+        @Override
+        public PromptMatcher matcher() {
+            return matcher;
+        }
+    }
+}
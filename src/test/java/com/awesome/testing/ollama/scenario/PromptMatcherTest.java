@@ -0,0 +1,58 @@
+package com.awesome.testing.ollama.scenario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class PromptMatcherTest {
+
+    private static final List<String> PROMPTS = List.of(
+            "Summarize the release plan",
+            "Give me a quick status update on the Ollama mock",
+            "What iphones do we have available? Tell me the details about them");
+
+    @Test
+    void shouldMatchPromptDespitePunctuationAndTypos() {
+        PromptMatcher matcher = matcher(PROMPTS, 0.75, 5);
+
+        assertThat(matcher.closest("  summarize the release plan!!\n")).contains("Summarize the release plan");
+        assertThat(matcher.closest("Give me a quick staus update on the Ollama mock"))
+                .contains("Give me a quick status update on the Ollama mock");
+        assertThat(matcher.closest("Summarize the budget")).isEmpty();
+    }
+
+    @Test
+    void shouldStayExactWhenThresholdIsZero() {
+        assertThat(matcher(PROMPTS, 0, 5).closest("summarize the release plan!")).isEmpty();
+    }
+
+    @Test
+    void shouldSuggestNearestPromptsFirstAndTopUpInFileOrder() {
+        PromptMatcher matcher = matcher(PROMPTS, 0, 2);
+
+        assertThat(matcher.nearest("which iphones are available?")).hasSize(2).startsWith(PROMPTS.get(2));
+        assertThat(matcher.nearest("???")).containsExactly(PROMPTS.get(0), PROMPTS.get(1));
+    }
+
+    @Test
+    void shouldFindTypoAmongLargeCorpusWithBoundedCandidates() {
+        List<String> corpus = IntStream.range(0, 50_000)
+                .mapToObj(i -> "Recorded prompt number " + i + " about the weekly report")
+                .collect(Collectors.toList());
+        PromptMatcher matcher = matcher(corpus, 0.8, 5);
+
+        assertThat(matcher.closest("recorded promt number 31337 about the weekly report."))
+                .contains("Recorded prompt number 31337 about the weekly report");
+    }
+
+    private static PromptMatcher matcher(List<String> prompts, double threshold, int suggestions) {
+        OllamaMockProperties.Matching matching = new OllamaMockProperties.Matching();
+        matching.setThreshold(threshold);
+        matching.setSuggestions(suggestions);
+        return PromptMatcher.of(prompts, matching);
+    }
+}
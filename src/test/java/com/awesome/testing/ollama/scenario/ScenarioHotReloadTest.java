@@ -0,0 +1,122 @@
+package com.awesome.testing.ollama.scenario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioPlan;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScenarioHotReloadTest {
+
+    @TempDir
+    private Path directory;
+
+    private ScenarioSource scenarioSource;
+    private GenerateScenarioRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        write("Ping");
+        OllamaMockProperties properties = new OllamaMockProperties();
+        properties.getScenarios().setDirectory(directory);
+        properties.getScenarios().setReloadDebounce(Duration.ofMillis(20));
+        scenarioSource = new ScenarioSource(properties);
+        repository = new GenerateScenarioRepository(new ObjectMapper(), scenarioSource);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        scenarioSource.destroy();
+    }
+
+    @Test
+    void shouldPreferExternalFileOverBundledScenarios() {
+        assertThat(repository.supportedPrompts()).containsExactly("Ping");
+    }
+
+    @Test
+    void shouldSwapIndexWhenFileChangesAndKeepPlansHandedOutBefore() throws IOException {
+        GenerateScenarioPlan before = repository.findByPrompt("ping").orElseThrow();
+
+        write("Pong");
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                assertThat(repository.supportedPrompts()).containsExactly("Pong"));
+        assertThat(repository.findByPrompt("ping")).isEmpty();
+        assertThat(before.getPrompt()).isEqualTo("Ping");
+    }
+
+    @Test
+    void shouldKeepLastGoodIndexWhenFileIsInvalid() throws IOException {
+        Files.writeString(directory.resolve("generate-scenarios.json"), "{\"scenarios\": [");
+
+        repository.reload();
+
+        assertThat(repository.findByPrompt("Ping")).isPresent();
+    }
+
+    @Test
+    void shouldServeLazyLookupsWhileFileIsRewrittenInPlace() throws Exception {
+        OllamaMockProperties properties = new OllamaMockProperties();
+        properties.getScenarios().setDirectory(directory);
+        properties.getScenarios().setReloadDebounce(Duration.ofMillis(1));
+        properties.getScenarios().setLazy(true);
+        properties.getScenarios().setCacheSize(0);
+        ScenarioSource lazySource = new ScenarioSource(properties);
+        GenerateScenarioRepository lazyRepository = new GenerateScenarioRepository(new ObjectMapper(), lazySource);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; writing.get(); i++) {
+                try {
+                    writePadded("Ping", i % 2 == 0 ? 4096 : 8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        try {
+            writer.start();
+            long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+            while (System.nanoTime() < deadline) {
+                assertThat(lazyRepository.findByPrompt("ping")).get()
+                        .extracting(GenerateScenarioPlan::getPrompt)
+                        .isEqualTo("Ping");
+            }
+        } finally {
+            writing.set(false);
+            writer.join();
+            lazySource.destroy();
+        }
+    }
+
+    private void writePadded(String prompt, int padding) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve("generate-scenarios.json"),
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap("""
+                    {"scenarios": [{"prompt": "%s", "chunks": [{"response": "%s"}]}]}
+                    """.formatted(prompt, "x".repeat(padding)).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private void write(String prompt) throws IOException {
+        Files.writeString(directory.resolve("generate-scenarios.json"), """
+                {"scenarios": [{"prompt": "%s", "chunks": [{"response": "%s back"}]}]}
+                """.formatted(prompt, prompt));
+    }
+}
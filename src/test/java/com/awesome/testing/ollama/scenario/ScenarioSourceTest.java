@@ -0,0 +1,137 @@
+package com.awesome.testing.ollama.scenario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioDefinition;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioPlan;
+import com.awesome.testing.ollama.scenario.chat.ChatScenarioRepository;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioDefinition;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioPlan;
+import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioRepository;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioDefinition;
+import com.awesome.testing.ollama.scenario.generate.GenerateScenarioPlan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+class ScenarioSourceTest {
+
+    private static final String FILE = "generate-scenarios.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldDecodeScenariosLazilyFromMappedFile() throws IOException {
+        writeCorpus(500);
+        ScenarioIndex<GenerateScenarioPlan> index = load(source(true, 2));
+
+        assertThat(index).isInstanceOf(MappedScenarioIndex.class);
+        assertThat(index.supportedPrompts()).hasSize(500).startsWith("Prompt ü 0");
+        GenerateScenarioPlan plan = index.find("prompt ü 321").orElseThrow();
+        assertThat(plan.getPrompt()).isEqualTo("Prompt ü 321");
+        assertThat(plan.getChunks().get(0).getResponse().getText()).isEqualTo("Answer \"321\" ✓");
+        assertThat(index.find("prompt ü 321").orElseThrow()).isSameAs(plan);
+        assertThat(index.find("unknown")).isEmpty();
+    }
+
+    @Test
+    void shouldMatchEagerIndex() throws IOException {
+        writeCorpus(20);
+        ScenarioIndex<GenerateScenarioPlan> eager = load(source(false, 0));
+        ScenarioIndex<GenerateScenarioPlan> lazy = load(source(true, 0));
+
+        assertThat(lazy.supportedPrompts()).isEqualTo(eager.supportedPrompts());
+        assertThat(lazy.find("prompt ü 7").orElseThrow()).isEqualTo(eager.find("prompt ü 7").orElseThrow());
+    }
+
+    @Test
+    void shouldRejectScenarioWithoutPrompt() throws IOException {
+        Files.writeString(directory.resolve(FILE), "{\"scenarios\": [{\"chunks\": []}]}");
+
+        assertThatThrownBy(() -> load(source(true, 16)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("without prompt");
+    }
+
+    @Test
+    void shouldRejectDuplicateNormalizedPrompts() throws IOException {
+        Files.writeString(directory.resolve(FILE), """
+                {"scenarios": [{"prompt": "Ping", "chunks": []}, {"prompt": " ping ", "chunks": []}]}""");
+
+        assertThatThrownBy(() -> load(source(false, 0)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Duplicate prompt ' ping '");
+        assertThatThrownBy(() -> load(source(true, 16)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Duplicate prompt");
+    }
+
+    @Test
+    void shouldLoadBundledScenariosFromCompiledTablesIdenticalToJson() throws Exception {
+        assertThat(Class.forName(CompiledScenarioTable.className(FILE), false, getClass().getClassLoader()))
+                .as("generated by the process-classes build step")
+                .isNotNull();
+        for (String file : List.of(FILE, ChatDialogueScenarioRepository.SCENARIO_FILE, ChatScenarioRepository.SCENARIO_FILE)) {
+            Files.copy(new ClassPathResource("scenarios/" + file).getInputStream(), directory.resolve(file));
+        }
+        ScenarioSource compiled = ScenarioSource.classpath();
+        ScenarioSource json = source(false, 0);
+
+        assertSameScenarios(compiled, json, FILE, GenerateScenarioDefinition.class,
+                GenerateScenarioDefinition::getPrompt, GenerateScenarioPlan::compile);
+        assertSameScenarios(compiled, json, ChatDialogueScenarioRepository.SCENARIO_FILE,
+                ChatDialogueScenarioDefinition.class, ChatDialogueScenarioDefinition::getPrompt,
+                ChatDialogueScenarioPlan::compile);
+        assertSameScenarios(compiled, json, ChatScenarioRepository.SCENARIO_FILE, ChatScenarioDefinition.class,
+                ChatScenarioDefinition::getPrompt, ChatScenarioPlan::compile);
+    }
+
+    private <D, P> void assertSameScenarios(ScenarioSource compiled,
+                                            ScenarioSource json,
+                                            String file,
+                                            Class<D> definitionType,
+                                            Function<D, String> promptOf,
+                                            Function<D, P> compiler) {
+        ScenarioIndex<P> fromTable = compiled.load(objectMapper, file, definitionType, promptOf, compiler);
+        ScenarioIndex<P> fromJson = json.load(objectMapper, file, definitionType, promptOf, compiler);
+
+        assertThat(fromTable).isNotSameAs(fromJson);
+        assertThat(fromTable.supportedPrompts()).isNotEmpty().isEqualTo(fromJson.supportedPrompts());
+        fromJson.supportedPrompts().forEach(prompt -> assertThat(fromTable.find(ScenarioIndex.normalize(prompt)))
+                .isEqualTo(fromJson.find(ScenarioIndex.normalize(prompt))));
+    }
+
+    private ScenarioIndex<GenerateScenarioPlan> load(ScenarioSource source) {
+        return source.load(objectMapper, FILE, GenerateScenarioDefinition.class,
+                GenerateScenarioDefinition::getPrompt, GenerateScenarioPlan::compile);
+    }
+
+    private ScenarioSource source(boolean lazy, int cacheSize) {
+        OllamaMockProperties properties = new OllamaMockProperties();
+        properties.getScenarios().setDirectory(directory);
+        properties.getScenarios().setLazy(lazy);
+        properties.getScenarios().setCacheSize(cacheSize);
+        return new ScenarioSource(properties);
+    }
+
+    private void writeCorpus(int size) throws IOException {
+        String scenarios = IntStream.range(0, size)
+                .mapToObj(i -> """
+                        {"prompt": "Prompt ü %d", "chunks": [{"response": "Answer \\"%d\\" ✓"}]}""".formatted(i, i))
+                .collect(Collectors.joining(",\n"));
+        Files.writeString(directory.resolve(FILE), "{\"version\": 1, \"scenarios\": [\n" + scenarios + "\n]}");
+    }
+}
@@ -0,0 +1,19 @@
+package com.awesome.testing.ollama.scenario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.codec.PreparedJsonStrings;
+import org.junit.jupiter.api.Test;
+
+class TokenizedTextTest {
+
+    @Test
+    void shouldOnlyPrepareScenarioTokens() {
+        TokenizedText scenario = TokenizedText.of("scenario-only-token");
+        TokenizedText request = TokenizedText.ofRequest("request-only-token");
+
+        assertThat(scenario.getTokens()).allSatisfy(token -> assertThat(PreparedJsonStrings.lookup(token)).isNotNull());
+        assertThat(request.getTokens()).isNotEmpty()
+                .allSatisfy(token -> assertThat(PreparedJsonStrings.lookup(token)).isNull());
+    }
+}
@@ -0,0 +1,54 @@
+package com.awesome.testing.ollama.scenario.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ChatScenarioPlanTest {
+
+    private final ChatScenarioPlan plan = ChatScenarioPlan.compile(definition(
+            stage("user", null, "search"),
+            stage("tool", "search", "fetch_page"),
+            stage("tool", "fetch_page", "search"),
+            stage("tool", "Search", "fetch_page"),
+            stage("tool", "fetch_page", null)));
+
+    @Test
+    void shouldResolveStagesByTriggerAndToolName() {
+        assertThat(plan.stageForUserPrompt().orElseThrow().getToolCall().getName()).isEqualTo("search");
+        assertThat(plan.stageForTool(" FETCH_PAGE ").orElseThrow().getToolCall().getName()).isEqualTo("search");
+        assertThat(plan.stageForTool("unknown")).isEmpty();
+        assertThat(plan.stageForTool(null)).isEmpty();
+    }
+
+    @Test
+    void shouldDistinguishRepeatedToolsByOccurrence() {
+        assertThat(plan.toolStageCount("fetch_page")).isEqualTo(2);
+        assertThat(plan.stageForTool("fetch_page", 1).orElseThrow().getToolCall()).isNotNull();
+        assertThat(plan.stageForTool("fetch_page", 2).orElseThrow().getToolCall()).isNull();
+        assertThat(plan.stageForTool("fetch_page", 7)).isSameAs(plan.stageForTool("fetch_page", 2));
+    }
+
+    private static ChatScenarioDefinition definition(ChatScenarioStageDefinition... stages) {
+        ChatScenarioDefinition definition = new ChatScenarioDefinition();
+        definition.setName("agent-loop");
+        definition.setPrompt("Research the topic");
+        definition.setStages(List.of(stages));
+        return definition;
+    }
+
+    private static ChatScenarioStageDefinition stage(String trigger, String toolName, String nextTool) {
+        ChatScenarioStageDefinition stage = new ChatScenarioStageDefinition();
+        stage.setTrigger(trigger);
+        stage.setToolName(toolName);
+        if (nextTool == null) {
+            stage.setResponse("Done researching.");
+        } else {
+            ChatScenarioToolCallDefinition toolCall = new ChatScenarioToolCallDefinition();
+            toolCall.setName(nextTool);
+            stage.setToolCall(toolCall);
+        }
+        return stage;
+    }
+}
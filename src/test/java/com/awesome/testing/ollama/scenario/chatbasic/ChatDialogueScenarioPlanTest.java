@@ -0,0 +1,53 @@
+package com.awesome.testing.ollama.scenario.chatbasic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ChatDialogueScenarioPlanTest {
+
+    @Test
+    void shouldPrecomputeAggregatesForSingleReplies() {
+        ChatDialogueScenarioPlan plan = ChatDialogueScenarioPlan.compile(definition(
+                chunk("step one", "Hello"),
+                chunk(null, "world"),
+                chunk("step two", null)));
+
+        assertThat(plan.getAggregatedThinking()).isEqualTo("step one\n\nstep two");
+        assertThat(plan.getAggregatedContent()).isEqualTo("Hello\n\nworld");
+        assertThat(plan.getChunks()).extracting(chunk -> chunk.getThinking().getTokens())
+                .containsExactly(List.of("step", " ", "one"), List.of(), List.of("step", " ", "two"));
+    }
+
+    @Test
+    void shouldNotChangeWhenTheDefinitionIsEditedAfterCompilation() {
+        ChatDialogueScenarioDefinition definition = definition(chunk(null, "Hello"));
+        ChatDialogueScenarioPlan plan = ChatDialogueScenarioPlan.compile(definition);
+
+        definition.getChunks().get(0).setResponse("edited");
+        definition.getChunks().add(chunk(null, "added"));
+
+        assertThat(plan.getChunks()).singleElement()
+                .satisfies(chunk -> assertThat(chunk.getResponse().getTokens()).containsExactly("Hello"));
+        assertThat(plan.getAggregatedThinking()).isNull();
+        assertThat(plan.getAggregatedContent()).isEqualTo("Hello");
+        assertThatThrownBy(() -> plan.getChunks().remove(0)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static ChatDialogueScenarioDefinition definition(ChatDialogueChunkDefinition... chunks) {
+        ChatDialogueScenarioDefinition definition = new ChatDialogueScenarioDefinition();
+        definition.setPrompt("Say hello");
+        definition.setChunks(new ArrayList<>(List.of(chunks)));
+        return definition;
+    }
+
+    private static ChatDialogueChunkDefinition chunk(String thinking, String response) {
+        ChatDialogueChunkDefinition chunk = new ChatDialogueChunkDefinition();
+        chunk.setThinking(thinking);
+        chunk.setResponse(response);
+        return chunk;
+    }
+}
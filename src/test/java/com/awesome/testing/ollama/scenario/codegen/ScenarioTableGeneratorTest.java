@@ -0,0 +1,82 @@
+package com.awesome.testing.ollama.scenario.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScenarioTableGeneratorTest {
+
+    private static final Path GENERATED = Path.of("com/awesome/testing/ollama/scenario/generated");
+
+    @TempDir
+    private Path scenarios;
+
+    @TempDir
+    private Path output;
+
+    @Test
+    void shouldGenerateTableWithEscapedLiterals() throws IOException {
+        Files.writeString(scenarios.resolve("generate-scenarios.json"), """
+                {"scenarios": [{"prompt": "Say \\"hi\\"", "chunks": [{"response": "Zażółć\\ngęślą"}]}]}""");
+
+        new ScenarioTableGenerator(scenarios).generate(output);
+
+        String source = Files.readString(output.resolve(GENERATED).resolve("GenerateScenariosTable.java"));
+        assertThat(source)
+                .contains("class GenerateScenariosTable implements CompiledScenarioTable<GenerateScenarioPlan>")
+                .contains("\"Say \\\"hi\\\"\"")
+                .contains("\"Za\\u017c\\u00f3\\u0142\\u0107\\ng\\u0119\\u015bl\\u0105\"");
+        assertThat(output.resolve(GENERATED).resolve("ChatScenariosTable.java")).doesNotExist();
+    }
+
+    @Test
+    void shouldKeepLongMultiChunkScenarioWithinMethodSizeLimit() throws IOException {
+        String chunk = "{\"response\": \"" + "lorem ipsum ".repeat(750) + "\"}";
+        String chunks = IntStream.range(0, 20).mapToObj(i -> chunk).collect(Collectors.joining(", "));
+        Files.writeString(scenarios.resolve("generate-scenarios.json"),
+                "{\"scenarios\": [{\"prompt\": \"Long story\", \"chunks\": [" + chunks + "]}]}");
+
+        new ScenarioTableGenerator(scenarios).generate(output);
+
+        Path table = output.resolve(GENERATED).resolve("GenerateScenariosTable.java");
+        assertThat(Files.readString(table)).contains("TokenizedText.precompiled(").contains("TokenizedText.of(");
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        int status = ToolProvider.getSystemJavaCompiler().run(null, null, errors,
+                "-proc:none", "-cp", System.getProperty("java.class.path"),
+                "-d", output.resolve("classes").toString(), table.toString());
+        assertThat(status).as(errors.toString()).isZero();
+    }
+
+    @Test
+    void shouldFailOnDuplicateNormalizedPrompts() throws IOException {
+        Files.writeString(scenarios.resolve("chat-dialog-scenarios.json"), """
+                {"scenarios": [{"prompt": "Status?"}, {"prompt": "status?  "}]}""");
+
+        assertThatThrownBy(() -> new ScenarioTableGenerator(scenarios).generate(output))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Duplicate prompt 'status?  '");
+    }
+
+    @Test
+    void shouldFailOnInvalidToolStages() throws IOException {
+        Files.writeString(scenarios.resolve("chat-scenarios.json"), """
+                {"scenarios": [{"prompt": "Find phones", "stages": [
+                  {"trigger": "tool", "response": "Done"},
+                  {"trigger": "assistant", "toolCall": {"name": "list_products"}}
+                ]}]}""");
+
+        assertThatThrownBy(() -> new ScenarioTableGenerator(scenarios).generate(output))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("'Find phones' stage 1: tool stage without toolName")
+                .hasMessageContaining("'Find phones' stage 2: trigger must be 'user' or 'tool'");
+    }
+}
@@ -0,0 +1,67 @@
+package com.awesome.testing.ollama.scenario.generate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.awesome.testing.ollama.scenario.StreamChunkPlan;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class GenerateScenarioPlanTest {
+
+    @Test
+    void shouldTokenizeChunksOnceAndKeepTheLastResponseForSingleReplies() {
+        GenerateScenarioPlan plan = GenerateScenarioPlan.compile(definition(
+                chunk("Let me think", "First answer"),
+                chunk(null, "Final answer"),
+                chunk("trailing thought", " ")));
+
+        assertThat(plan.getChunks()).extracting(chunk -> chunk.getResponse().getTokens())
+                .containsExactly(List.of("First", " ", "answer"), List.of("Final", " ", "answer"), List.of());
+        assertThat(plan.getChunks().get(1).getThinking().isEmpty()).isTrue();
+        assertThat(plan.getSingleResponse()).isEqualTo("Final answer");
+    }
+
+    @Test
+    void shouldNotChangeWhenTheDefinitionIsEditedAfterCompilation() {
+        GenerateScenarioDefinition definition = definition(chunk("thinking", "response"));
+        GenerateScenarioPlan plan = GenerateScenarioPlan.compile(definition);
+
+        definition.getChunks().get(0).setResponse("edited");
+        definition.getChunks().add(chunk(null, "added"));
+
+        assertThat(plan.getChunks()).singleElement()
+                .satisfies(chunk -> assertThat(chunk.getResponse().getText()).isEqualTo("response"));
+        assertThat(plan.getSingleResponse()).isEqualTo("response");
+        assertThatThrownBy(() -> plan.getChunks().add(StreamChunkPlan.of(null, "x")))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> plan.getChunks().get(0).getResponse().getTokens().add("x"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldCompileScenarioWithoutChunks() {
+        GenerateScenarioDefinition definition = new GenerateScenarioDefinition();
+        definition.setPrompt("empty");
+
+        GenerateScenarioPlan plan = GenerateScenarioPlan.compile(definition);
+
+        assertThat(plan.getChunks()).isEmpty();
+        assertThat(plan.getSingleResponse()).isNull();
+    }
+
+    private static GenerateScenarioDefinition definition(GenerateScenarioChunkDefinition... chunks) {
+        GenerateScenarioDefinition definition = new GenerateScenarioDefinition();
+        definition.setPrompt("Explain streaming");
+        definition.setChunks(new ArrayList<>(List.of(chunks)));
+        return definition;
+    }
+
+    private static GenerateScenarioChunkDefinition chunk(String thinking, String response) {
+        GenerateScenarioChunkDefinition chunk = new GenerateScenarioChunkDefinition();
+        chunk.setThinking(thinking);
+        chunk.setResponse(response);
+        return chunk;
+    }
+}
@@ -0,0 +1,153 @@
+package com.awesome.testing.ollama.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.registry.ModelRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class ModelSlotSchedulerTest {
+
+    private OllamaMockProperties properties;
+    private ModelSlotScheduler scheduler;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OllamaMockProperties();
+        properties.setDefaultModel("mock");
+        properties.getSlots().setParallel(1);
+        properties.getSlots().setMaxQueue(1);
+        scheduler = new ModelSlotScheduler(properties, new ModelRegistry(properties, new ObjectMapper()));
+        registry = new SimpleMeterRegistry();
+        scheduler.bindTo(registry);
+    }
+
+    @Test
+    void shouldQueueThenRejectBeyondSlotsAndQueue() {
+        Sinks.Many<String> first = Sinks.many().unicast().onBackpressureBuffer();
+        List<String> received = new ArrayList<>();
+
+        scheduler.stream("mock", first.asFlux()).flatMapMany(body -> body).subscribe(received::add);
+        scheduler.stream("mock:latest", Flux.just("second")).flatMapMany(body -> body).subscribe(received::add);
+
+        assertThat(scheduler.active("mock")).isEqualTo(1);
+        assertThat(scheduler.queued("mock")).isEqualTo(1);
+        StepVerifier.create(scheduler.stream(null, Flux.just("third")))
+                .expectError(ServerBusyException.class)
+                .verify();
+
+        first.tryEmitNext("first");
+        first.tryEmitComplete();
+
+        assertThat(received).containsExactly("first", "second");
+        assertThat(scheduler.active("mock")).isZero();
+        assertThat(scheduler.queued("mock")).isZero();
+        assertThat(registry.get("ollama.mock.slots.rejected").tag("model", "mock:latest").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("ollama.mock.slots.wait").tag("model", "mock:latest").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldLeaveQueueWhenWaitingRequestIsCancelled() {
+        Disposable holder = scheduler.single("mock", Mono.never()).flatMap(body -> body).subscribe();
+        Disposable waiting = scheduler.single("mock", Mono.just("queued")).flatMap(body -> body).subscribe();
+        assertThat(scheduler.queued("mock")).isEqualTo(1);
+
+        waiting.dispose();
+        assertThat(scheduler.queued("mock")).isZero();
+
+        holder.dispose();
+        assertThat(scheduler.active("mock")).isZero();
+        StepVerifier.create(scheduler.single("mock", Mono.just("next")).flatMap(body -> body))
+                .expectNext("next")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReleaseSlotWhenCancelledBetweenAdmissionAndBodySubscription() {
+        Disposable exchange = SlotLeases.bracket(scheduler.stream("mock", Flux.just("never subscribed"))
+                        .flatMap(body -> Mono.never()))
+                .subscribe();
+        assertThat(scheduler.active("mock")).isEqualTo(1);
+
+        exchange.dispose();
+
+        assertThat(scheduler.active("mock")).isZero();
+        StepVerifier.create(scheduler.single("mock", Mono.just("next")).flatMap(body -> body))
+                .expectNext("next")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReleaseSlotWhenAdmittedBodyCannotBeHandedOver() {
+        StepVerifier.create(scheduler.stream("mock", Flux.just("x")).map(body -> {
+                    throw new IllegalStateException("response mapping failed");
+                }))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertThat(scheduler.active("mock")).isZero();
+    }
+
+    @Test
+    void shouldKeepSlotOfSubscribedBodyUntilItTerminates() {
+        Sinks.Many<String> body = Sinks.many().unicast().onBackpressureBuffer();
+        Disposable exchange = SlotLeases.bracket(scheduler.stream("mock", body.asFlux())
+                        .flatMap(scheduled -> scheduled.then()))
+                .subscribe();
+
+        assertThat(scheduler.active("mock")).isEqualTo(1);
+        body.tryEmitComplete();
+        assertThat(scheduler.active("mock")).isZero();
+        exchange.dispose();
+        assertThat(scheduler.active("mock")).isZero();
+    }
+
+    @Test
+    void shouldScheduleModelsIndependentlyAndSkipUnlimitedOnes() {
+        properties.getSlots().getModels().put("big", 1);
+        properties.getSlots().getModels().put("fast:latest", 0);
+        Disposable big = scheduler.stream("big", Flux.never()).flatMapMany(body -> body).subscribe();
+
+        StepVerifier.create(scheduler.stream("other", Flux.just("ok")).flatMapMany(body -> body))
+                .expectNext("ok")
+                .verifyComplete();
+        for (int i = 0; i < 3; i++) {
+            scheduler.stream("fast", Flux.never()).flatMapMany(body -> body).subscribe();
+        }
+
+        assertThat(scheduler.active("big:latest")).isEqualTo(1);
+        assertThat(scheduler.active("fast")).isZero();
+        big.dispose();
+        assertThat(scheduler.active("big")).isZero();
+    }
+
+    @Test
+    void shouldShareOneLaneBetweenUnknownModels() {
+        Disposable first = scheduler.stream("random-1", Flux.never()).flatMapMany(body -> body).subscribe();
+        scheduler.stream("random-2", Flux.never()).flatMapMany(body -> body).subscribe();
+        StepVerifier.create(scheduler.stream("random-3", Flux.just("third")))
+                .expectError(ServerBusyException.class)
+                .verify();
+
+        assertThat(scheduler.active("anything")).isEqualTo(1);
+        assertThat(scheduler.queued("anything")).isEqualTo(1);
+        assertThat(scheduler.active("mock")).isZero();
+        assertThat(registry.get("ollama.mock.slots.rejected").tag("model", "(other)").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.find("ollama.mock.slots.active").tag("model", "random-1:latest").gauge()).isNull();
+        first.dispose();
+    }
+}
@@ -5,11 +5,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.awesome.testing.ollama.config.OllamaMockProperties;
 import com.awesome.testing.ollama.dto.ChatMessageDto;
 import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.awesome.testing.ollama.logging.TokenStreamLogger;
+import com.awesome.testing.ollama.metrics.StreamMetrics;
+import com.awesome.testing.ollama.pacing.LatencyModel;
+import com.awesome.testing.ollama.pacing.TokenPacer;
+import com.awesome.testing.ollama.scenario.ScenarioSource;
 import com.awesome.testing.ollama.scenario.chatbasic.ChatDialogueScenarioRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.test.StepVerifier;
@@ -17,14 +23,25 @@ import reactor.test.StepVerifier;
 class ChatServiceTest {
 
     private ChatService chatService;
+    private TokenPacer tokenPacer;
 
     @BeforeEach
     void setUp() {
         OllamaMockProperties properties = new OllamaMockProperties();
         properties.setTokenDelay(Duration.ZERO);
+        tokenPacer = new TokenPacer(properties);
         chatService = new ChatService(
                 properties,
-                new ChatDialogueScenarioRepository(new ObjectMapper()));
+                tokenPacer,
+                new LatencyModel(properties),
+                new TokenStreamLogger(properties),
+                new StreamMetrics(properties),
+                new ChatDialogueScenarioRepository(new ObjectMapper(), ScenarioSource.classpath()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenPacer.destroy();
     }
 
     @Test
@@ -5,26 +5,51 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.awesome.testing.ollama.config.OllamaMockProperties;
 import com.awesome.testing.ollama.dto.ChatMessageDto;
 import com.awesome.testing.ollama.dto.ChatRequestDto;
+import com.awesome.testing.ollama.logging.TokenStreamLogger;
+import com.awesome.testing.ollama.metrics.StreamMetrics;
+import com.awesome.testing.ollama.pacing.LatencyModel;
+import com.awesome.testing.ollama.pacing.PacingPolicy;
+import com.awesome.testing.ollama.pacing.TokenPacer;
+import com.awesome.testing.ollama.scenario.ScenarioSource;
 import com.awesome.testing.ollama.scenario.chat.ChatScenarioRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.test.StepVerifier;
 
 class ChatToolsServiceTest {
 
+    private OllamaMockProperties properties;
     private ChatToolsService chatToolsService;
+    private TokenPacer tokenPacer;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
-        OllamaMockProperties properties = new OllamaMockProperties();
+        properties = new OllamaMockProperties();
         properties.setTokenDelay(Duration.ZERO);
         properties.setToolCallDelay(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        StreamMetrics streamMetrics = new StreamMetrics(properties);
+        streamMetrics.bindTo(meterRegistry);
+        tokenPacer = new TokenPacer(properties);
         chatToolsService = new ChatToolsService(
                 properties,
-                new ChatScenarioRepository(new ObjectMapper()));
+                tokenPacer,
+                new LatencyModel(properties),
+                new TokenStreamLogger(properties),
+                streamMetrics,
+                new ChatScenarioRepository(new ObjectMapper(), ScenarioSource.classpath()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenPacer.destroy();
     }
 
     @Test
@@ -45,6 +70,29 @@ class ChatToolsServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void shouldHonourToolCallDelayWithZeroTokenDelayUnlessFirehoseIsRequested() {
+        properties.setToolCallDelay(Duration.ofMillis(300));
+        ChatMessageDto userMessage = ChatMessageDto.builder()
+                .role("user")
+                .content("What iphones do we have available? Tell me the details about them")
+                .build();
+
+        Duration paced = StepVerifier.create(chatToolsService.chatToolStream(
+                        ChatRequestDto.builder().messages(List.of(userMessage)).build()))
+                .thenConsumeWhile(chunk -> true)
+                .verifyComplete();
+        Duration firehose = StepVerifier.create(chatToolsService.chatToolStream(ChatRequestDto.builder()
+                        .messages(List.of(userMessage))
+                        .options(Map.of(PacingPolicy.OPTION_FIREHOSE, true))
+                        .build()))
+                .thenConsumeWhile(chunk -> true)
+                .verifyComplete();
+
+        assertThat(paced).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+        assertThat(firehose).isLessThan(Duration.ofMillis(300));
+    }
+
     @Test
     void shouldIssueSnapshotAfterCatalogResult() {
         ChatMessageDto userMessage = ChatMessageDto.builder()
@@ -67,6 +115,10 @@ class ChatToolsServiceTest {
                     assertThat(chunks.get(chunks.size() - 1).isDone()).isTrue();
                 })
                 .verifyComplete();
+
+        assertThat(meterRegistry.get("ollama.mock.chat.tools.transitions")
+                .tags("trigger", "list_products", "next", "get_product_snapshot")
+                .functionCounter().count()).isEqualTo(1);
     }
 
     @Test
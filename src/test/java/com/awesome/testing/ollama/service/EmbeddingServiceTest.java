@@ -0,0 +1,119 @@
+package com.awesome.testing.ollama.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.dto.EmbedRequestDto;
+import com.awesome.testing.ollama.dto.EmbedResponseDto;
+import com.awesome.testing.ollama.dto.EmbeddingRequestDto;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+class EmbeddingServiceTest {
+
+    private OllamaMockProperties properties;
+    private EmbeddingService embeddingService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OllamaMockProperties();
+        properties.getEmbeddings().setParallelThreshold(8);
+        OllamaMockProperties.EmbeddingModel small = new OllamaMockProperties.EmbeddingModel();
+        small.setDimensions(4);
+        small.setNormalize(false);
+        properties.getEmbeddings().getModels().put("all-minilm:22m", small);
+        embeddingService = new EmbeddingService(properties);
+    }
+
+    @Test
+    void shouldReturnDeterministicUnitVectors() {
+        EmbedRequestDto request = EmbedRequestDto.builder()
+                .model("nomic-embed-text")
+                .input(List.of("why is the sky blue", "why is the sky blue", "what is a mock"))
+                .build();
+
+        EmbedResponseDto first = embeddingService.embed(request).block();
+        EmbedResponseDto second = embeddingService.embed(request).block();
+
+        assertThat(first.getEmbeddings()).hasNumberOfRows(3);
+        assertThat(first.getEmbeddings()[0]).hasSize(768).isEqualTo(first.getEmbeddings()[1]);
+        assertThat(first.getEmbeddings()[2]).isNotEqualTo(first.getEmbeddings()[0]);
+        assertThat(second.getEmbeddings()).isDeepEqualTo(first.getEmbeddings());
+        assertThat(norm(first.getEmbeddings()[2])).isCloseTo(1.0, within(1e-5));
+        assertThat(first.getPromptEvalCount()).isEqualTo(14);
+        assertThat(first.getTotalDuration()).isNotNull();
+    }
+
+    @Test
+    void shouldApplyModelOverridesAndRequestedDimensions() {
+        StepVerifier.create(embeddingService.embed(EmbedRequestDto.builder()
+                        .model("all-minilm:22m")
+                        .input(List.of("hello"))
+                        .build()))
+                .assertNext(response -> {
+                    assertThat(response.getEmbeddings()[0]).hasSize(4);
+                    assertThat(norm(response.getEmbeddings()[0])).isNotCloseTo(1.0, within(1e-3));
+                })
+                .verifyComplete();
+
+        StepVerifier.create(embeddingService.embed(EmbedRequestDto.builder()
+                        .model("nomic-embed-text")
+                        .input(List.of("hello"))
+                        .dimensions(256)
+                        .build()))
+                .assertNext(response -> assertThat(response.getEmbeddings()[0]).hasSize(256))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectMoreDimensionsThanTheModelHas() {
+        StepVerifier.create(embeddingService.embed(EmbedRequestDto.builder()
+                        .model("all-minilm:22m")
+                        .input(List.of("hello"))
+                        .dimensions(5)
+                        .build()))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(InvalidRequestException.class)
+                        .hasMessage("dimensions 5 exceeds the 4 of model 'all-minilm:22m'"))
+                .verify();
+    }
+
+    @Test
+    void shouldGenerateLargeBatchesInOrder() {
+        List<String> inputs = IntStream.range(0, 100).mapToObj(i -> "chunk " + i).toList();
+
+        EmbedResponseDto response = embeddingService.embed(EmbedRequestDto.builder()
+                .model("nomic-embed-text")
+                .input(inputs)
+                .build()).block();
+
+        assertThat(response.getEmbeddings()).hasNumberOfRows(100);
+        for (int i = 0; i < inputs.size(); i++) {
+            assertThat(response.getEmbeddings()[i])
+                    .isEqualTo(PseudoEmbeddings.vector("nomic-embed-text", inputs.get(i), 768, true));
+        }
+    }
+
+    @Test
+    void shouldServeLegacyEmbeddingsEndpoint() {
+        StepVerifier.create(embeddingService.embedding(new EmbeddingRequestDto("nomic-embed-text", "hello")))
+                .assertNext(response -> assertThat(response.getEmbedding())
+                        .isEqualTo(PseudoEmbeddings.vector("nomic-embed-text", "hello", 768, true)))
+                .verifyComplete();
+        StepVerifier.create(embeddingService.embedding(new EmbeddingRequestDto("nomic-embed-text", "")))
+                .assertNext(response -> assertThat(response.getEmbedding()).isEmpty())
+                .verifyComplete();
+    }
+
+    private static double norm(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+}
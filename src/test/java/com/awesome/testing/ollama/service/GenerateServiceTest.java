@@ -5,10 +5,19 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.awesome.testing.ollama.config.OllamaMockProperties;
 import com.awesome.testing.ollama.dto.GenerateResponseDto;
 import com.awesome.testing.ollama.dto.StreamedRequestDto;
+import com.awesome.testing.ollama.logging.TokenStreamLogger;
+import com.awesome.testing.ollama.metrics.StreamMetrics;
+import com.awesome.testing.ollama.pacing.LatencyModel;
+import com.awesome.testing.ollama.pacing.TokenPacer;
+import com.awesome.testing.ollama.scenario.ScenarioSource;
 import com.awesome.testing.ollama.scenario.generate.GenerateScenarioRepository;
+import com.awesome.testing.ollama.stream.CoalescingPolicy;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.test.StepVerifier;
@@ -16,15 +25,26 @@ import reactor.test.StepVerifier;
 class GenerateServiceTest {
 
     private GenerateService generateService;
+    private TokenPacer tokenPacer;
 
     @BeforeEach
     void setUp() {
         OllamaMockProperties properties = new OllamaMockProperties();
         properties.setDefaultModel("default-model");
         properties.setTokenDelay(Duration.ZERO);
+        tokenPacer = new TokenPacer(properties);
         generateService = new GenerateService(
                 properties,
-                new GenerateScenarioRepository(new ObjectMapper()));
+                tokenPacer,
+                new LatencyModel(properties),
+                new TokenStreamLogger(properties),
+                new StreamMetrics(properties),
+                new GenerateScenarioRepository(new ObjectMapper(), ScenarioSource.classpath()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenPacer.destroy();
     }
 
     @Test
@@ -47,11 +67,35 @@ class GenerateServiceTest {
                             .collect(Collectors.joining());
                     assertThat(thinking).contains("release checklist");
                     assertThat(content).contains("mock Ollama service");
-                    assertThat(chunks.get(chunks.size() - 1).isDone()).isTrue();
+                    GenerateResponseDto done = chunks.get(chunks.size() - 1);
+                    assertThat(done.isDone()).isTrue();
+                    assertThat(done.getPromptEvalCount()).isEqualTo(4);
+                    assertThat(done.getEvalCount()).isEqualTo(chunks.size() - 1);
+                    assertThat(done.getTotalDuration()).isPositive();
+                    assertThat(chunks.subList(0, chunks.size() - 1))
+                            .allSatisfy(chunk -> assertThat(chunk.getEvalCount()).isNull());
                 })
                 .verifyComplete();
     }
 
+    @Test
+    void shouldCoalesceTokensRequestedThroughOptions() {
+        StreamedRequestDto plain = StreamedRequestDto.builder()
+                .prompt("Summarize the release plan")
+                .build();
+        StreamedRequestDto coalesced = StreamedRequestDto.builder()
+                .prompt("Summarize the release plan")
+                .options(Map.of(CoalescingPolicy.OPTION_MAX_TOKENS, 4))
+                .build();
+
+        List<GenerateResponseDto> plainChunks = generateService.generateStream(plain).collectList().block();
+        List<GenerateResponseDto> coalescedChunks = generateService.generateStream(coalesced).collectList().block();
+
+        assertThat(coalescedChunks).hasSizeLessThan(plainChunks.size());
+        assertThat(responseText(coalescedChunks)).isEqualTo(responseText(plainChunks));
+        assertThat(coalescedChunks.get(coalescedChunks.size() - 1).isDone()).isTrue();
+    }
+
     @Test
     void shouldReturnFallbackForUnsupportedPrompt() {
         StreamedRequestDto request = StreamedRequestDto.builder()
@@ -108,4 +152,11 @@ class GenerateServiceTest {
                 })
                 .verifyComplete();
     }
+
+    private static String responseText(List<GenerateResponseDto> chunks) {
+        return chunks.stream()
+                .map(GenerateResponseDto::getResponse)
+                .filter(resp -> resp != null)
+                .collect(Collectors.joining());
+    }
 }
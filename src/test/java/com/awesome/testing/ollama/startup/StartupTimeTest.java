@@ -0,0 +1,149 @@
+package com.awesome.testing.ollama.startup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.abort;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Starts the image the {@code startup} profile extracts to {@code target/startup} in a fresh JVM and
+ * measures the time until it first answers {@code /api/version} and streams a {@code /api/generate}
+ * scenario: once plain, within {@code -Dollama.startup.budget} (default {@code PT5S}), and once with
+ * Spring AOT and the trained cache, within {@code -Dollama.startup.aot-budget} (default {@code PT2S}).
+ * The profile runs it in the {@code verify} phase and sets {@code ollama.startup.directory} and
+ * {@code ollama.startup.jar}; other test runs skip it.
+ */
+class StartupTimeTest {
+
+    private static final Duration BUDGET = Duration.parse(System.getProperty("ollama.startup.budget", "PT5S"));
+    private static final Duration AOT_BUDGET =
+            Duration.parse(System.getProperty("ollama.startup.aot-budget", "PT2S"));
+
+    private static final String GENERATE_REQUEST = """
+            {"model": "gpt-4o-mini", "prompt": "Summarize the release plan"}""";
+
+    @TempDir
+    private Path tempDir;
+
+    private Path directory;
+    private String jar;
+
+    @BeforeEach
+    void locateImage() {
+        String startupDirectory = System.getProperty("ollama.startup.directory");
+        jar = System.getProperty("ollama.startup.jar");
+        assumeTrue(startupDirectory != null && jar != null, "run with mvn -Pstartup verify");
+        directory = Path.of(startupDirectory);
+        assumeTrue(Files.isRegularFile(directory.resolve(jar)), "no extracted image in " + directory);
+    }
+
+    @Test
+    void shouldServeFirstResponsesWithinBudget() throws Exception {
+        assertServesWithin(BUDGET, List.of());
+    }
+
+    @Test
+    void shouldServeFirstResponsesWithinBudgetFromAotCache() throws Exception {
+        List<String> jvmArgs = new ArrayList<>(List.of("-Dspring.aot.enabled=true"));
+        if (Files.isRegularFile(directory.resolve("app.aot"))) {
+            jvmArgs.add("-XX:AOTCache=app.aot");
+        } else if (Files.isRegularFile(directory.resolve("app.jsa"))) {
+            jvmArgs.add("-XX:SharedArchiveFile=app.jsa");
+        } else {
+            abort("no app.aot or app.jsa in " + directory);
+        }
+        assertServesWithin(AOT_BUDGET, jvmArgs);
+    }
+
+    private void assertServesWithin(Duration budget, List<String> jvmArgs) throws Exception {
+        int port = freePort();
+        Path output = tempDir.resolve("mock.log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command(port, jvmArgs))
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> version = awaitVersion(client, port, process, start, budget);
+            Duration toVersion = Duration.ofNanos(System.nanoTime() - start);
+
+            HttpResponse<String> generate = client.send(HttpRequest.newBuilder(uri(port, "/api/generate"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(GENERATE_REQUEST))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            Duration toGenerate = Duration.ofNanos(System.nanoTime() - start);
+
+            assertThat(version.statusCode()).as(log(output)).isEqualTo(200);
+            assertThat(generate.statusCode()).as(log(output)).isEqualTo(200);
+            assertThat(generate.body()).contains("\"done\":true");
+            assertThat(toVersion).as("time to first /api/version response").isLessThan(budget);
+            assertThat(toGenerate).as("time to first /api/generate stream").isLessThan(budget);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private List<String> command(int port, List<String> jvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        command.add("--ollama.mock.token-delay=0ms");
+        command.add("--ollama.mock.logging.token-mode=off");
+        return command;
+    }
+
+    private static HttpResponse<String> awaitVersion(HttpClient client, int port, Process process, long start,
+                                                     Duration budget) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(port, "/api/version")).GET().build();
+        while (System.nanoTime() - start < budget.multipliedBy(2).toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("mock exited with status " + process.exitValue());
+            }
+            try {
+                return client.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (ConnectException notListeningYet) {
+                Thread.sleep(10);
+            }
+        }
+        throw new IllegalStateException("mock did not answer within " + budget.multipliedBy(2));
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String log(Path output) {
+        try {
+            return Files.readString(output);
+        } catch (IOException e) {
+            return "mock output unavailable: " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.awesome.testing.ollama.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.config.OllamaMockProperties;
+import com.awesome.testing.ollama.pacing.PacingPolicy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CoalescedTokensTest {
+
+    private static final List<String> TOKENS = List.of("The", " mock", " answers", " fast", ".");
+
+    @Test
+    void shouldKeepTokensAsIsWhenCoalescingDisabled() {
+        CoalescedTokens groups = CoalescedTokens.of(TOKENS, CoalescingPolicy.NONE);
+
+        assertThat(groups.size()).isEqualTo(5);
+        assertThat(groups.text(1)).isEqualTo(" mock");
+        assertThat(groups.tokenCount(1)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGroupByTokenCount() {
+        CoalescedTokens groups = CoalescedTokens.of(TOKENS, new CoalescingPolicy(2, 0));
+
+        assertThat(groups.size()).isEqualTo(3);
+        assertThat(groups.text(0)).isEqualTo("The mock");
+        assertThat(groups.text(2)).isEqualTo(".");
+        assertThat(groups.tokenCount(0)).isEqualTo(2);
+        assertThat(groups.tokenCount(2)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCloseGroupBeforeExceedingByteLimit() {
+        CoalescedTokens groups = CoalescedTokens.of(TOKENS, new CoalescingPolicy(0, 10));
+
+        assertThat(groups.text(0)).isEqualTo("The mock");
+        assertThat(groups.text(1)).isEqualTo(" answers");
+        assertThat(groups.text(2)).isEqualTo(" fast.");
+    }
+
+    @Test
+    void shouldConvertWindowToTokensAndPreferRequestOptions() {
+        OllamaMockProperties.Coalescing defaults = new OllamaMockProperties.Coalescing();
+        defaults.setWindow(Duration.ofMillis(100));
+
+        CoalescingPolicy fromDefaults = CoalescingPolicy.resolve(defaults, Map.of(), Duration.ofMillis(20));
+        CoalescingPolicy fromOptions = CoalescingPolicy.resolve(defaults,
+                Map.of(CoalescingPolicy.OPTION_WINDOW_MS, "0", CoalescingPolicy.OPTION_MAX_TOKENS, 3),
+                Duration.ofMillis(20));
+
+        assertThat(fromDefaults.getMaxTokens()).isEqualTo(5);
+        assertThat(fromOptions.getMaxTokens()).isEqualTo(3);
+        assertThat(CoalescingPolicy.resolve(new OllamaMockProperties.Coalescing(), null, Duration.ofMillis(20)))
+                .isSameAs(CoalescingPolicy.NONE);
+    }
+
+    @Test
+    void shouldNotCollapseTheReplyWhenOnlyAWindowIsSetForAnUnpacedStream() {
+        OllamaMockProperties.Coalescing defaults = new OllamaMockProperties.Coalescing();
+        defaults.setWindow(Duration.ofMillis(100));
+        Duration firehose = PacingPolicy.resolve(Duration.ofMillis(20), Map.of(PacingPolicy.OPTION_FIREHOSE, true),
+                null, false).getTokenDelay();
+
+        CoalescingPolicy policy = CoalescingPolicy.resolve(defaults, Map.of(), firehose);
+
+        assertThat(policy).isSameAs(CoalescingPolicy.NONE);
+        assertThat(CoalescedTokens.of(TOKENS, policy).size()).isEqualTo(TOKENS.size());
+        assertThat(CoalescingPolicy.resolve(defaults, Map.of(CoalescingPolicy.OPTION_MAX_BYTES, 10), firehose))
+                .isEqualTo(new CoalescingPolicy(0, 10));
+    }
+
+    @Test
+    void shouldConvertWindowWithSubMillisecondTokenDelays() {
+        OllamaMockProperties.Coalescing defaults = new OllamaMockProperties.Coalescing();
+
+        CoalescingPolicy policy = CoalescingPolicy.resolve(defaults,
+                Map.of(CoalescingPolicy.OPTION_WINDOW_MS, 1), Duration.ofNanos(250_000));
+
+        assertThat(policy.getMaxTokens()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,51 @@
+package com.awesome.testing.ollama.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.awesome.testing.ollama.dto.GenerateResponseDto;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class StreamTimingsTest {
+
+    @Test
+    void shouldFillDoneChunkWithMeasuredDurations() {
+        long requested = System.nanoTime() - Duration.ofMillis(30).toNanos();
+        StreamTimings timings = new StreamTimings(requested, 7);
+        GenerateResponseDto done = GenerateResponseDto.builder().done(true).build();
+        Flux<StreamFrame<GenerateResponseDto>> frames = Flux.just(
+                        StreamFrame.token(GenerateResponseDto.builder().response("a").build(), 1),
+                        StreamFrame.token(GenerateResponseDto.builder().response("b c").build(), 2),
+                        StreamFrame.done(done))
+                .delayElements(Duration.ofMillis(20));
+
+        StepVerifier.create(timings.record(frames))
+                .expectNextMatches(frame -> frame.getChunk().getTotalDuration() == null)
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertThat(done.getLoadDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(30).toNanos());
+        assertThat(done.getPromptEvalCount()).isEqualTo(7);
+        assertThat(done.getPromptEvalDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(20).toNanos());
+        assertThat(done.getEvalCount()).isEqualTo(3);
+        assertThat(done.getEvalDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(40).toNanos());
+        assertThat(done.getTotalDuration())
+                .isEqualTo(done.getLoadDuration() + done.getPromptEvalDuration() + done.getEvalDuration());
+    }
+
+    @Test
+    void shouldReportZeroEvalForStreamWithoutChunks() {
+        StreamTimings timings = new StreamTimings(System.nanoTime(), 0);
+        GenerateResponseDto done = GenerateResponseDto.builder().done(true).build();
+
+        StepVerifier.create(timings.record(Flux.just(StreamFrame.done(done))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(done.getEvalCount()).isZero();
+        assertThat(done.getEvalDuration()).isZero();
+        assertThat(done.getTotalDuration()).isNotNull();
+    }
+}
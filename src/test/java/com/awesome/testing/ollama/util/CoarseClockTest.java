@@ -0,0 +1,34 @@
+package com.awesome.testing.ollama.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class CoarseClockTest {
+
+    @Test
+    void shouldFormatTheMillisecondItIsKeyedBy() {
+        long before = System.currentTimeMillis();
+        String now = CoarseClock.now();
+        long after = System.currentTimeMillis();
+
+        OffsetDateTime parsed = OffsetDateTime.parse(now);
+        assertThat(parsed.getOffset()).isEqualTo(ZoneOffset.UTC);
+        assertThat(parsed.getNano() % 1_000_000).isZero();
+        assertThat(parsed.toInstant().toEpochMilli()).isBetween(before, after);
+    }
+
+    @Test
+    void shouldShareQuotedBytesForTheCachedTimestampOnly() {
+        String now = CoarseClock.now();
+        byte[] json = CoarseClock.jsonBytes(now);
+
+        if (json != null) {
+            assertThat(new String(json, StandardCharsets.UTF_8)).isEqualTo('"' + now + '"');
+        }
+        assertThat(CoarseClock.jsonBytes(new String(now))).isNull();
+    }
+}
@@ -0,0 +1,60 @@
+package com.awesome.testing.ollama.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TokenStreamUtilsTest {
+
+    @Test
+    void shouldSplitWordsAndKeepEveryWhitespaceCharacterAsItsOwnToken() {
+        assertThat(TokenStreamUtils.tokenize("  Hello,\tworld!\n\nżółć 🚀 "))
+                .containsExactly(" ", " ", "Hello,", "\t", "world!", "\n", "\n", "żółć", " ", "🚀", " ");
+    }
+
+    @Test
+    void shouldReturnNoTokensForNullOrEmptyText() {
+        assertThat(TokenStreamUtils.tokenize(null)).isEmpty();
+        assertThat(TokenStreamUtils.tokenize("")).isEmpty();
+    }
+
+    @Test
+    void shouldMatchTheCharacterCopyingTokenizer() {
+        Random random = new Random(42);
+        String alphabet = "ab ż\t\n\r.🚀";
+        for (int i = 0; i < 500; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertThat(TokenStreamUtils.tokenize(text.toString())).isEqualTo(baseline(text.toString()));
+        }
+    }
+
+    private static List<String> baseline(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder buffer = new StringBuilder();
+        for (char ch : text.toCharArray()) {
+            if (Character.isWhitespace(ch)) {
+                if (buffer.length() > 0) {
+                    tokens.add(buffer.toString());
+                    buffer.setLength(0);
+                }
+                tokens.add(String.valueOf(ch));
+            } else {
+                buffer.append(ch);
+            }
+        }
+        if (buffer.length() > 0) {
+            tokens.add(buffer.toString());
+        }
+        return tokens;
+    }
+}